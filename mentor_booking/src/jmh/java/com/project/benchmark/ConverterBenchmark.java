@@ -0,0 +1,309 @@
+package com.project.benchmark;
+
+import com.project.dto.BookingDTO;
+import com.project.dto.GroupDTO;
+import com.project.dto.MentorsDTO;
+import com.project.dto.NotificationsDTO;
+import com.project.enums.AvailableStatus;
+import com.project.enums.BookingStatus;
+import com.project.enums.Gender;
+import com.project.enums.GroupRole;
+import com.project.enums.MentorScheduleStatus;
+import com.project.enums.NoficationType;
+import com.project.enums.NotificationAction;
+import com.project.enums.ProjectTaskStatus;
+import com.project.model.Booking;
+import com.project.model.Class;
+import com.project.model.Group;
+import com.project.model.MentorSchedule;
+import com.project.model.Mentors;
+import com.project.model.Notifications;
+import com.project.model.ProjectTasks;
+import com.project.model.Projects;
+import com.project.model.Role;
+import com.project.model.Semester;
+import com.project.model.Skills;
+import com.project.model.Students;
+import com.project.model.Topic;
+import com.project.model.Users;
+import com.project.ultis.Converter;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of the Converter methods used on every booking, group,
+ * notification and mentor response.
+ *
+ * The entities are plain objects built in memory, shaped like the data of a
+ * semester: groups of {@code groupSize} students with a project and its
+ * tasks, mentors with skills and assigned classes. Run with the benchmark
+ * profile, see pom.xml.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ConverterBenchmark {
+
+    @Param({"5"})
+    private int groupSize;
+
+    @Param({"5"})
+    private int skillCount;
+
+    @Param({"3"})
+    private int assignedClassCount;
+
+    @Param({"10"})
+    private int taskCount;
+
+    private Booking booking;
+    private Group group;
+    private Mentors mentor;
+    private Notifications notification;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Role studentRole = role(1L, "STUDENT");
+        Role mentorRole = role(2L, "MENTOR");
+        Semester semester = semester();
+
+        mentor = mentor(mentorRole, semester);
+        Class aClass = aClass(100L, semester, mentor);
+
+        group = group(aClass, studentRole, mentor, semester);
+        booking = booking(group, mentor);
+        notification = notification(booking, group);
+    }
+
+    @Benchmark
+    public BookingDTO convertBookingToBookingDTO() {
+        return Converter.convertBookingToBookingDTO(booking);
+    }
+
+    @Benchmark
+    public GroupDTO convertGroupToGroupDTO() {
+        return Converter.convertGroupToGroupDTO(group);
+    }
+
+    @Benchmark
+    public NotificationsDTO convertNotificationToNotiDTO() {
+        return Converter.convertNotificationToNotiDTO(notification);
+    }
+
+    @Benchmark
+    public MentorsDTO convertMentorToMentorDTO() {
+        return Converter.convertMentorToMentorDTO(mentor);
+    }
+
+    private Role role(Long id, String roleName) {
+        Role role = new Role();
+        role.setId(id);
+        role.setRoleName(roleName);
+        role.setAvailableStatus(AvailableStatus.ACTIVE);
+        return role;
+    }
+
+    private Semester semester() {
+        Semester semester = new Semester();
+        semester.setId(1L);
+        semester.setSemesterName("FA24");
+        semester.setDateCreated(LocalDateTime.now());
+        semester.setDateStart(LocalDate.now().minusMonths(1));
+        semester.setDateEnd(LocalDate.now().plusMonths(3));
+        semester.setAvailableStatus(AvailableStatus.ACTIVE);
+        return semester;
+    }
+
+    private Users user(Long id, Role role) {
+        Users user = new Users();
+        user.setId(id);
+        user.setUsername("user" + id);
+        user.setFullName("Nguyễn Văn User " + id);
+        user.setEmail("user" + id + "@fpt.edu.vn");
+        user.setAddress("Thủ Đức, Hồ Chí Minh");
+        user.setPhone("0900000" + id);
+        user.setGender(Gender.MALE);
+        user.setAvatar("https://example.com/avatar/" + id + ".png");
+        user.setBirthDate(LocalDate.of(2003, 1, 1));
+        user.setDateCreated(LocalDateTime.now());
+        user.setDateUpdated(LocalDateTime.now());
+        user.setRole(role);
+        user.setAvailableStatus(AvailableStatus.ACTIVE);
+        return user;
+    }
+
+    private Mentors mentor(Role mentorRole, Semester semester) {
+        Mentors mentor = new Mentors();
+        mentor.setId(1L);
+        mentor.setMentorCode("MT001");
+        mentor.setStar(4.5f);
+        mentor.setTotalTimeRemain(120);
+        mentor.setDateCreated(LocalDate.now());
+        mentor.setDateUpdated(LocalDate.now());
+        mentor.setAvailableStatus(AvailableStatus.ACTIVE);
+
+        Users user = user(1000L, mentorRole);
+        user.setMentor(mentor);
+        mentor.setUser(user);
+
+        List<Skills> skills = new ArrayList<>();
+        for (long i = 1; i <= skillCount; i++) {
+            Skills skill = new Skills();
+            skill.setId(i);
+            skill.setSkillName("Skill " + i);
+            skill.setSkillDescription("Description of skill " + i);
+            skill.setAvailableStatus(AvailableStatus.ACTIVE);
+            skills.add(skill);
+        }
+        mentor.setSkills(skills);
+
+        List<Class> assignedClass = new ArrayList<>();
+        for (long i = 1; i <= assignedClassCount; i++) {
+            assignedClass.add(aClass(i, semester, mentor));
+        }
+        mentor.setAssignedClass(assignedClass);
+        return mentor;
+    }
+
+    private Class aClass(Long id, Semester semester, Mentors mentor) {
+        Class aClass = new Class();
+        aClass.setId(id);
+        aClass.setClassName("SE17" + id);
+        aClass.setSemester(semester);
+        aClass.setMentor(mentor);
+        aClass.setDateCreated(LocalDateTime.now());
+        aClass.setAvailableStatus(AvailableStatus.ACTIVE);
+        return aClass;
+    }
+
+    private Group group(Class aClass, Role studentRole, Mentors mentor, Semester semester) {
+        Group group = new Group();
+        group.setId(1L);
+        group.setGroupName("Group 1");
+        group.setTotalPoint(groupSize * 100);
+        group.setFileURL("https://example.com/group/1.pdf");
+        group.setDateCreated(LocalDate.now());
+        group.setAClass(aClass);
+        group.setAvailableStatus(AvailableStatus.ACTIVE);
+
+        List<Students> students = new ArrayList<>();
+        for (long i = 1; i <= groupSize; i++) {
+            Students student = new Students();
+            student.setId(i);
+            student.setStudentCode("SE1700" + i);
+            student.setExpertise("Backend");
+            student.setPoint(100);
+            student.setGroupRole(i == 1 ? GroupRole.LEADER : GroupRole.MEMBER);
+            student.setDateCreated(LocalDate.now());
+            student.setDateUpdated(LocalDate.now());
+            student.setAClass(aClass);
+            student.setGroup(group);
+            student.setAvailableStatus(AvailableStatus.ACTIVE);
+
+            Users user = user(2000L + i, studentRole);
+            user.setStudent(student);
+            student.setUser(user);
+            students.add(student);
+        }
+        group.setStudents(students);
+        group.setProject(project(group, mentor, semester));
+        return group;
+    }
+
+    private Projects project(Group group, Mentors mentor, Semester semester) {
+        Topic topic = new Topic();
+        topic.setId(1L);
+        topic.setTopicName("Mentor booking system");
+        topic.setContext("Students book meetings with mentors");
+        topic.setProblems("Scheduling");
+        topic.setActor(List.of("Student", "Mentor", "Admin"));
+        topic.setRequirement(List.of("Booking", "Schedule", "Review"));
+        topic.setNonFunctionRequirement(List.of("Performance", "Security"));
+        topic.setDateCreated(LocalDateTime.now());
+        topic.setSemester(semester);
+        topic.setMentor(mentor);
+        topic.setAvailableStatus(AvailableStatus.ACTIVE);
+
+        Projects project = new Projects();
+        project.setId(1L);
+        project.setProjectName("Mentor booking");
+        project.setDescription("Capstone project");
+        project.setPercentage(40);
+        project.setDateCreated(LocalDateTime.now());
+        project.setDateUpdated(LocalDateTime.now());
+        project.setTopic(topic);
+        project.setGroup(group);
+        project.setAvailableStatus(AvailableStatus.ACTIVE);
+
+        List<ProjectTasks> tasks = new ArrayList<>();
+        for (long i = 1; i <= taskCount; i++) {
+            ProjectTasks task = new ProjectTasks();
+            task.setId(i);
+            task.setTaskName("Task " + i);
+            task.setDescription("Description of task " + i);
+            task.setStatus(i % 2 == 0 ? ProjectTaskStatus.DONE : ProjectTaskStatus.INPROGRESS);
+            task.setDateCreated(LocalDateTime.now());
+            task.setProjects(project);
+            task.setAvailableStatus(AvailableStatus.ACTIVE);
+            tasks.add(task);
+        }
+        project.setProjectTasks(tasks);
+        return project;
+    }
+
+    private Booking booking(Group group, Mentors mentor) {
+        MentorSchedule schedule = new MentorSchedule();
+        schedule.setId(1L);
+        schedule.setAvailableFrom(LocalDateTime.now().plusDays(1));
+        schedule.setAvailableTo(LocalDateTime.now().plusDays(1).plusHours(1));
+        schedule.setStatus(MentorScheduleStatus.AVAILABLE);
+        schedule.setMentor(mentor);
+        schedule.setAvailableStatus(AvailableStatus.ACTIVE);
+
+        Booking booking = new Booking();
+        booking.setId(1L);
+        booking.setStatus(BookingStatus.PENDING);
+        booking.setPointPay(groupSize * 20);
+        booking.setDateCreated(LocalDateTime.now());
+        booking.setDateUpdated(LocalDateTime.now());
+        booking.setExpiredTime(LocalDateTime.now().plusHours(12));
+        booking.setGroup(group);
+        booking.setMentor(mentor);
+        booking.setMentorSchedule(schedule);
+        booking.setAvailableStatus(AvailableStatus.ACTIVE);
+        return booking;
+    }
+
+    private Notifications notification(Booking booking, Group group) {
+        Notifications notification = new Notifications();
+        notification.setId(1L);
+        notification.setType(NoficationType.BOOKING);
+        notification.setAction(NotificationAction.ACCEPT);
+        notification.setMessage("Your booking has been accepted");
+        notification.setDateTimeSent(LocalDateTime.now());
+        notification.setSender(booking.getMentor().getUser());
+        notification.setReceiver(group.getStudents().get(0).getUser());
+        notification.setBooking(booking);
+        notification.setGroup(group);
+        notification.setAvailableStatus(AvailableStatus.ACTIVE);
+        return notification;
+    }
+}
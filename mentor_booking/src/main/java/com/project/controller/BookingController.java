@@ -2,9 +2,15 @@ package com.project.controller;
 
 import com.project.dto.BookingDTO;
 import com.project.dto.Response;
+import com.project.enums.AvailableStatus;
 import com.project.enums.BookingStatus;
+import com.project.service.BookingQueueService;
 import com.project.service.BookingService;
+import com.project.service.BookingViewService;
+import com.project.service.SlotAdmissionService;
+import java.util.concurrent.CompletableFuture;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -13,6 +19,8 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  *
@@ -25,57 +33,140 @@ public class BookingController {
     @Autowired
     private BookingService bookingService;
 
+    @Autowired
+    private SlotAdmissionService slotAdmissionService;
+
+    @Autowired
+    private BookingQueueService bookingQueueService;
+
+    @Autowired
+    private BookingViewService bookingViewService;
+
+    private static final long MAX_WAIT_SECONDS = 30;
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     @PostMapping("/student/create-booking")
     public ResponseEntity<Response> createBooking(@RequestBody BookingDTO createResponse) {
-        Response response = bookingService.createBooking(createResponse);
+        Response response = slotAdmissionService.createBooking(createResponse);
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+
+    @PostMapping("/student/queue-booking")
+    public ResponseEntity<Response> queueBooking(@RequestBody BookingDTO createResponse) {
+        Response response = bookingQueueService.submit(createResponse);
         return ResponseEntity.status(response.getStatusCode()).body(response);
     }
 
+    @GetMapping("/student/get-queued-booking/{ticketId}")
+    public DeferredResult<ResponseEntity<Response>> getQueuedBooking(
+            @PathVariable String ticketId,
+            @RequestParam(required = false, defaultValue = "0") long waitSeconds) {
+        CompletableFuture<Response> result = bookingQueueService.getResult(ticketId);
+        if (result == null) {
+            Response response = new Response();
+            response.setStatusCode(404);
+            response.setMessage("Cannot find booking request");
+            DeferredResult<ResponseEntity<Response>> notFound = new DeferredResult<>();
+            notFound.setResult(ResponseEntity.status(404).body(response));
+            return notFound;
+        }
+
+        Response pending = bookingQueueService.pendingResponse(ticketId);
+        long waitMs = Math.min(Math.max(waitSeconds, 0), MAX_WAIT_SECONDS) * 1000;
+        DeferredResult<ResponseEntity<Response>> deferredResult = waitMs > 0
+                ? new DeferredResult<>(waitMs, ResponseEntity.status(202).body(pending))
+                : new DeferredResult<>();
+        if (waitMs == 0 && !result.isDone()) {
+            deferredResult.setResult(ResponseEntity.status(202).body(pending));
+            return deferredResult;
+        }
+        result.thenAccept(response -> deferredResult.setResult(ResponseEntity.status(response.getStatusCode()).body(response)));
+        return deferredResult;
+    }
+
     @GetMapping("/user/get-all-active-bookings")
-    public ResponseEntity<Response> getAllActiveBookings() {
-        Response response = bookingService.getAllActiveBookings();
+    public ResponseEntity<Response> getAllActiveBookings(
+            @RequestParam(required = false, defaultValue = "false") boolean compact,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        Response response = compact
+                ? bookingViewService.getBookingViewsByAvailableStatus(AvailableStatus.ACTIVE)
+                : size != null
+                ? bookingService.getBookingsPageByAvailableStatus(AvailableStatus.ACTIVE, cursor, size)
+                : bookingService.getAllActiveBookings();
         return ResponseEntity.status(response.getStatusCode()).body(response);
     }
 
+    @GetMapping(value = "/user/get-all-active-bookings", params = "format=ndjson")
+    public ResponseEntity<StreamingResponseBody> streamAllActiveBookings() {
+        return ndjson(out -> bookingService.streamBookingsByAvailableStatus(AvailableStatus.ACTIVE, out));
+    }
+
     @GetMapping("/user/get-all-old-bookings")
-    public ResponseEntity<Response> getAllOldBookings() {
-        Response response = bookingService.getAllOldBookings();
+    public ResponseEntity<Response> getAllOldBookings(
+            @RequestParam(required = false, defaultValue = "false") boolean compact,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        Response response = compact
+                ? bookingViewService.getBookingViewsByAvailableStatus(AvailableStatus.INACTIVE)
+                : size != null
+                ? bookingService.getBookingsPageByAvailableStatus(AvailableStatus.INACTIVE, cursor, size)
+                : bookingService.getAllOldBookings();
         return ResponseEntity.status(response.getStatusCode()).body(response);
     }
 
+    @GetMapping(value = "/user/get-all-old-bookings", params = "format=ndjson")
+    public ResponseEntity<StreamingResponseBody> streamAllOldBookings() {
+        return ndjson(out -> bookingService.streamBookingsByAvailableStatus(AvailableStatus.INACTIVE, out));
+    }
+
     @GetMapping("/user/get-bookings-in-class/{classId}")
-    public ResponseEntity<Response> getBookingsInClass(@PathVariable Long classId) {
-        Response response = bookingService.getBookingsInClass(classId);
+    public ResponseEntity<Response> getBookingsInClass(
+            @PathVariable Long classId,
+            @RequestParam(required = false, defaultValue = "false") boolean compact,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        Response response = compact
+                ? bookingViewService.getBookingViewsInClass(classId)
+                : size != null
+                ? bookingService.getBookingsPageInClass(classId, cursor, size)
+                : bookingService.getBookingsInClass(classId);
         return ResponseEntity.status(response.getStatusCode()).body(response);
     }
 
+    @GetMapping(value = "/user/get-bookings-in-class/{classId}", params = "format=ndjson")
+    public ResponseEntity<StreamingResponseBody> streamBookingsInClass(@PathVariable Long classId) {
+        return ndjson(out -> bookingService.streamBookingsInClass(classId, out));
+    }
+
     @PostMapping("/mentor/accept-booking/{bookingId}")
     public ResponseEntity<Response> acceptBooking(@PathVariable Long bookingId) {
-        Response response = bookingService.acceptBooking(bookingId);
+        Response response = slotAdmissionService.acceptBooking(bookingId);
         return ResponseEntity.status(response.getStatusCode()).body(response);
     }
 
     @PostMapping("/mentor/reject-booking/{bookingId}")
     public ResponseEntity<Response> rejectBooking(@PathVariable Long bookingId) {
-        Response response = bookingService.rejectBooking(bookingId);
+        Response response = slotAdmissionService.rejectBooking(bookingId);
         return ResponseEntity.status(response.getStatusCode()).body(response);
     }
 
     @PostMapping("/mentor/cancel-booking/{bookingId}")
     public ResponseEntity<Response> cancelBookingByMentor(@PathVariable Long bookingId) {
-        Response response = bookingService.cancelBooking(bookingId, "MENTOR");
+        Response response = slotAdmissionService.cancelBooking(bookingId, "MENTOR");
         return ResponseEntity.status(response.getStatusCode()).body(response);
     }
     
     @PostMapping("/student/cancel-booking/{bookingId}")
     public ResponseEntity<Response> cancelBookingByStudent(@PathVariable Long bookingId) {
-        Response response = bookingService.cancelBooking(bookingId, "STUDENTS");
+        Response response = slotAdmissionService.cancelBooking(bookingId, "STUDENTS");
         return ResponseEntity.status(response.getStatusCode()).body(response);
     }
     
     @PostMapping("/student/cancel-pending-booking/{bookingId}")
     public ResponseEntity<Response> cancelPedingBooking(@PathVariable Long bookingId) {
-        Response response = bookingService.cancelPendingBooking(bookingId);
+        Response response = slotAdmissionService.cancelPendingBooking(bookingId);
         return ResponseEntity.status(response.getStatusCode()).body(response);
     } 
     
@@ -102,8 +193,25 @@ public class BookingController {
     }
 
     @GetMapping("/admin/get-all-by-status/")
-    public ResponseEntity<Response> getAllByBookingStatus(@RequestParam(required = false) BookingStatus status) {
-        Response response = bookingService.getAllByBookingStatus(status);
+    public ResponseEntity<Response> getAllByBookingStatus(
+            @RequestParam(required = false) BookingStatus status,
+            @RequestParam(required = false, defaultValue = "false") boolean compact,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        Response response = compact
+                ? bookingViewService.getBookingViewsByStatus(status)
+                : size != null
+                ? bookingService.getBookingsPageByStatus(status, cursor, size)
+                : bookingService.getAllByBookingStatus(status);
         return ResponseEntity.status(response.getStatusCode()).body(response);
     }
+
+    @GetMapping(value = "/admin/get-all-by-status/", params = "format=ndjson")
+    public ResponseEntity<StreamingResponseBody> streamAllByBookingStatus(@RequestParam(required = false) BookingStatus status) {
+        return ndjson(out -> bookingService.streamBookingsByStatus(status, out));
+    }
+
+    private ResponseEntity<StreamingResponseBody> ndjson(StreamingResponseBody body) {
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
 }
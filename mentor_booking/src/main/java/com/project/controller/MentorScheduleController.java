@@ -1,9 +1,14 @@
 package com.project.controller;
 
+import com.project.dto.MentorScheduleBatchDTO;
 import com.project.dto.MentorScheduleDTO;
+import com.project.dto.MentorScheduleRuleDTO;
 import com.project.dto.Response;
 import com.project.service.MentorScheduleService;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -20,6 +25,12 @@ public class MentorScheduleController {
         return ResponseEntity.status(response.getStatusCode()).body(response);
     }
 
+    @PostMapping("/user/create-mentor-schedules")
+    public ResponseEntity<Response> createMentorSchedules(@RequestBody MentorScheduleBatchDTO createRequest) {
+        Response response = mentorScheduleService.createMentorScheduleBatch(createRequest);
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+
     @GetMapping("/user/get-all-mentor-schedules")
     public ResponseEntity<Response> getAllMentorSchedules() {
         Response response = mentorScheduleService.getAllMentorSchedule();
@@ -61,4 +72,46 @@ public class MentorScheduleController {
         Response response = mentorScheduleService.expireMentorSchedule(id);
         return ResponseEntity.status(response.getStatusCode()).body(response);
     }
+
+    @GetMapping("/admin/get-expired-schedule-count")
+    public ResponseEntity<Response> getExpiredScheduleCount() {
+        Response response = mentorScheduleService.getExpiredScheduleCount();
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+
+    @PostMapping("/user/create-mentor-schedule-rule")
+    public ResponseEntity<Response> createMentorScheduleRule(@RequestBody MentorScheduleRuleDTO createRequest) {
+        Response response = mentorScheduleService.createMentorScheduleRule(createRequest);
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+
+    @GetMapping("/user/get-mentor-schedule-rules/{mentorId}")
+    public ResponseEntity<Response> getMentorScheduleRules(@PathVariable Long mentorId) {
+        Response response = mentorScheduleService.getMentorScheduleRules(mentorId);
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+
+    @DeleteMapping("/user/delete-mentor-schedule-rule/{id}")
+    public ResponseEntity<Response> deleteMentorScheduleRule(@PathVariable Long id) {
+        Response response = mentorScheduleService.deleteMentorScheduleRule(id);
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+
+    @GetMapping("/user/get-mentor-availability/{mentorId}")
+    public ResponseEntity<Response> getMentorAvailability(
+            @PathVariable Long mentorId,
+            @RequestParam @DateTimeFormat(pattern = "dd-MM-yyyy HH:mm") LocalDateTime from,
+            @RequestParam @DateTimeFormat(pattern = "dd-MM-yyyy HH:mm") LocalDateTime to) {
+        Response response = mentorScheduleService.getMentorAvailability(mentorId, from, to);
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+
+    @GetMapping("/user/get-mentor-calendar/{mentorId}")
+    public ResponseEntity<Response> getMentorCalendar(
+            @PathVariable Long mentorId,
+            @RequestParam @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate from,
+            @RequestParam @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate to) {
+        Response response = mentorScheduleService.getMentorCalendar(mentorId, from, to);
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
 }
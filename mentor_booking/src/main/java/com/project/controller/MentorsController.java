@@ -3,6 +3,7 @@ package com.project.controller;
 import com.project.dto.*;
 import com.project.model.Users;
 import com.project.repository.SkillsRepository;
+import com.project.service.MentorReportService;
 import com.project.service.MentorsService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -24,6 +25,9 @@ public class MentorsController {
     @Autowired
     private SkillsRepository skillsRepository;
 
+    @Autowired
+    private MentorReportService mentorReportService;
+
     // Lấy tất cả mentors
     @GetMapping("/admin/get-all-mentors")
     public ResponseEntity<Response> getAllMentors(@RequestParam(required = false) String name) {
@@ -51,9 +55,13 @@ public class MentorsController {
     public ResponseEntity<Response> getMentorByNameAndSkillsAndAvaibility(
             @RequestParam(required = false) String name,
             @RequestParam(required = false) List<Long> skillIds,
+            @RequestParam(required = false, defaultValue = "false") boolean matchAllSkills,
             @RequestParam(required = false) @DateTimeFormat(pattern = "dd-MM-yyyy HH:mm") LocalDateTime availableFrom,
-            @RequestParam(required = false) @DateTimeFormat(pattern = "dd-MM-yyyy HH:mm") LocalDateTime availableTo) {
-        Response response = mentorsService.findMentorWithNameAndSkillsAndAvaibility(name.trim(), skillIds, availableFrom, availableTo);
+            @RequestParam(required = false) @DateTimeFormat(pattern = "dd-MM-yyyy HH:mm") LocalDateTime availableTo,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
+        Response response = mentorsService.findMentorWithNameAndSkillsAndAvaibility(name == null ? null : name.trim(), skillIds, matchAllSkills,
+                availableFrom, availableTo, page, size);
         return ResponseEntity.status(response.getStatusCode()).body(response);
     }
 
@@ -75,5 +83,11 @@ public class MentorsController {
         return ResponseEntity.status(response.getStatusCode()).body(response);
     }
 
+    @GetMapping("/admin/get-mentor-report-progress/{semesterId}")
+    public ResponseEntity<Response> getMentorReportProgress(@PathVariable Long semesterId) {
+        Response response = mentorReportService.getReportProgress(semesterId);
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+
 
 }
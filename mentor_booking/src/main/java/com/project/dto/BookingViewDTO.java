@@ -0,0 +1,33 @@
+package com.project.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.project.enums.AvailableStatus;
+import com.project.enums.BookingStatus;
+import java.time.LocalDateTime;
+import lombok.Data;
+
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BookingViewDTO {
+    private Long id;
+    private BookingStatus status;
+    private AvailableStatus availableStatus;
+    private int pointPay;
+    private LocalDateTime dateCreated;
+    private LocalDateTime dateUpdated;
+    private LocalDateTime expiredTime;
+    private Long groupId;
+    private String groupName;
+    private Long classId;
+    private String className;
+    private Long semesterId;
+    private Long mentorId;
+    private String mentorCode;
+    private String mentorName;
+    private Long mentorScheduleId;
+    @JsonFormat(pattern = "dd-MM-yyyy HH:mm")
+    private LocalDateTime availableFrom;
+    @JsonFormat(pattern = "dd-MM-yyyy HH:mm")
+    private LocalDateTime availableTo;
+}
@@ -0,0 +1,23 @@
+package com.project.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.time.LocalDate;
+import java.util.List;
+import lombok.Data;
+
+/**
+ * One day of the mentor calendar. Bit i of availableMask is set when an
+ * available slot covers part of the half hour starting at i * 30 minutes.
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CalendarDayDTO {
+    @JsonFormat(pattern = "dd-MM-yyyy")
+    private LocalDate date;
+    private int availableCount;
+    private int bookedCount;
+    private int expiredCount;
+    private long availableMask;
+    private List<MentorScheduleDTO> slots;
+}
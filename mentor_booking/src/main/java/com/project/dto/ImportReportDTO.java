@@ -0,0 +1,25 @@
+package com.project.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+
+/**
+ * Result of an Excel import, one error per rejected row with its Excel row number
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ImportReportDTO {
+    private int totalRows;
+    private int importedRows;
+    private List<ImportRowErrorDTO> errors = new ArrayList<>();
+
+    public void addError(int row, String name, String message) {
+        ImportRowErrorDTO error = new ImportRowErrorDTO();
+        error.setRow(row);
+        error.setName(name);
+        error.setMessage(message);
+        errors.add(error);
+    }
+}
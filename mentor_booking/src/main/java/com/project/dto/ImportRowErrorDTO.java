@@ -0,0 +1,17 @@
+package com.project.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ImportRowErrorDTO {
+    private int row;
+    private String name;
+    private String message;
+
+    @Override
+    public String toString() {
+        return "row " + row + (name != null ? " [" + name + "]" : "") + ": " + message;
+    }
+}
@@ -0,0 +1,22 @@
+package com.project.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.time.LocalDate;
+import java.util.List;
+import lombok.Data;
+
+/**
+ * Schedules of a mentor between two dates, grouped by day. The mentor is
+ * sent once, the slots do not repeat it.
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class MentorCalendarDTO {
+    private MentorsDTO mentor;
+    @JsonFormat(pattern = "dd-MM-yyyy")
+    private LocalDate from;
+    @JsonFormat(pattern = "dd-MM-yyyy")
+    private LocalDate to;
+    private List<CalendarDayDTO> days;
+}
@@ -13,4 +13,7 @@ public class MentorReportDTO {
     private SemesterDTO semesterDTO;
     private float starRating;
     private LocalDate dateCreated;
+    private int bookingCount;
+    private int meetingCount;
+    private int reviewCount;
 }
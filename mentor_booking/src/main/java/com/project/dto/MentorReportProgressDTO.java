@@ -0,0 +1,21 @@
+package com.project.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * State of the report generation of one semester
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class MentorReportProgressDTO {
+    private Long semesterId;
+    private String status;
+    private int total;
+    private int processed;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String message;
+}
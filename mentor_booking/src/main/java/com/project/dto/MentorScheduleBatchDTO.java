@@ -0,0 +1,17 @@
+package com.project.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.List;
+import lombok.Data;
+
+/**
+ * A week of slots of one mentor, created together. The week is repeated
+ * repeatWeeks times (1 if not set).
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class MentorScheduleBatchDTO {
+    private MentorsDTO mentor;
+    private List<MentorScheduleDTO> slots;
+    private Integer repeatWeeks;
+}
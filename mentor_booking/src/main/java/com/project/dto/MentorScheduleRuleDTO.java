@@ -0,0 +1,26 @@
+package com.project.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.project.enums.AvailableStatus;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import lombok.Data;
+
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class MentorScheduleRuleDTO {
+    private Long id;
+    private DayOfWeek dayOfWeek;
+    @JsonFormat(pattern = "HH:mm")
+    private LocalTime startTime;
+    @JsonFormat(pattern = "HH:mm")
+    private LocalTime endTime;
+    private LocalDate materializedUntil;
+    private LocalDateTime dateCreated;
+    private MentorsDTO mentor;
+    private SemesterDTO semester;
+    private AvailableStatus availableStatus;
+}
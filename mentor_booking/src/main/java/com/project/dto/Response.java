@@ -21,6 +21,7 @@ public class Response {
     private String newPassword;
     private BookingDTO bookingDTO;
     private List<BookingDTO> bookingDTOList;
+    private List<BookingViewDTO> bookingViewDTOList;
     private ClassDTO classDTO;
     private List<ClassDTO> classDTOList;
     private GroupDTO groupDTO;
@@ -29,8 +30,13 @@ public class Response {
     private List<MeetingDTO> meetingDTOList;
     private MentorReportDTO mentorReportDTO;
     private List<MentorReportDTO> mentorReportDTOList;
+    private MentorReportProgressDTO mentorReportProgressDTO;
+    private ImportReportDTO importReportDTO;
     private MentorScheduleDTO mentorScheduleDTO;
     private List<MentorScheduleDTO> mentorScheduleDTOList;
+    private MentorCalendarDTO mentorCalendarDTO;
+    private MentorScheduleRuleDTO mentorScheduleRuleDTO;
+    private List<MentorScheduleRuleDTO> mentorScheduleRuleDTOList;
     private MentorsDTO mentorsDTO;
     private List<MentorsDTO> mentorsDTOList;
     private NotificationsDTO notificationsDTO;
@@ -57,4 +63,9 @@ public class Response {
     private List<UsersDTO> usersDTOList;
     private AvailableStatus availableStatus;
     private String otpCode;
+    private String ticketId;
+    private String nextCursor;
+    private Long totalElements;
+    private Integer totalPages;
+    private Long expiredScheduleCount;
 }
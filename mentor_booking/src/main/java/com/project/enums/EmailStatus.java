@@ -0,0 +1,7 @@
+package com.project.enums;
+
+public enum EmailStatus {
+    PENDING, // Đang chờ gửi (hoặc chờ gửi lại)
+    SENT,    // Đã gửi thành công
+    FAILED   // Gửi thất bại sau số lần thử tối đa
+}
@@ -0,0 +1,8 @@
+package com.project.enums;
+
+public enum MentorReportStatus {
+    QUEUED,  // Đang chờ tạo báo cáo
+    RUNNING, // Đang tạo báo cáo
+    DONE,    // Đã tạo báo cáo và đặt lại sao của mentor
+    FAILED   // Lỗi, sẽ được thử lại sau
+}
@@ -11,19 +11,33 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import java.time.LocalDateTime;
 import java.util.List;
 import lombok.Data;
 
 @Data
 @Entity
-@Table(name = "booking")
+@Table(name = "booking", indexes = {
+    @Index(name = "idx_booking_available_status_created", columnList = "available_status, date_created, id"),
+    @Index(name = "idx_booking_status_created", columnList = "status, date_created, id"),
+    @Index(name = "idx_booking_mentor_inbox", columnList = "mentor_id, status, priority, date_created DESC")
+})
 public class Booking {
+
+    //Order of a pending booking in the mentor inbox, lower comes first
+    public static final int PRIORITY_REBOOK = 0;        //the mentor cancelled a booking of this group before
+    public static final int PRIORITY_SAME_CLASS = 1;    //the group is in a class of the mentor
+    public static final int PRIORITY_OTHER = 2;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -43,6 +57,10 @@ public class Booking {
     
     @Column(name = "expiredTime")
     private LocalDateTime expiredTime;
+
+    //No default, rows written before the column existed are NULL until BookingService fills them
+    @Column(name = "priority", columnDefinition = "int")
+    private int priority = PRIORITY_OTHER;
     
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "group_id") // Foreign key in Booking table to Group
@@ -69,4 +87,17 @@ public class Booking {
     @Enumerated(EnumType.STRING)
     @Column(name = "available_status")
     private AvailableStatus availableStatus;
+
+    @Version
+    @Column(name = "version", columnDefinition = "bigint default 0")
+    private Long version;
+
+    //Only pending bookings are ranked
+    @PrePersist
+    @PreUpdate
+    private void resetPriority() {
+        if (status != BookingStatus.PENDING) {
+            priority = PRIORITY_OTHER;
+        }
+    }
 }
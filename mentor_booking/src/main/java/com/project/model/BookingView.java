@@ -0,0 +1,84 @@
+package com.project.model;
+
+import com.project.enums.AvailableStatus;
+import com.project.enums.BookingStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.Data;
+
+/**
+ * Flattened, read only copy of a booking with the names of its group, class
+ * and mentor. Rows are rewritten by BookingViewService on each booking state
+ * change, the booking list endpoints read it without touching the entity graph.
+ */
+@Data
+@Entity
+@Table(name = "booking_view", indexes = {
+    @Index(name = "idx_booking_view_class", columnList = "class_id, date_created"),
+    @Index(name = "idx_booking_view_available_status", columnList = "available_status, date_created"),
+    @Index(name = "idx_booking_view_status", columnList = "status, date_created")
+})
+public class BookingView {
+    @Id
+    @Column(name = "booking_id")
+    private Long bookingId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status")
+    private BookingStatus status;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "available_status")
+    private AvailableStatus availableStatus;
+
+    @Column(name = "point_pay")
+    private int pointPay;
+
+    @Column(name = "date_created")
+    private LocalDateTime dateCreated;
+
+    @Column(name = "date_updated")
+    private LocalDateTime dateUpdated;
+
+    @Column(name = "expired_time")
+    private LocalDateTime expiredTime;
+
+    @Column(name = "group_id")
+    private Long groupId;
+
+    @Column(name = "group_name")
+    private String groupName;
+
+    @Column(name = "class_id")
+    private Long classId;
+
+    @Column(name = "class_name")
+    private String className;
+
+    @Column(name = "semester_id")
+    private Long semesterId;
+
+    @Column(name = "mentor_id")
+    private Long mentorId;
+
+    @Column(name = "mentor_code")
+    private String mentorCode;
+
+    @Column(name = "mentor_name")
+    private String mentorName;
+
+    @Column(name = "mentor_schedule_id")
+    private Long mentorScheduleId;
+
+    @Column(name = "available_from")
+    private LocalDateTime availableFrom;
+
+    @Column(name = "available_to")
+    private LocalDateTime availableTo;
+}
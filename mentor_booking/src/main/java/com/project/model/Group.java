@@ -1,6 +1,7 @@
 package com.project.model;
 
 import com.project.enums.AvailableStatus;
+import com.project.service.NameSearchListener;
 import jakarta.persistence.*;
 
 import java.time.LocalDate;
@@ -9,6 +10,7 @@ import lombok.Data;
 
 @Data
 @Entity
+@EntityListeners(NameSearchListener.class)
 @Table(name = "group_table")
 public class Group {
 
@@ -51,4 +53,8 @@ public class Group {
     @Enumerated(EnumType.STRING)
     @Column(name = "available_status")
     private AvailableStatus availableStatus;
+
+    @Version
+    @Column(name = "version", columnDefinition = "bigint default 0")
+    private Long version;
 }
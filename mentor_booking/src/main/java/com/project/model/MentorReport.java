@@ -27,4 +27,14 @@ public class MentorReport {
 
     @Column(name = "date_created")
     private LocalDate dateCreated;
+
+    //Activity of the mentor in the semester, counted when the report is generated
+    @Column(name = "booking_count", columnDefinition = "int default 0")
+    private int bookingCount;
+
+    @Column(name = "meeting_count", columnDefinition = "int default 0")
+    private int meetingCount;
+
+    @Column(name = "review_count", columnDefinition = "int default 0")
+    private int reviewCount;
 }
@@ -0,0 +1,46 @@
+package com.project.model;
+
+import com.project.enums.MentorReportStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.Data;
+
+/**
+ * Generation of the mentor report of one semester, kept so a report that was
+ * interrupted by a restart is generated again
+ */
+@Data
+@Entity
+@Table(name = "mentor_report_job")
+public class MentorReportJob {
+    @Id
+    @Column(name = "semester_id")
+    private Long semesterId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status")
+    private MentorReportStatus status;
+
+    @Column(name = "total")
+    private int total;
+
+    @Column(name = "processed")
+    private int processed;
+
+    @Column(name = "message", length = 1000)
+    private String message;
+
+    @Column(name = "date_created")
+    private LocalDateTime dateCreated;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+}
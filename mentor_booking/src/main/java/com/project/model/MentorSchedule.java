@@ -13,18 +13,22 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OneToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import java.time.LocalDateTime;
 import java.util.List;
 import lombok.Data;
 
 @Data
 @Entity
-@Table(name = "mentor_schedule")
+@Table(name = "mentor_schedule", indexes = {
+    @Index(name = "idx_mentor_schedule_status_to", columnList = "status, available_to")
+})
 public class MentorSchedule {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -46,6 +50,11 @@ public class MentorSchedule {
     @JoinColumn(name = "mentor_id")
     private Mentors mentor;
 
+    //Set when the schedule was created from a weekly rule
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "rule_id")
+    private MentorScheduleRule rule;
+
     // Quan hệ OneToMany với Booking
     @OneToMany(mappedBy = "mentorSchedule", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Booking> booking;
@@ -53,4 +62,8 @@ public class MentorSchedule {
     @Enumerated(EnumType.STRING)
     @Column(name = "available_status")
     private AvailableStatus availableStatus;
+
+    @Version
+    @Column(name = "version", columnDefinition = "bigint default 0")
+    private Long version;
 }
@@ -1,6 +1,7 @@
 package com.project.model;
 
 import com.project.enums.AvailableStatus;
+import com.project.service.NameSearchListener;
 import jakarta.persistence.*;
 
 import java.time.LocalDate;
@@ -9,6 +10,7 @@ import lombok.Data;
 
 @Data
 @Entity
+@EntityListeners(NameSearchListener.class)
 @Table(name = "mentors")
 public class Mentors {
 
@@ -18,6 +20,13 @@ public class Mentors {
 
     @Column(name = "star")
     private float star;
+
+    //Running totals of the active reviews received, kept by ReviewsService
+    //(no default, rows written before the columns existed are NULL until they are filled)
+    @Column(name = "rating_sum", columnDefinition = "bigint")
+    private long ratingSum;
+    @Column(name = "rating_count", columnDefinition = "int")
+    private int ratingCount;
     @Column(name = "mentor_code")
     private String mentorCode;
     @Column(name = "total_time_remain")
@@ -57,4 +66,8 @@ public class Mentors {
     @Enumerated(EnumType.STRING)
     @Column(name = "available_status")
     private AvailableStatus availableStatus;
+
+    @Version
+    @Column(name = "version", columnDefinition = "bigint default 0")
+    private Long version;
 }
@@ -3,6 +3,7 @@ package com.project.model;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.project.enums.AvailableStatus;
 import com.project.enums.GroupRole;
+import com.project.service.NameSearchListener;
 import jakarta.persistence.*;
 
 import java.time.LocalDate;
@@ -15,6 +16,7 @@ import java.util.List;
 
 @Data
 @Entity
+@EntityListeners(NameSearchListener.class)
 @Table(name = "students")
 public class Students {
     @Id
@@ -3,6 +3,7 @@ package com.project.model;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.project.enums.AvailableStatus;
+import com.project.service.NameSearchListener;
 import jakarta.persistence.*;
 import java.io.IOException;
 
@@ -13,6 +14,7 @@ import lombok.Data;
 
 @Data
 @Entity
+@EntityListeners(NameSearchListener.class)
 @Table(name = "topic")
 public class Topic {
 
@@ -2,10 +2,12 @@ package com.project.model;
 
 import com.project.enums.AvailableStatus;
 import com.project.enums.Gender;
+import com.project.service.NameSearchListener;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
@@ -32,6 +34,7 @@ import org.springframework.security.core.userdetails.UserDetails;
  */
 @Data
 @Entity
+@EntityListeners(NameSearchListener.class)
 @Table(name = "users")
 public class Users implements UserDetails{
     @Id
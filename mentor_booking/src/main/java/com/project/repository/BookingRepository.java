@@ -5,8 +5,11 @@ import com.project.enums.AvailableStatus;
 import com.project.enums.BookingStatus;
 import com.project.model.Booking;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -40,20 +43,12 @@ public interface BookingRepository extends JpaRepository<Booking, Long>{
         @Param("classId") Long classId
     );
     
-    @Query("SELECT b FROM Booking b " +
-       "LEFT JOIN b.mentor.assignedClass mc " +
-       "WHERE b.mentor.id = :mentorId AND b.status = :status " +
-       "ORDER BY CASE " +
-       "  WHEN b.status = 'PENDING' AND EXISTS (" +
-       "    SELECT 1 FROM Booking pb WHERE pb.group.id = b.group.id " +
-       "    AND pb.mentor.id = b.mentor.id AND pb.status = 'CANCELLED' AND pb.availableStatus = 'ACTIVE'" +
-       "  ) THEN 0 " +
-       "  WHEN b.status = 'PENDING' AND b.group.aClass.id = mc.id THEN 1 " +
-       "  ELSE 2 " +
-       "END, b.dateCreated DESC")
+    //Mentor inbox, served by idx_booking_mentor_inbox
+    @Query("SELECT b FROM Booking b WHERE b.mentor.id = :mentorId AND b.status = :status " +
+           "ORDER BY b.priority, b.dateCreated DESC")
     List<Booking> findBookingsByMentorIdAndStatusHasPriority(
-            Long mentorId,
-            BookingStatus status
+            @Param("mentorId") Long mentorId,
+            @Param("status") BookingStatus status
     );
     
     List<Booking> findByGroupIdAndStatusOrderByDateCreatedDesc(
@@ -61,19 +56,146 @@ public interface BookingRepository extends JpaRepository<Booking, Long>{
             BookingStatus status
     );
     
-    List<Booking> findByStatusAndMentorScheduleId(BookingStatus status, Long mentorScheduleId);
-    
-    @Query("SELECT b FROM Booking b WHERE b.status = :bookingStatus AND b.expiredTime < :currentDateTime AND b.availableStatus <> 'DELETED'")
-    List<Booking> findAllByStatusAndExpiredTimeBefore(
-        @Param("bookingStatus") BookingStatus bookingStatus, 
-        @Param("currentDateTime") LocalDateTime currentDateTime
+    List<Booking> findByStatus(BookingStatus status);
+
+    @Query("SELECT b.mentorSchedule.id FROM Booking b WHERE b.id = :id")
+    Long findMentorScheduleIdById(@Param("id") Long id);
+
+    @Query("SELECT b.id FROM Booking b WHERE b.mentorSchedule.id IN :mentorScheduleIds AND b.status = :status AND b.availableStatus = :availableStatus")
+    List<Long> findIdsByMentorScheduleIdsAndStatusAndAvailableStatus(
+        @Param("mentorScheduleIds") Collection<Long> mentorScheduleIds,
+        @Param("status") BookingStatus status,
+        @Param("availableStatus") AvailableStatus availableStatus
     );
-    
-    @Query("SELECT b FROM Booking b WHERE b.status = :bookingStatus AND b.mentorSchedule.availableFrom < :currentDateTime AND b.availableStatus <> 'DELETED'")
-    List<Booking> findAllByStatusAndAvailableFromBefore(
-        @Param("bookingStatus") BookingStatus bookingStatus, 
-        @Param("currentDateTime") LocalDateTime currentDateTime
+
+    @Query("SELECT b.id FROM Booking b WHERE b.mentorSchedule.id = :mentorScheduleId AND b.status = :status AND b.availableStatus = :availableStatus")
+    List<Long> findIdsByMentorScheduleIdAndStatusAndAvailableStatus(
+        @Param("mentorScheduleId") Long mentorScheduleId,
+        @Param("status") BookingStatus status,
+        @Param("availableStatus") AvailableStatus availableStatus
+    );
+
+    @Query("SELECT b.id FROM Booking b WHERE b.group.id = :groupId AND b.status = :status AND b.availableStatus = :availableStatus")
+    List<Long> findIdsByGroupIdAndStatusAndAvailableStatus(
+        @Param("groupId") Long groupId,
+        @Param("status") BookingStatus status,
+        @Param("availableStatus") AvailableStatus availableStatus
+    );
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = :status, b.availableStatus = :availableStatus, b.dateUpdated = :dateUpdated, b.expiredTime = NULL, " +
+           "b.priority = :priority, b.version = b.version + 1 WHERE b.id IN :ids")
+    int updateStatusAndAvailableStatusByIds(
+        @Param("ids") List<Long> ids,
+        @Param("status") BookingStatus status,
+        @Param("availableStatus") AvailableStatus availableStatus,
+        @Param("priority") int priority,
+        @Param("dateUpdated") LocalDateTime dateUpdated
+    );
+
+    boolean existsByGroupIdAndMentorIdAndStatusAndAvailableStatus(
+        Long groupId,
+        Long mentorId,
+        BookingStatus status,
+        AvailableStatus availableStatus
+    );
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Booking b SET b.priority = :priority, b.version = b.version + 1 " +
+           "WHERE b.group.id = :groupId AND b.mentor.id = :mentorId AND b.status = 'PENDING'")
+    int updatePendingPriorityByGroupIdAndMentorId(
+        @Param("groupId") Long groupId,
+        @Param("mentorId") Long mentorId,
+        @Param("priority") int priority
+    );
+
+    //Backfill for rows written before the priority column existed, only those are NULL
+    @Modifying
+    @Query(value = "UPDATE booking b " +
+           "LEFT JOIN group_table g ON g.id = b.group_id " +
+           "LEFT JOIN class c ON c.id = g.class_id " +
+           "LEFT JOIN (SELECT DISTINCT group_id, mentor_id FROM booking WHERE status = 'CANCELLED' AND available_status = 'ACTIVE') pb " +
+           "  ON pb.group_id = b.group_id AND pb.mentor_id = b.mentor_id " +
+           "SET b.priority = CASE " +
+           "  WHEN b.status <> 'PENDING' THEN 2 " +
+           "  WHEN pb.group_id IS NOT NULL THEN 0 " +
+           "  WHEN c.mentor_id = b.mentor_id THEN 1 " +
+           "  ELSE 2 END, " +
+           "b.version = COALESCE(b.version, 0) + 1 " +
+           "WHERE b.priority IS NULL", nativeQuery = true)
+    int backfillPriorities();
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Booking b SET b.availableStatus = :newAvailableStatus, b.dateUpdated = :dateUpdated, b.version = b.version + 1 " +
+           "WHERE b.group.id = :groupId AND b.mentor.id = :mentorId AND b.status = :status AND b.availableStatus = :availableStatus")
+    int updateAvailableStatusByGroupIdAndMentorIdAndStatus(
+        @Param("groupId") Long groupId,
+        @Param("mentorId") Long mentorId,
+        @Param("status") BookingStatus status,
+        @Param("availableStatus") AvailableStatus availableStatus,
+        @Param("newAvailableStatus") AvailableStatus newAvailableStatus,
+        @Param("dateUpdated") LocalDateTime dateUpdated
+    );
+
+    //Semester export, everything the booking conversion reads comes with the bookings
+    @Query("SELECT b FROM Booking b " +
+           "JOIN FETCH b.group g " +
+           "JOIN FETCH g.aClass c " +
+           "LEFT JOIN FETCH c.semester " +
+           "LEFT JOIN FETCH c.mentor " +
+           "LEFT JOIN FETCH g.project " +
+           "LEFT JOIN FETCH b.mentor m " +
+           "LEFT JOIN FETCH m.user mu " +
+           "LEFT JOIN FETCH mu.role " +
+           "LEFT JOIN FETCH b.mentorSchedule ms " +
+           "LEFT JOIN FETCH ms.mentor " +
+           "LEFT JOIN FETCH b.meeting " +
+           "WHERE c.semester.id = :semesterId AND c.availableStatus <> :deletedStatus AND b.availableStatus <> :deletedStatus " +
+           "ORDER BY c.id, b.id")
+    List<Booking> findBookingsBySemesterIdWithDetails(
+        @Param("semesterId") Long semesterId,
+        @Param("deletedStatus") AvailableStatus deletedStatus
+    );
+
+    @Query("SELECT b FROM Booking b JOIN FETCH b.mentorSchedule WHERE b.status IN :statuses AND b.availableStatus = 'ACTIVE'")
+    List<Booking> findActiveBookingsWithSchedule(
+        @Param("statuses") List<BookingStatus> statuses
+    );
+
+    @Query("SELECT b FROM Booking b JOIN FETCH b.mentorSchedule WHERE b.mentorSchedule.id = :mentorScheduleId AND b.status IN :statuses AND b.availableStatus = 'ACTIVE'")
+    List<Booking> findActiveBookingsWithScheduleByMentorScheduleId(
+        @Param("mentorScheduleId") Long mentorScheduleId,
+        @Param("statuses") List<BookingStatus> statuses
+    );
+
+    //Keyset pages, newest first. The cursor is the (dateCreated, id) of the last row of the previous page
+    @Query("SELECT b FROM Booking b WHERE b.availableStatus = :availableStatus " +
+           "AND (b.dateCreated < :cursorDate OR (b.dateCreated = :cursorDate AND b.id < :cursorId)) " +
+           "ORDER BY b.dateCreated DESC, b.id DESC")
+    List<Booking> findPageByAvailableStatus(
+        @Param("availableStatus") AvailableStatus availableStatus,
+        @Param("cursorDate") LocalDateTime cursorDate,
+        @Param("cursorId") Long cursorId,
+        Pageable pageable
+    );
+
+    @Query("SELECT b FROM Booking b WHERE b.status = :status " +
+           "AND (b.dateCreated < :cursorDate OR (b.dateCreated = :cursorDate AND b.id < :cursorId)) " +
+           "ORDER BY b.dateCreated DESC, b.id DESC")
+    List<Booking> findPageByStatus(
+        @Param("status") BookingStatus status,
+        @Param("cursorDate") LocalDateTime cursorDate,
+        @Param("cursorId") Long cursorId,
+        Pageable pageable
+    );
+
+    @Query("SELECT b FROM Booking b WHERE b.group.aClass.id = :classId AND b.availableStatus <> 'DELETED' " +
+           "AND (b.dateCreated < :cursorDate OR (b.dateCreated = :cursorDate AND b.id < :cursorId)) " +
+           "ORDER BY b.dateCreated DESC, b.id DESC")
+    List<Booking> findPageByClassId(
+        @Param("classId") Long classId,
+        @Param("cursorDate") LocalDateTime cursorDate,
+        @Param("cursorId") Long cursorId,
+        Pageable pageable
     );
-    
-    List<Booking> findByStatus(BookingStatus status);
 }
@@ -0,0 +1,18 @@
+package com.project.repository;
+
+import com.project.enums.AvailableStatus;
+import com.project.enums.BookingStatus;
+import com.project.model.BookingView;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface BookingViewRepository extends JpaRepository<BookingView, Long> {
+
+    List<BookingView> findByAvailableStatusOrderByDateCreatedDesc(AvailableStatus availableStatus);
+
+    List<BookingView> findByStatusOrderByDateCreatedDesc(BookingStatus status);
+
+    List<BookingView> findByClassIdAndAvailableStatusNotOrderByDateCreatedDesc(Long classId, AvailableStatus availableStatus);
+}
@@ -0,0 +1,27 @@
+package com.project.repository;
+
+import com.project.enums.EmailStatus;
+import com.project.model.EmailOutboxMessage;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxMessage, Long> {
+
+    //Oldest mails due to be sent, one page per batch
+    @Query("SELECT e FROM EmailOutboxMessage e WHERE e.status = :status AND e.nextAttemptAt <= :now ORDER BY e.id")
+    List<EmailOutboxMessage> findDue(@Param("status") EmailStatus status, @Param("now") LocalDateTime now, Pageable pageable);
+
+    //Bodies can hold a generated password or an OTP, they are not kept once a mail is sent or failed
+    @Modifying
+    @Query("UPDATE EmailOutboxMessage e SET e.body = NULL WHERE e.status <> :pending AND e.body IS NOT NULL")
+    int clearFinishedBodies(@Param("pending") EmailStatus pending);
+
+    @Modifying
+    @Query("DELETE FROM EmailOutboxMessage e WHERE e.status <> :pending AND e.dateCreated < :before")
+    int deleteFinishedBefore(@Param("pending") EmailStatus pending, @Param("before") LocalDateTime before);
+}
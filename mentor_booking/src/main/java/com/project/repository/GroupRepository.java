@@ -3,6 +3,7 @@ package com.project.repository;
 import com.project.enums.AvailableStatus;
 import com.project.model.Group;
 import com.project.model.Class;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -32,10 +33,25 @@ public interface GroupRepository extends JpaRepository<Group, Long> {
 
     @Query("SELECT g FROM Group g " +
             "WHERE g.aClass.id = :classId " +
-            "AND g.groupName LIKE %:name% " +
+            "AND g.id IN :groupIds " +
             "AND g.availableStatus <> :deletedStatus")
-    List<Group> findGroupsByClassAndGroupName(
+    List<Group> findGroupsByClassAndIds(
             @Param("classId") Long classId,
-            @Param("name") String name,
+            @Param("groupIds") Collection<Long> groupIds,
             @Param("deletedStatus") AvailableStatus deletedStatus);
+
+    //Loads the members of already loaded groups in one statement
+    @Query("SELECT DISTINCT g FROM Group g " +
+            "LEFT JOIN FETCH g.students s " +
+            "LEFT JOIN FETCH s.user u " +
+            "LEFT JOIN FETCH u.role " +
+            "WHERE g IN :groups")
+    List<Group> fetchStudents(@Param("groups") Collection<Group> groups);
+
+    @Query("SELECT DISTINCT g FROM Group g " +
+            "LEFT JOIN FETCH g.students " +
+            "WHERE g.id IN :ids AND g.availableStatus = :availableStatus")
+    List<Group> findWithStudentsByIdsAndAvailableStatus(
+            @Param("ids") Collection<Long> ids,
+            @Param("availableStatus") AvailableStatus availableStatus);
 }
@@ -0,0 +1,7 @@
+package com.project.repository;
+
+import com.project.model.MentorReportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface MentorReportJobRepository extends JpaRepository<MentorReportJob, Long> {
+}
@@ -3,8 +3,19 @@ package com.project.repository;
 import com.project.model.MentorReport;
 import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface MentorReportRepository extends JpaRepository<MentorReport, Long> {
     
     List<MentorReport> findBySemesterId(Long semesterId);
+
+    //Report of a semester with the mentor, user and semester of each row
+    @Query("SELECT r FROM MentorReport r " +
+            "JOIN FETCH r.mentor m " +
+            "LEFT JOIN FETCH m.user " +
+            "JOIN FETCH r.semester " +
+            "WHERE r.semester.id = :semesterId " +
+            "ORDER BY r.starRating DESC, m.id")
+    List<MentorReport> findReportBySemesterId(@Param("semesterId") Long semesterId);
 }
@@ -0,0 +1,37 @@
+package com.project.repository;
+
+import com.project.enums.AvailableStatus;
+import com.project.model.MentorScheduleRule;
+import java.time.LocalDate;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface MentorScheduleRuleRepository extends JpaRepository<MentorScheduleRule, Long> {
+
+    MentorScheduleRule findByIdAndAvailableStatus(Long id, AvailableStatus availableStatus);
+
+    @Query("SELECT r FROM MentorScheduleRule r " +
+            "JOIN FETCH r.semester " +
+            "WHERE r.mentor.id = :mentorId " +
+            "AND r.availableStatus = :availableStatus " +
+            "ORDER BY r.startTime")
+    List<MentorScheduleRule> findByMentorId(
+            @Param("mentorId") Long mentorId,
+            @Param("availableStatus") AvailableStatus availableStatus);
+
+    //Rules of a running semester with days left to materialize
+    @Query("SELECT r FROM MentorScheduleRule r " +
+            "JOIN FETCH r.semester s " +
+            "JOIN FETCH r.mentor " +
+            "WHERE r.availableStatus = :availableStatus " +
+            "AND s.dateEnd >= :today " +
+            "AND (r.materializedUntil IS NULL OR (r.materializedUntil < :until AND r.materializedUntil < s.dateEnd))")
+    List<MentorScheduleRule> findRulesToMaterialize(
+            @Param("availableStatus") AvailableStatus availableStatus,
+            @Param("today") LocalDate today,
+            @Param("until") LocalDate until);
+}
@@ -4,44 +4,83 @@ package com.project.repository;
 import com.project.enums.AvailableStatus;
 import com.project.model.Mentors;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-import com.project.model.Skills;
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface MentorsRepository extends JpaRepository<Mentors, Long>{
+public interface MentorsRepository extends JpaRepository<Mentors, Long>, JpaSpecificationExecutor<Mentors> {
     Mentors findByUser_Id(Long userId);
 
     Optional<Mentors> findByMentorCodeAndAvailableStatus(String mentorCode, AvailableStatus availableStatus);
 
+    @Query("SELECT m.mentorCode FROM Mentors m WHERE m.mentorCode IN :mentorCodes AND m.availableStatus = :availableStatus")
+    List<String> findExistingMentorCodes(@Param("mentorCodes") Collection<String> mentorCodes, @Param("availableStatus") AvailableStatus availableStatus);
+
     List<Mentors> findByAvailableStatus(AvailableStatus availableStatus);
 
     Mentors findByIdAndAvailableStatus(Long id, AvailableStatus availableStatus);
 
-    @Query("SELECT m FROM Mentors m WHERE m.user.fullName LIKE %:name% AND m.availableStatus = :availableStatus")
-    List<Mentors> findByName(
-            String name,
-            AvailableStatus availableStatus);
-
-    @Query("SELECT DISTINCT m FROM Mentors m JOIN m.skills s WHERE s IN :skills AND m.availableStatus = :availableStatus")
-    List<Mentors> findBySkills(
-            List<Skills> skills,
-            AvailableStatus availableStatus);
+    //userIds come from the name search index
+    @Query("SELECT m FROM Mentors m WHERE m.user.id IN :userIds AND m.availableStatus = :availableStatus")
+    List<Mentors> findByUserIds(
+            @Param("userIds") Collection<Long> userIds,
+            @Param("availableStatus") AvailableStatus availableStatus);
 
     @Query("SELECT m FROM Mentors m WHERE m.user.fullName = :name AND m.availableStatus = :availableStatus")
     Optional<Mentors> findByNameForTopic(String name, AvailableStatus availableStatus);
 
-    @Query("SELECT m FROM Mentors m " +
-            "LEFT JOIN m.bookings b " +
-            "LEFT JOIN b.meeting mt " +
-            "WHERE m.availableStatus = :availableStatus " +
-            "GROUP BY m " +
-            "ORDER BY m.star DESC, COUNT(b.id) DESC, COUNT(mt.id) DESC")
-    List<Mentors> findTopMentors(Pageable pageable, @Param("availableStatus") AvailableStatus availableStatus);
+    @Query("SELECT m.id FROM Mentors m WHERE m.user.id = :userId")
+    Optional<Long> findIdByUserId(@Param("userId") Long userId);
+
+    /**
+     * Add a rating change to the totals and compute the star from them in
+     * the same statement (MySQL assigns left to right, star sees the new
+     * totals). The star is the average of the ratings and the previous star.
+     */
+    @Modifying
+    @Query(value = "UPDATE mentors SET " +
+            "rating_sum = COALESCE(rating_sum, 0) + :sumDelta, " +
+            "rating_count = COALESCE(rating_count, 0) + :countDelta, " +
+            "star = (rating_sum + star) / (rating_count + 1), " +
+            "version = COALESCE(version, 0) + 1 " +
+            "WHERE user_id = :userId", nativeQuery = true)
+    int addRating(@Param("userId") Long userId, @Param("sumDelta") long sumDelta, @Param("countDelta") int countDelta);
+
+    //Totals from the reviews table, for rows written before the columns existed (only those are NULL)
+    @Modifying
+    @Query(value = "UPDATE mentors m LEFT JOIN (" +
+            "SELECT user_receive_id, SUM(rating) AS total, COUNT(*) AS reviews FROM reviews " +
+            "WHERE available_status IS NULL OR available_status <> 'DELETED' " +
+            "GROUP BY user_receive_id) r ON r.user_receive_id = m.user_id " +
+            "SET m.rating_sum = COALESCE(r.total, 0), m.rating_count = COALESCE(r.reviews, 0), " +
+            "m.version = COALESCE(m.version, 0) + 1 " +
+            "WHERE m.rating_count IS NULL OR m.rating_sum IS NULL", nativeQuery = true)
+    int backfillRatingTotals();
+
+    //Mentor search, the user is read by the converter of every row
+    @Override
+    @EntityGraph(attributePaths = {"user", "user.role"})
+    Page<Mentors> findAll(Specification<Mentors> spec, Pageable pageable);
+
+    //Load the collections of already loaded mentors, one statement each
+    @Query("SELECT DISTINCT m FROM Mentors m LEFT JOIN FETCH m.skills WHERE m IN :mentors")
+    List<Mentors> fetchSkills(@Param("mentors") Collection<Mentors> mentors);
+
+    @Query("SELECT DISTINCT m FROM Mentors m " +
+            "LEFT JOIN FETCH m.assignedClass ac " +
+            "LEFT JOIN FETCH ac.semester " +
+            "WHERE m IN :mentors")
+    List<Mentors> fetchAssignedClasses(@Param("mentors") Collection<Mentors> mentors);
 }
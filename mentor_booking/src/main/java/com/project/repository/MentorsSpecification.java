@@ -0,0 +1,71 @@
+package com.project.repository;
+
+import com.project.enums.AvailableStatus;
+import com.project.enums.MentorScheduleStatus;
+import com.project.model.MentorSchedule;
+import com.project.model.Mentors;
+import com.project.model.Skills;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Filters of the mentor search. Each filter is an EXISTS subquery or a plain
+ * predicate on the mentor row, so any combination gives one query without
+ * DISTINCT.
+ */
+public final class MentorsSpecification {
+
+    private MentorsSpecification() {
+    }
+
+    public static Specification<Mentors> hasAvailableStatus(AvailableStatus availableStatus) {
+        return (root, query, cb) -> cb.equal(root.get("availableStatus"), availableStatus);
+    }
+
+    public static Specification<Mentors> idIn(Collection<Long> mentorIds) {
+        return (root, query, cb) -> root.get("id").in(mentorIds);
+    }
+
+    public static Specification<Mentors> userIdIn(Collection<Long> userIds) {
+        return (root, query, cb) -> root.get("user").get("id").in(userIds);
+    }
+
+    /**
+     * Mentor has at least one of the skills
+     */
+    public static Specification<Mentors> hasAnySkill(List<Long> skillIds) {
+        return (root, query, cb) -> {
+            Subquery<Long> subquery = query.subquery(Long.class);
+            Root<Mentors> mentor = subquery.correlate(root);
+            Join<Mentors, Skills> skill = mentor.join("skills");
+            subquery.select(skill.get("id")).where(skill.get("id").in(skillIds));
+            return cb.exists(subquery);
+        };
+    }
+
+    /**
+     * Mentor has an available schedule starting at or after availableFrom and
+     * ending at or before availableTo, a null bound is not checked. A schedule
+     * that has already ended does not count even if the expiry job has not
+     * marked it yet, the same rule as MentorSearchIndex
+     */
+    public static Specification<Mentors> hasScheduleWithin(LocalDateTime availableFrom, LocalDateTime availableTo) {
+        return (root, query, cb) -> {
+            Subquery<Long> subquery = query.subquery(Long.class);
+            Root<MentorSchedule> schedule = subquery.from(MentorSchedule.class);
+            subquery.select(schedule.get("id")).where(
+                    cb.equal(schedule.get("mentor"), root),
+                    cb.equal(schedule.get("availableStatus"), AvailableStatus.ACTIVE),
+                    cb.equal(schedule.get("status"), MentorScheduleStatus.AVAILABLE),
+                    availableFrom == null ? cb.conjunction() : cb.greaterThanOrEqualTo(schedule.get("availableFrom"), availableFrom),
+                    availableTo == null ? cb.conjunction() : cb.lessThanOrEqualTo(schedule.get("availableTo"), availableTo),
+                    cb.greaterThanOrEqualTo(schedule.get("availableTo"), LocalDateTime.now()));
+            return cb.exists(subquery);
+        };
+    }
+}
@@ -4,6 +4,7 @@ package com.project.repository;
 import com.project.enums.AvailableStatus;
 import com.project.model.Students;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,16 +19,20 @@ public interface StudentsRepository extends JpaRepository<Students, Long>{
     Optional<Students> findByStudentCodeAndAvailableStatus(String studentCode, AvailableStatus availableStatus);
     Students findByUser_Id(Long userId);
 
-    @Query("SELECT s FROM Students s WHERE s.user.fullName LIKE %:name% AND s.expertise LIKE %:expertise% AND s.availableStatus = :availableStatus AND s.aClass.id = :classId")
-    List<Students> findStudentByUserFullNameAndExpertiseAndClassId(
-            @Param("name") String name,
+    @Query("SELECT s.studentCode FROM Students s WHERE s.studentCode IN :studentCodes AND s.availableStatus = :availableStatus")
+    List<String> findExistingStudentCodes(@Param("studentCodes") Collection<String> studentCodes, @Param("availableStatus") AvailableStatus availableStatus);
+
+    //userIds come from the name search index
+    @Query("SELECT s FROM Students s WHERE s.user.id IN :userIds AND s.expertise LIKE %:expertise% AND s.availableStatus = :availableStatus AND s.aClass.id = :classId")
+    List<Students> findStudentByUserIdsAndExpertiseAndClassId(
+            @Param("userIds") Collection<Long> userIds,
             @Param("expertise") String expertise,
             @Param("availableStatus") AvailableStatus status,
             @Param("classId") Long classId);
 
-    @Query("SELECT s FROM Students s WHERE s.user.fullName LIKE %:name% AND s.availableStatus = :availableStatus AND s.aClass.id = :classId")
-    List<Students> findStudentByUserFullNameAndClassId(
-            @Param("name") String name,
+    @Query("SELECT s FROM Students s WHERE s.user.id IN :userIds AND s.availableStatus = :availableStatus AND s.aClass.id = :classId")
+    List<Students> findStudentByUserIdsAndClassId(
+            @Param("userIds") Collection<Long> userIds,
             @Param("availableStatus") AvailableStatus status,
             @Param("classId") Long classId);
 
@@ -50,11 +55,11 @@ public interface StudentsRepository extends JpaRepository<Students, Long>{
 
     @Query("SELECT s FROM Students s " +
             "WHERE s.aClass.id = :classId " +
-            "AND s.user.fullName LIKE %:fullName% " +
+            "AND s.user.id IN :userIds " +
             "AND s.availableStatus <> :deletedStatus")
-    List<Students> findStudentByClassIdAndFullName(
+    List<Students> findStudentByClassIdAndUserIds(
             @Param("classId") Long classId,
-            @Param("fullName") String name,
+            @Param("userIds") Collection<Long> userIds,
             @Param("deletedStatus") AvailableStatus deletedStatus);
 
     List<Students> findByAvailableStatusNot(AvailableStatus status);
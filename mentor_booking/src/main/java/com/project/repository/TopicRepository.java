@@ -2,6 +2,7 @@ package com.project.repository;
 
 import com.project.enums.AvailableStatus;
 import com.project.model.Topic;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -22,15 +23,15 @@ public interface TopicRepository extends JpaRepository<Topic, Long> {
 
     @Query("SELECT t FROM Topic t " +
             "WHERE t.semester.id = :semesterId " +
-            "AND t.topicName LIKE %:topicName% " +
+            "AND t.id IN :topicIds " +
             "AND t.availableStatus <> :deletedStatus")
-    List<Topic> findTopicsBySemesterIdAndTopicNameNotDeleted(
+    List<Topic> findTopicsBySemesterIdAndIdsNotDeleted(
             @Param("semesterId") Long semesterId,
-            @Param("topicName") String name,
+            @Param("topicIds") Collection<Long> topicIds,
             @Param("deletedStatus") AvailableStatus deletedStatus);
 
-//    @Query("SELECT t FROM Topic t WHERE t.topic_name LIKE %:topicName%")
-    List<Topic> findByTopicNameContainingIgnoreCaseAndAvailableStatus(String topicName, AvailableStatus availableStatus);
+    //topicIds come from the name search index
+    List<Topic> findByIdInAndAvailableStatus(Collection<Long> topicIds, AvailableStatus availableStatus);
 
     List<Topic> findByAvailableStatus(AvailableStatus availableStatus);
 
@@ -3,6 +3,7 @@ package com.project.repository;
 import com.project.enums.AvailableStatus;
 import com.project.model.Users;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -43,4 +44,14 @@ public interface UsersRepository extends JpaRepository<Users, Long>{
 
     @Query("SELECT u FROM Users u WHERE u.id = :id AND u.availableStatus = :availableStatus")
     Users findByIdAndAvailableStatus(@Param("id") Long id, @Param("availableStatus") AvailableStatus status);
+
+    //Values of an import already taken, checked for a whole batch of rows at once
+    @Query("SELECT u.username FROM Users u WHERE u.username IN :usernames AND u.availableStatus = :availableStatus")
+    List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames, @Param("availableStatus") AvailableStatus availableStatus);
+
+    @Query("SELECT u.email FROM Users u WHERE u.email IN :emails AND u.availableStatus = :availableStatus")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails, @Param("availableStatus") AvailableStatus availableStatus);
+
+    @Query("SELECT u.phone FROM Users u WHERE u.phone IN :phones AND u.availableStatus = :availableStatus")
+    List<String> findExistingPhones(@Param("phones") Collection<String> phones, @Param("availableStatus") AvailableStatus availableStatus);
 }
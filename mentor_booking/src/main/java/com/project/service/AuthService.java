@@ -10,6 +10,7 @@ import com.project.repository.UsersRepository;
 import com.project.ultis.Converter;
 import com.project.ultis.JWTUtils;
 import com.project.ultis.Ultis;
+import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -183,6 +184,7 @@ public class AuthService {
     /**
      *  Phương thức nhập gmail để đổi password
      */
+    @Transactional
     public Response findByGmailChangePassword(Response responseEmail){
         Response response = new Response();
         try{
@@ -198,7 +200,7 @@ public class AuthService {
                 emailRequest.setRecipient(users.getEmail());
                 emailRequest.setMsgBody(otp);
                 emailRequest.setSubject("OTP");
-                emailService.sendOTP(emailRequest);
+                emailService.queueOTP(emailRequest);
 
                 response.setStatusCode(200);
                 response.setMessage("OTP generated successfully");
@@ -0,0 +1,94 @@
+package com.project.service;
+
+import com.project.enums.BookingStatus;
+import com.project.model.Booking;
+import com.project.repository.BookingRepository;
+import com.project.ultis.TimingWheel;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Fires booking deadlines from an in-memory timing wheel instead of polling
+ * the booking table.
+ *
+ * A PENDING booking is due at its expired time or when its schedule starts,
+ * whichever comes first. A CONFIRMED booking is due when its schedule starts.
+ * The wheel is filled again from the database on startup.
+ */
+@Service
+public class BookingExpiryService {
+
+    private static final long TICK_MS = 1000;
+    private static final int WHEEL_SIZE = 60;
+    private static final long RETRY_DELAY_MS = 60000;
+
+    private final TimingWheel<Long> timingWheel = new TimingWheel<>(TICK_MS, WHEEL_SIZE, System.currentTimeMillis());
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Lazy
+    @Autowired
+    private SlotAdmissionService slotAdmissionService;
+
+    /**
+     * Register the next deadline of a PENDING or CONFIRMED booking
+     *
+     * @param booking the booking, its mentor schedule must be loaded
+     */
+    public void register(Booking booking) {
+        if (booking.getStatus() != BookingStatus.PENDING && booking.getStatus() != BookingStatus.CONFIRMED) {
+            return;
+        }
+        LocalDateTime deadline = booking.getMentorSchedule().getAvailableFrom();
+        if (booking.getStatus() == BookingStatus.PENDING
+                && booking.getExpiredTime() != null
+                && booking.getExpiredTime().isBefore(deadline)) {
+            deadline = booking.getExpiredTime();
+        }
+        schedule(booking.getId(), deadline.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadActiveBookings() {
+        try {
+            List<Booking> bookingList = bookingRepository.findActiveBookingsWithSchedule(List.of(BookingStatus.PENDING, BookingStatus.CONFIRMED));
+            for (Booking booking : bookingList) {
+                register(booking);
+            }
+            System.out.println("Booking expiry wheel loaded " + bookingList.size() + " bookings.");
+        } catch (Exception e) {
+            System.out.println("Error while loading booking deadlines: " + e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedRate = TICK_MS)
+    public void advanceClock() {
+        for (Long bookingId : timingWheel.advance(System.currentTimeMillis())) {
+            expire(bookingId);
+        }
+    }
+
+    private void schedule(Long bookingId, long deadlineMs) {
+        if (!timingWheel.add(deadlineMs, bookingId)) {
+            //Already due, fire on the next tick
+            timingWheel.add(System.currentTimeMillis() + TICK_MS, bookingId);
+        }
+    }
+
+    private void expire(Long bookingId) {
+        try {
+            slotAdmissionService.expireBooking(bookingId);
+        } catch (Exception e) {
+            System.out.println("Error while setting booking status automatically: " + e.getMessage());
+            schedule(bookingId, System.currentTimeMillis() + RETRY_DELAY_MS);
+        }
+    }
+}
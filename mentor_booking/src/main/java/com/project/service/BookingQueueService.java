@@ -0,0 +1,140 @@
+package com.project.service;
+
+import com.project.dto.BookingDTO;
+import com.project.dto.Response;
+import jakarta.annotation.PreDestroy;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Opt-in queue in front of booking creation for the semester opening rush.
+ *
+ * A request is accepted right away with a ticket id, then handled by one of a
+ * fixed number of lanes. Every lane is a single worker with its own bounded
+ * queue and a mentor schedule always maps to the same lane, so requests for
+ * one schedule are handled in arrival order and at most {@code lanes} bookings
+ * hit the database at the same time. A full lane rejects new requests (429).
+ * Results are kept for a while so clients can poll or long-poll their ticket.
+ */
+@Service
+public class BookingQueueService {
+
+    private static final long RESULT_TTL_MS = 10 * 60 * 1000;
+
+    private final ThreadPoolExecutor[] lanes;
+
+    private final Map<String, Ticket> tickets = new ConcurrentHashMap<>();
+
+    @Autowired
+    private SlotAdmissionService slotAdmissionService;
+
+    public BookingQueueService(
+            @Value("${booking.queue.lanes:8}") int laneCount,
+            @Value("${booking.queue.capacity:500}") int laneCapacity) {
+        lanes = new ThreadPoolExecutor[laneCount];
+        AtomicInteger threadNumber = new AtomicInteger();
+        for (int i = 0; i < laneCount; i++) {
+            lanes[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(laneCapacity), runnable -> {
+                Thread thread = new Thread(runnable, "booking-queue-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Put a booking request in the queue
+     *
+     * @param createRequest same body as /student/create-booking
+     * @return 202 with the ticket id, or 429 when the lane is full
+     */
+    public Response submit(BookingDTO createRequest) {
+        Long mentorScheduleId = createRequest.getMentorSchedule() == null ? null : createRequest.getMentorSchedule().getId();
+        ThreadPoolExecutor lane = lanes[mentorScheduleId == null ? 0 : Math.floorMod(Long.hashCode(mentorScheduleId), lanes.length)];
+
+        Ticket ticket = new Ticket();
+        String ticketId = UUID.randomUUID().toString();
+        try {
+            tickets.put(ticketId, ticket);
+            lane.execute(() -> process(ticket, createRequest));
+            return pendingResponse(ticketId);
+        } catch (RejectedExecutionException e) {
+            tickets.remove(ticketId);
+            Response response = new Response();
+            response.setStatusCode(429);
+            response.setMessage("Too many booking requests for now, please try again later");
+            return response;
+        }
+    }
+
+    /**
+     * The result of a queued booking request
+     *
+     * @param ticketId id given by {@link #submit(BookingDTO)}
+     * @return null if the ticket is unknown or expired
+     */
+    public CompletableFuture<Response> getResult(String ticketId) {
+        Ticket ticket = tickets.get(ticketId);
+        return ticket == null ? null : ticket.result;
+    }
+
+    /**
+     * The response for a ticket that has not been handled yet
+     *
+     * @param ticketId the ticket
+     * @return 202 response
+     */
+    public Response pendingResponse(String ticketId) {
+        Response response = new Response();
+        response.setTicketId(ticketId);
+        response.setStatusCode(202);
+        response.setMessage("Booking request is waiting in queue");
+        return response;
+    }
+
+    private void process(Ticket ticket, BookingDTO createRequest) {
+        try {
+            ticket.complete(slotAdmissionService.createBooking(createRequest));
+        } catch (Exception e) {
+            Response response = new Response();
+            response.setStatusCode(500);
+            response.setMessage("Error occurred during booking creation: " + e.getMessage());
+            ticket.complete(response);
+        }
+    }
+
+    @Scheduled(fixedRate = 60000)
+    public void removeExpiredTickets() {
+        long now = System.currentTimeMillis();
+        tickets.values().removeIf(ticket -> ticket.completedAt > 0 && now - ticket.completedAt > RESULT_TTL_MS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ThreadPoolExecutor lane : lanes) {
+            lane.shutdown();
+        }
+    }
+
+    private static final class Ticket {
+
+        private final CompletableFuture<Response> result = new CompletableFuture<>();
+        private volatile long completedAt;
+
+        private void complete(Response response) {
+            completedAt = System.currentTimeMillis();
+            result.complete(response);
+        }
+    }
+}
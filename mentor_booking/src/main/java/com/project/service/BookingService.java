@@ -1,5 +1,6 @@
 package com.project.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.project.dto.BookingDTO;
 import com.project.dto.GroupDTO;
 import com.project.dto.Response;
@@ -7,27 +8,35 @@ import com.project.enums.AvailableStatus;
 import com.project.enums.BookingStatus;
 import com.project.enums.MeetingStatus;
 import com.project.enums.MentorScheduleStatus;
-import com.project.enums.PointHistoryStatus;
 import com.project.exception.OurException;
 import com.project.model.Booking;
-import com.project.model.Class;
 import com.project.model.Group;
 import com.project.model.Meeting;
 import com.project.model.MentorSchedule;
 import com.project.model.Mentors;
-import com.project.model.PointHistory;
-import com.project.model.Students;
 import com.project.repository.*;
 import com.project.ultis.Converter;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  *
@@ -36,6 +45,13 @@ import org.springframework.stereotype.Service;
 @Service
 public class BookingService {
 
+    private static final int MAX_PAGE_SIZE = 200;
+
+    private static final int STREAM_BATCH_SIZE = 100;
+
+    //Cursor of the first page, after every real booking
+    private static final LocalDateTime FIRST_PAGE_DATE = LocalDateTime.of(9999, 12, 31, 23, 59);
+
     @Autowired
     private BookingRepository bookingRepository;
 
@@ -49,119 +65,111 @@ public class BookingService {
     private GroupRepository groupRepository;
 
     @Autowired
-    private PointHistoryRepository pointHistoryRepository;
+    private PointLedgerService pointLedgerService;
 
     @Autowired
-    private ClassRepository classRepository;
+    private BookingExpiryService bookingExpiryService;
 
     @Autowired
-    private MeetingRepository meetingRepository;
-
-    public Response createBooking(BookingDTO createRequest) {
-        Response response = new Response();
-        try {
-            if (createRequest.getMentorSchedule() == null) {
-                throw new OurException("Cannot find schedule");
-            }
-            //The group has already have a confirmed booking
-            if (!bookingRepository.findByGroupIdAndAvailableStatusAndStatus(createRequest.getGroup().getId(), AvailableStatus.ACTIVE, BookingStatus.CONFIRMED).isEmpty()) {
-                throw new OurException("You already have a booking that is confirmed");
-            }
-
-            //This mentor has accepted another group's booking
-            if (!bookingRepository.findByAvailableStatusAndStatusAndMentorScheduleId(AvailableStatus.ACTIVE, BookingStatus.CONFIRMED, createRequest.getMentorSchedule().getId()).isEmpty()) {
-                throw new OurException("The mentor has already have a meeting with this schedule");
-            }
-
-            //This group has already booked this mentor with the same schedule, prevent spamming
-            if (!bookingRepository.findByAvailableStatusAndStatusAndMentorScheduleIdAndGroupId(AvailableStatus.ACTIVE, BookingStatus.PENDING,
-                    createRequest.getMentorSchedule().getId(), createRequest.getGroup().getId()).isEmpty()) {
-                throw new OurException("You have booked this mentor with this schedule");
-            }
+    private BookingViewService bookingViewService;
 
-            MentorSchedule mentorSchedule = mentorScheduleRepository.findByIdAndAvailableStatus(createRequest.getMentorSchedule().getId(), AvailableStatus.ACTIVE);
-            Mentors mentor = mentorsRepository.findByIdAndAvailableStatus(mentorSchedule.getMentor().getId(), AvailableStatus.ACTIVE);
-            Group group = groupRepository.findByIdAndAvailableStatus(createRequest.getGroup().getId(), AvailableStatus.ACTIVE);
+    @Autowired
+    private MentorSearchIndex mentorSearchIndex;
 
-            LocalDateTime timeStart = mentorSchedule.getAvailableFrom();
-            LocalDateTime timeEnd = mentorSchedule.getAvailableTo();
-            int time = (int) timeStart.until(timeEnd, ChronoUnit.MINUTES);
+    @Autowired
+    private MentorLeaderboard mentorLeaderboard;
 
-            if (mentor.getTotalTimeRemain() < time / 60f) {
-                throw new OurException("This mentor has reached their support time this semester");
-            }
+    @Autowired
+    private ObjectMapper objectMapper;
 
-            time /= 30;
+    @PersistenceContext
+    private EntityManager entityManager;
 
-            int pointPay = group.getStudents().size() * 10 * (int) time;
+    @Autowired
+    private ClassRepository classRepository;
 
-            if (group.getTotalPoint() - pointPay < 0) {
-                throw new OurException("Your group doesn't have enough points to make a booking");
-            }
+    @Autowired
+    private MeetingRepository meetingRepository;
 
-            Booking booking = new Booking();
-            booking.setDateCreated(LocalDateTime.now());
-            booking.setDateUpdated(LocalDateTime.now());
-            booking.setStatus(BookingStatus.PENDING);
-            booking.setMentorSchedule(mentorSchedule);
-            booking.setMentor(mentor);
-            booking.setGroup(group);
-            booking.setPointPay(pointPay);
-            booking.setAvailableStatus(AvailableStatus.ACTIVE);
-
-            booking.setExpiredTime(LocalDateTime.now().plusHours(12));
-            
-            bookingRepository.save(booking);
+    @Autowired
+    private PlatformTransactionManager transactionManager;
 
-            PointHistory pointHistory;
+    /**
+     * Booking actions that change a schedule or the points of a group are
+     * called through {@link SlotAdmissionService}, which turns their
+     * exceptions into the response. They are not caught here so the whole
+     * transaction (points included) is rolled back.
+     */
+    @Transactional
+    public Response createBooking(BookingDTO createRequest) {
+        Response response = new Response();
+        if (createRequest.getMentorSchedule() == null) {
+            throw new OurException("Cannot find schedule");
+        }
+        //The group has already have a confirmed booking
+        if (!bookingRepository.findByGroupIdAndAvailableStatusAndStatus(createRequest.getGroup().getId(), AvailableStatus.ACTIVE, BookingStatus.CONFIRMED).isEmpty()) {
+            throw new OurException("You already have a booking that is confirmed");
+        }
 
-            List<PointHistory> pointHistoryList;
+        //This mentor has accepted another group's booking
+        if (!bookingRepository.findByAvailableStatusAndStatusAndMentorScheduleId(AvailableStatus.ACTIVE, BookingStatus.CONFIRMED, createRequest.getMentorSchedule().getId()).isEmpty()) {
+            throw new OurException("The mentor has already have a meeting with this schedule");
+        }
 
-            List<Students> groupMembers = booking.getGroup().getStudents();
+        //This group has already booked this mentor with the same schedule, prevent spamming
+        if (!bookingRepository.findByAvailableStatusAndStatusAndMentorScheduleIdAndGroupId(AvailableStatus.ACTIVE, BookingStatus.PENDING,
+                createRequest.getMentorSchedule().getId(), createRequest.getGroup().getId()).isEmpty()) {
+            throw new OurException("You have booked this mentor with this schedule");
+        }
 
-            group.setStudents(groupMembers);
-            group.setTotalPoint(group.getTotalPoint() - booking.getPointPay());
+        MentorSchedule mentorSchedule = mentorScheduleRepository.findByIdAndAvailableStatus(createRequest.getMentorSchedule().getId(), AvailableStatus.ACTIVE);
+        Mentors mentor = mentorsRepository.findByIdAndAvailableStatus(mentorSchedule.getMentor().getId(), AvailableStatus.ACTIVE);
+        Group group = groupRepository.findByIdAndAvailableStatus(createRequest.getGroup().getId(), AvailableStatus.ACTIVE);
 
-            int newPoint = group.getTotalPoint() / groupMembers.size();
+        LocalDateTime timeStart = mentorSchedule.getAvailableFrom();
+        LocalDateTime timeEnd = mentorSchedule.getAvailableTo();
+        int time = (int) timeStart.until(timeEnd, ChronoUnit.MINUTES);
 
-            for (Students member : groupMembers) {
-                int adjustedPoint = newPoint - member.getPoint();
-                member.setPoint(newPoint);
-                pointHistory = new PointHistory();
-                pointHistory.setStatus(PointHistoryStatus.REDEEMED);
-                pointHistory.setAvailableStatus(AvailableStatus.ACTIVE);
-                pointHistory.setStudent(member);
-                pointHistory.setDateCreated(LocalDateTime.now());
-                pointHistory.setDateUpdated(LocalDateTime.now());
-                pointHistory.setPoint(adjustedPoint);
-                pointHistory.setBooking(booking);
-                pointHistoryRepository.save(pointHistory);
+        if (mentor.getTotalTimeRemain() < time / 60f) {
+            throw new OurException("This mentor has reached their support time this semester");
+        }
 
-                if (member.getPointHistories() == null) {
-                    pointHistoryList = new ArrayList<>();
-                } else {
-                    pointHistoryList = member.getPointHistories();
-                }
-                pointHistoryList.add(pointHistory);
-                member.setPointHistories(pointHistoryList);
-            }
-            groupRepository.save(group);
+        time /= 30;
 
+        int pointPay = group.getStudents().size() * 10 * (int) time;
 
-            if (booking.getId() > 0) {
-                BookingDTO dto = Converter.convertBookingToBookingDTO(booking);
-                response.setBookingDTO(dto);
-                response.setStatusCode(200);
-                response.setMessage("Create booking successfully");
-            }
+        if (group.getTotalPoint() - pointPay < 0) {
+            throw new OurException("Your group doesn't have enough points to make a booking");
+        }
 
-        } catch (OurException e) {
-            response.setStatusCode(400);
-            response.setMessage(e.getMessage());
-        } catch (Exception e) {
-            response.setStatusCode(500);
-            response.setMessage("Error occurred during booking creation: " + e.getMessage());
+        Booking booking = new Booking();
+        booking.setDateCreated(LocalDateTime.now());
+        booking.setDateUpdated(LocalDateTime.now());
+        booking.setStatus(BookingStatus.PENDING);
+        booking.setMentorSchedule(mentorSchedule);
+        booking.setMentor(mentor);
+        booking.setGroup(group);
+        booking.setPointPay(pointPay);
+        booking.setAvailableStatus(AvailableStatus.ACTIVE);
+        booking.setPriority(getPriority(group, mentor));
+
+        booking.setExpiredTime(LocalDateTime.now().plusHours(12));
+        
+        bookingRepository.save(booking);
+
+        pointLedgerService.redeem(group, booking);
+        bookingExpiryService.register(booking);
+        mentorLeaderboard.bookingCreated(mentor.getId());
+        bookingViewService.refresh(List.of(booking.getId()));
+
+
+        if (booking.getId() > 0) {
+            BookingDTO dto = Converter.convertBookingToBookingDTO(booking);
+            response.setBookingDTO(dto);
+            response.setStatusCode(200);
+            response.setMessage("Create booking successfully");
         }
+
         return response;
     }
 
@@ -262,318 +270,360 @@ public class BookingService {
         return response;
     }
 
-    public Response acceptBooking(Long bookingId) {
-        Response response = new Response();
-        try {
-            Booking booking = bookingRepository.findByIdAndAvailableStatusAndStatus(bookingId, AvailableStatus.ACTIVE, BookingStatus.PENDING);
-            if (booking != null) {
-                booking.setStatus(BookingStatus.CONFIRMED);
-                booking.setDateUpdated(LocalDateTime.now());
-                booking.setExpiredTime(null);
-                bookingRepository.save(booking);
-
-                List<Booking> previousCancelledBooking = bookingRepository.findByGroupIdAndAvailableStatusAndStatus(booking.getGroup().getId(), AvailableStatus.ACTIVE, BookingStatus.CANCELLED);
-                for (Booking b : previousCancelledBooking) {
-                    if (b.getMentor().getId() == booking.getMentor().getId()) {
-                        b.setAvailableStatus(AvailableStatus.INACTIVE);
-                        b.setDateUpdated(LocalDateTime.now());
-                        bookingRepository.save(b);
-                    }
-                }
+    public Response getBookingsPageByAvailableStatus(AvailableStatus availableStatus, String cursor, int size) {
+        return getBookingPage(cursor, size,
+                (cursorDate, cursorId, pageable) -> bookingRepository.findPageByAvailableStatus(availableStatus, cursorDate, cursorId, pageable));
+    }
 
-                //Reject all mentor's pending bookings base on mentor's booked schedule
-                List<Booking> remainMentorPendingBookingList = bookingRepository.findByStatusAndMentorScheduleId(BookingStatus.PENDING, booking.getMentorSchedule().getId());
-                if (!remainMentorPendingBookingList.isEmpty()) {
-                    for (Booking pendingBookings : remainMentorPendingBookingList) {
-                        pendingBookings.setStatus(BookingStatus.REJECTED);
-                        pendingBookings.setAvailableStatus(AvailableStatus.INACTIVE);
-                        pendingBookings.setDateUpdated(LocalDateTime.now());
-                        booking.setExpiredTime(null);
-                        bookingRepository.save(pendingBookings);
-                    }
-                }
+    public Response getBookingsPageByStatus(BookingStatus status, String cursor, int size) {
+        return getBookingPage(cursor, size,
+                (cursorDate, cursorId, pageable) -> bookingRepository.findPageByStatus(status, cursorDate, cursorId, pageable));
+    }
 
-                //Delete all group's other remain bookings
-                List<Booking> remainGroupPendingBookingList = bookingRepository.findByGroupIdAndAvailableStatusAndStatus(booking.getGroup().getId(), AvailableStatus.ACTIVE, BookingStatus.PENDING);
-                if (!remainGroupPendingBookingList.isEmpty()) {
-                    for (Booking pendingBookings : remainGroupPendingBookingList) {
-                        pendingBookings.setAvailableStatus(AvailableStatus.DELETED);
-                        pendingBookings.setDateUpdated(LocalDateTime.now());
-                        booking.setExpiredTime(null);
-                        bookingRepository.save(pendingBookings);
-                    }
-                }
+    public Response getBookingsPageInClass(Long classId, String cursor, int size) {
+        return getBookingPage(cursor, size,
+                (cursorDate, cursorId, pageable) -> bookingRepository.findPageByClassId(classId, cursorDate, cursorId, pageable));
+    }
 
-                MentorSchedule schedule = mentorScheduleRepository.findByIdAndAvailableStatus(booking.getMentorSchedule().getId(), AvailableStatus.ACTIVE);
-                schedule.setStatus(MentorScheduleStatus.BOOKED);
+    /**
+     * Write the bookings as NDJSON (one BookingDTO per line) without keeping
+     * them in memory, they are read through the keyset page queries
+     * {@value #STREAM_BATCH_SIZE} rows at a time and the persistence context
+     * is cleared after every batch
+     */
+    @Transactional
+    public void streamBookingsByAvailableStatus(AvailableStatus availableStatus, OutputStream out) throws IOException {
+        writeNdjson(out,
+                (cursorDate, cursorId, pageable) -> bookingRepository.findPageByAvailableStatus(availableStatus, cursorDate, cursorId, pageable));
+    }
 
-                Mentors mentor = mentorsRepository.findByIdAndAvailableStatus(booking.getMentorSchedule().getMentor().getId(), AvailableStatus.ACTIVE);
-                LocalDateTime timeStart = schedule.getAvailableFrom();
-                LocalDateTime timeEnd = schedule.getAvailableTo();
-                float time = timeStart.until(timeEnd, ChronoUnit.MINUTES) / 60f;
-                mentor.setTotalTimeRemain(mentor.getTotalTimeRemain() - time);
-                mentorsRepository.save(mentor);
+    @Transactional
+    public void streamBookingsByStatus(BookingStatus status, OutputStream out) throws IOException {
+        writeNdjson(out,
+                (cursorDate, cursorId, pageable) -> bookingRepository.findPageByStatus(status, cursorDate, cursorId, pageable));
+    }
 
-                mentorScheduleRepository.save(schedule);
+    @Transactional
+    public void streamBookingsInClass(Long classId, OutputStream out) throws IOException {
+        writeNdjson(out,
+                (cursorDate, cursorId, pageable) -> bookingRepository.findPageByClassId(classId, cursorDate, cursorId, pageable));
+    }
 
-                bookingRepository.save(booking);
+    private interface PageQuery {
 
-                BookingDTO dto = Converter.convertBookingToBookingDTO(booking);
-                response.setBookingDTO(dto);
-                response.setStatusCode(200);
-                response.setMessage("Booking accepted");
-            } else {
-                throw new OurException("Cannot find booking");
-            }
-        } catch (OurException e) {
-            response.setStatusCode(400);
-            response.setMessage(e.getMessage());
-        } catch (Exception e) {
-            response.setStatusCode(500);
-            response.setMessage("Error occurred during accept booking: " + e.getMessage());
-        }
-        return response;
+        List<Booking> find(LocalDateTime cursorDate, Long cursorId, Pageable pageable);
     }
 
-    public Response rejectBooking(Long bookingId) {
+    private Response getBookingPage(String cursor, int size, PageQuery query) {
         Response response = new Response();
         try {
-            Booking booking = bookingRepository.findByIdAndAvailableStatusAndStatus(bookingId, AvailableStatus.ACTIVE, BookingStatus.PENDING);
-            if (booking != null) {
-                booking.setStatus(BookingStatus.REJECTED);
-                booking.setAvailableStatus(AvailableStatus.INACTIVE);
-                booking.setDateUpdated(LocalDateTime.now());
-                booking.setExpiredTime(null);
-
-                PointHistory pointHistory;
-
-                List<PointHistory> pointHistoryList;
-
-                List<Students> groupMembers = booking.getGroup().getStudents();
-
-                Group group = groupRepository.findByIdAndAvailableStatus(booking.getGroup().getId(), AvailableStatus.ACTIVE);
-                group.setStudents(groupMembers);
-                group.setTotalPoint(group.getTotalPoint() + booking.getPointPay());
-
-                int newPoint = group.getTotalPoint() / groupMembers.size();
-
-                for (Students member : groupMembers) {
-                    int adjustedPoint = newPoint - member.getPoint();
-                    member.setPoint(newPoint);
-                    pointHistory = new PointHistory();
-                    pointHistory.setStatus(PointHistoryStatus.ADJUSTED);
-                    pointHistory.setAvailableStatus(AvailableStatus.ACTIVE);
-                    pointHistory.setStudent(member);
-                    pointHistory.setDateCreated(LocalDateTime.now());
-                    pointHistory.setDateUpdated(LocalDateTime.now());
-                    pointHistory.setPoint(adjustedPoint);
-                    pointHistory.setBooking(booking);
-                    pointHistoryRepository.save(pointHistory);
-
-                    if (member.getPointHistories() == null) {
-                        pointHistoryList = new ArrayList<>();
-                    } else {
-                        pointHistoryList = member.getPointHistories();
-                    }
-                    pointHistoryList.add(pointHistory);
-                    member.setPointHistories(pointHistoryList);
+            if (size <= 0 || size > MAX_PAGE_SIZE) {
+                throw new OurException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+            }
+            LocalDateTime cursorDate = FIRST_PAGE_DATE;
+            Long cursorId = Long.MAX_VALUE;
+            if (cursor != null && !cursor.isBlank()) {
+                String[] parts = cursor.split("_");
+                try {
+                    cursorDate = LocalDateTime.parse(parts[0]);
+                    cursorId = Long.parseLong(parts[1]);
+                } catch (DateTimeParseException | NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                    throw new OurException("Invalid cursor");
                 }
-                groupRepository.save(group);
-
-                bookingRepository.save(booking);
+            }
 
-                BookingDTO dto = Converter.convertBookingToBookingDTO(booking);
-                response.setBookingDTO(dto);
-                response.setStatusCode(200);
-                response.setMessage("Booking rejected");
-            } else {
-                throw new OurException("Cannot find booking");
+            List<Booking> bookingList = query.find(cursorDate, cursorId, PageRequest.of(0, size));
+            List<BookingDTO> bookingListDTO = bookingList.stream()
+                    .map(Converter::convertBookingToBookingDTO)
+                    .collect(Collectors.toList());
+            if (bookingList.size() == size) {
+                Booking last = bookingList.get(bookingList.size() - 1);
+                response.setNextCursor(last.getDateCreated() + "_" + last.getId());
             }
+
+            response.setBookingDTOList(bookingListDTO);
+            response.setStatusCode(200);
+            response.setMessage("Bookings fetched successfully");
         } catch (OurException e) {
             response.setStatusCode(400);
             response.setMessage(e.getMessage());
         } catch (Exception e) {
             response.setStatusCode(500);
-            response.setMessage("Error occurred during reject booking: " + e.getMessage());
+            response.setMessage("Error occurred during get all bookings: " + e.getMessage());
         }
         return response;
     }
 
-    public Response cancelBooking(Long bookingId, String type) {
+    private void writeNdjson(OutputStream out, PageQuery query) throws IOException {
+        LocalDateTime cursorDate = FIRST_PAGE_DATE;
+        Long cursorId = Long.MAX_VALUE;
+        List<Booking> batch;
+        do {
+            batch = query.find(cursorDate, cursorId, PageRequest.of(0, STREAM_BATCH_SIZE));
+            for (BookingDTO bookingDTO : Converter.convertBookingListToBookingDTOList(batch)) {
+                out.write(objectMapper.writeValueAsBytes(bookingDTO));
+                out.write('\n');
+            }
+            out.flush();
+            if (!batch.isEmpty()) {
+                Booking last = batch.get(batch.size() - 1);
+                cursorDate = last.getDateCreated();
+                cursorId = last.getId();
+            }
+            entityManager.clear();
+        } while (batch.size() == STREAM_BATCH_SIZE);
+    }
+
+    @Transactional
+    public Response acceptBooking(Long bookingId) {
         Response response = new Response();
-        try {
-            Booking booking = bookingRepository.findByIdAndAvailableStatusAndStatus(bookingId, AvailableStatus.ACTIVE, BookingStatus.CONFIRMED);
-            if (booking != null) {
-                if (type.equalsIgnoreCase("MENTOR")) {
-                    booking.setStatus(BookingStatus.CANCELLED);
-                    booking.setAvailableStatus(AvailableStatus.ACTIVE);
-                    booking.setDateUpdated(LocalDateTime.now());
-                    booking.setExpiredTime(null);
-
-                    Meeting meeting = meetingRepository.findByBookingIdAndAvailableStatus(bookingId, AvailableStatus.ACTIVE);
-                    if (meeting != null) {
-                        meeting.setStatus(MeetingStatus.CANCELLED);
-                        meeting.setAvailableStatus(AvailableStatus.INACTIVE);
-                        meetingRepository.save(meeting);
-                    }
+        Booking booking = bookingRepository.findByIdAndAvailableStatusAndStatus(bookingId, AvailableStatus.ACTIVE, BookingStatus.PENDING);
+        if (booking != null) {
+            booking.setStatus(BookingStatus.CONFIRMED);
+            booking.setDateUpdated(LocalDateTime.now());
+            booking.setExpiredTime(null);
+            bookingRepository.save(booking);
 
-                    PointHistory pointHistory;
+            //Previous bookings of this group that were cancelled by the same mentor are no longer needed
+            bookingRepository.updateAvailableStatusByGroupIdAndMentorIdAndStatus(booking.getGroup().getId(), booking.getMentor().getId(),
+                    BookingStatus.CANCELLED, AvailableStatus.ACTIVE, AvailableStatus.INACTIVE, LocalDateTime.now());
 
-                    List<PointHistory> pointHistoryList;
+            //Reject all mentor's pending bookings base on mentor's booked schedule
+            List<Long> rejectedBookingIds = bookingRepository.findIdsByMentorScheduleIdAndStatusAndAvailableStatus(
+                    booking.getMentorSchedule().getId(), BookingStatus.PENDING, AvailableStatus.ACTIVE);
+            if (!rejectedBookingIds.isEmpty()) {
+                bookingRepository.updateStatusAndAvailableStatusByIds(rejectedBookingIds, BookingStatus.REJECTED, AvailableStatus.INACTIVE,
+                        Booking.PRIORITY_OTHER, LocalDateTime.now());
+            }
 
-                    List<Students> groupMembers = booking.getGroup().getStudents();
+            //Delete all group's other remain bookings
+            List<Long> deletedBookingIds = bookingRepository.findIdsByGroupIdAndStatusAndAvailableStatus(
+                    booking.getGroup().getId(), BookingStatus.PENDING, AvailableStatus.ACTIVE);
+            if (!deletedBookingIds.isEmpty()) {
+                bookingRepository.updateStatusAndAvailableStatusByIds(deletedBookingIds, BookingStatus.PENDING, AvailableStatus.DELETED,
+                        Booking.PRIORITY_OTHER, LocalDateTime.now());
+            }
 
-                    Group group = groupRepository.findByIdAndAvailableStatus(booking.getGroup().getId(), AvailableStatus.ACTIVE);
-                    group.setStudents(groupMembers);
-                    group.setTotalPoint(group.getTotalPoint() + booking.getPointPay());
+            //Give the points of every closed booking back to its group
+            refundBookings(rejectedBookingIds);
+            refundBookings(deletedBookingIds);
 
-                    int newPoint = group.getTotalPoint() / groupMembers.size();
+            MentorSchedule schedule = mentorScheduleRepository.findByIdAndAvailableStatus(booking.getMentorSchedule().getId(), AvailableStatus.ACTIVE);
+            if (schedule == null) {
+                throw new OurException("This schedule is no longer available");
+            }
+            schedule.setStatus(MentorScheduleStatus.BOOKED);
 
-                    for (Students member : groupMembers) {
-                        int adjustedPoint = newPoint - member.getPoint();
-                        member.setPoint(newPoint);
-                        pointHistory = new PointHistory();
-                        pointHistory.setStatus(PointHistoryStatus.ADJUSTED);
-                        pointHistory.setAvailableStatus(AvailableStatus.ACTIVE);
-                        pointHistory.setStudent(member);
-                        pointHistory.setDateCreated(LocalDateTime.now());
-                        pointHistory.setDateUpdated(LocalDateTime.now());
-                        pointHistory.setPoint(adjustedPoint);
-                        pointHistory.setBooking(booking);
-                        pointHistoryRepository.save(pointHistory);
+            Mentors mentor = mentorsRepository.findByIdAndAvailableStatus(booking.getMentorSchedule().getMentor().getId(), AvailableStatus.ACTIVE);
+            LocalDateTime timeStart = schedule.getAvailableFrom();
+            LocalDateTime timeEnd = schedule.getAvailableTo();
+            float time = timeStart.until(timeEnd, ChronoUnit.MINUTES) / 60f;
+            mentor.setTotalTimeRemain(mentor.getTotalTimeRemain() - time);
+            mentorsRepository.save(mentor);
 
-                        if (member.getPointHistories() == null) {
-                            pointHistoryList = new ArrayList<>();
-                        } else {
-                            pointHistoryList = member.getPointHistories();
-                        }
-                        pointHistoryList.add(pointHistory);
-                        member.setPointHistories(pointHistoryList);
-                    }
+            mentorScheduleRepository.save(schedule);
+            mentorSearchIndex.mentorChanged(mentor.getId());
 
-                    MentorSchedule schedule = mentorScheduleRepository.findByIdAndAvailableStatus(booking.getMentorSchedule().getId(), AvailableStatus.ACTIVE);
-                    schedule.setStatus(MentorScheduleStatus.AVAILABLE);
-                    Mentors mentor = mentorsRepository.findByIdAndAvailableStatus(booking.getMentorSchedule().getMentor().getId(), AvailableStatus.ACTIVE);
-                    LocalDateTime timeStart = schedule.getAvailableFrom();
-                    LocalDateTime timeEnd = schedule.getAvailableTo();
-                    float time = timeStart.until(timeEnd, ChronoUnit.MINUTES) / 60f;
-                    mentor.setTotalTimeRemain(mentor.getTotalTimeRemain() + time);
-                    mentor.setStar(mentor.getStar() - 0.5f);
-                    if (mentor.getStar() < 0) {
-                        mentor.setStar(0);
-                    }
-                    mentorsRepository.save(mentor);
-                    mentorScheduleRepository.save(schedule);
+            bookingRepository.save(booking);
+            bookingExpiryService.register(booking);
+            bookingViewService.refreshGroup(booking.getGroup().getId());
+            bookingViewService.refresh(rejectedBookingIds);
+
+            BookingDTO dto = Converter.convertBookingToBookingDTO(booking);
+            response.setBookingDTO(dto);
+            response.setStatusCode(200);
+            response.setMessage("Booking accepted");
+        } else {
+            throw new OurException("Cannot find booking");
+        }
+        return response;
+    }
 
-                    groupRepository.save(group);
-                    bookingRepository.save(booking);
+    private int getPriority(Group group, Mentors mentor) {
+        if (bookingRepository.existsByGroupIdAndMentorIdAndStatusAndAvailableStatus(group.getId(), mentor.getId(), BookingStatus.CANCELLED, AvailableStatus.ACTIVE)) {
+            return Booking.PRIORITY_REBOOK;
+        }
+        if (group.getAClass() != null && group.getAClass().getMentor() != null
+                && group.getAClass().getMentor().getId().equals(mentor.getId())) {
+            return Booking.PRIORITY_SAME_CLASS;
+        }
+        return Booking.PRIORITY_OTHER;
+    }
 
-                    BookingDTO dto = Converter.convertBookingToBookingDTO(booking);
-                    response.setBookingDTO(dto);
-                    response.setStatusCode(200);
-                    response.setMessage("Booking canceled by mentor");
-                }
-                if (type.equalsIgnoreCase("STUDENTS")) {
-                    booking.setStatus(BookingStatus.CANCELLED);
-                    booking.setAvailableStatus(AvailableStatus.INACTIVE);
-                    booking.setDateUpdated(LocalDateTime.now());
-                    booking.setExpiredTime(null);
-                    Meeting meeting = meetingRepository.findByBookingIdAndAvailableStatus(bookingId, AvailableStatus.ACTIVE);
-                    if (meeting != null) {
-                        meeting.setStatus(MeetingStatus.CANCELLED);
-                        meeting.setAvailableStatus(AvailableStatus.INACTIVE);
-                        meetingRepository.save(meeting);
-                    }
+    /**
+     * Fill the priority of the bookings written before the column existed.
+     * Only NULL rows are touched, so after the first start it changes
+     * nothing. Runs before requests are served, a booking without priority
+     * cannot be loaded.
+     */
+    @PostConstruct
+    public void backfillPriorities() {
+        Integer rows = new TransactionTemplate(transactionManager).execute(status -> bookingRepository.backfillPriorities());
+        if (rows != null && rows > 0) {
+            System.out.println("Booking priorities filled for " + rows + " rows.");
+        }
+    }
 
-                    MentorSchedule schedule = mentorScheduleRepository.findByIdAndAvailableStatus(booking.getMentorSchedule().getId(), AvailableStatus.ACTIVE);
-                    schedule.setStatus(MentorScheduleStatus.AVAILABLE);
-                    Mentors mentor = mentorsRepository.findByIdAndAvailableStatus(booking.getMentorSchedule().getMentor().getId(), AvailableStatus.ACTIVE);
-                    LocalDateTime timeStart = schedule.getAvailableFrom();
-                    LocalDateTime timeEnd = schedule.getAvailableTo();
-                    float time = timeStart.until(timeEnd, ChronoUnit.MINUTES) / 60f;
-                    mentor.setTotalTimeRemain(mentor.getTotalTimeRemain() + time);
-                    mentorsRepository.save(mentor);
-                    mentorScheduleRepository.save(schedule);
-
-                    bookingRepository.save(booking);
-
-                    BookingDTO dto = Converter.convertBookingToBookingDTO(booking);
-                    response.setBookingDTO(dto);
-                    response.setStatusCode(200);
-                    response.setMessage("Booking canceled by students");
-                }
-            } else {
-                throw new OurException("Cannot find booking");
-            }
-        } catch (OurException e) {
-            response.setStatusCode(400);
-            response.setMessage(e.getMessage());
-        } catch (Exception e) {
-            response.setStatusCode(500);
-            response.setMessage("Error occurred during cancel booking: " + e.getMessage());
+    /**
+     * Reject the pending bookings of schedules that have been removed and
+     * give their points back, in the caller's transaction
+     *
+     * @param mentorScheduleIds the removed schedules
+     */
+    @Transactional
+    public void rejectPendingBookingsOfSchedules(Collection<Long> mentorScheduleIds) {
+        if (mentorScheduleIds.isEmpty()) {
+            return;
+        }
+        List<Long> rejectedBookingIds = bookingRepository.findIdsByMentorScheduleIdsAndStatusAndAvailableStatus(
+                mentorScheduleIds, BookingStatus.PENDING, AvailableStatus.ACTIVE);
+        if (rejectedBookingIds.isEmpty()) {
+            return;
+        }
+        bookingRepository.updateStatusAndAvailableStatusByIds(rejectedBookingIds, BookingStatus.REJECTED, AvailableStatus.INACTIVE,
+                Booking.PRIORITY_OTHER, LocalDateTime.now());
+        refundBookings(rejectedBookingIds);
+        bookingViewService.refresh(rejectedBookingIds);
+    }
+
+    private void refundBookings(List<Long> bookingIds) {
+        if (bookingIds.isEmpty()) {
+            return;
+        }
+        pointLedgerService.refundAll(bookingRepository.findAllById(bookingIds));
+    }
+
+    @Transactional
+    public Response rejectBooking(Long bookingId) {
+        Response response = new Response();
+        Booking booking = bookingRepository.findByIdAndAvailableStatusAndStatus(bookingId, AvailableStatus.ACTIVE, BookingStatus.PENDING);
+        if (booking != null) {
+            booking.setStatus(BookingStatus.REJECTED);
+            booking.setAvailableStatus(AvailableStatus.INACTIVE);
+            booking.setDateUpdated(LocalDateTime.now());
+            booking.setExpiredTime(null);
+
+            Group group = groupRepository.findByIdAndAvailableStatus(booking.getGroup().getId(), AvailableStatus.ACTIVE);
+            pointLedgerService.refund(group, booking);
+
+            bookingRepository.save(booking);
+            bookingViewService.refresh(List.of(booking.getId()));
+
+            BookingDTO dto = Converter.convertBookingToBookingDTO(booking);
+            response.setBookingDTO(dto);
+            response.setStatusCode(200);
+            response.setMessage("Booking rejected");
+        } else {
+            throw new OurException("Cannot find booking");
         }
         return response;
     }
 
-    public Response cancelPendingBooking(Long bookingId) {
+    @Transactional
+    public Response cancelBooking(Long bookingId, String type) {
         Response response = new Response();
-        try {
-            Booking booking = bookingRepository.findByIdAndAvailableStatusAndStatus(bookingId, AvailableStatus.ACTIVE, BookingStatus.PENDING);
-            if (booking != null) {
-                booking.setAvailableStatus(AvailableStatus.DELETED);
+        Booking booking = bookingRepository.findByIdAndAvailableStatusAndStatus(bookingId, AvailableStatus.ACTIVE, BookingStatus.CONFIRMED);
+        if (booking != null) {
+            if (type.equalsIgnoreCase("MENTOR")) {
+                booking.setStatus(BookingStatus.CANCELLED);
+                booking.setAvailableStatus(AvailableStatus.ACTIVE);
                 booking.setDateUpdated(LocalDateTime.now());
                 booking.setExpiredTime(null);
 
-                PointHistory pointHistory;
+                Meeting meeting = meetingRepository.findByBookingIdAndAvailableStatus(bookingId, AvailableStatus.ACTIVE);
+                if (meeting != null) {
+                    meeting.setStatus(MeetingStatus.CANCELLED);
+                    meeting.setAvailableStatus(AvailableStatus.INACTIVE);
+                    meetingRepository.save(meeting);
+                }
 
-                List<PointHistory> pointHistoryList;
+                Group group = groupRepository.findByIdAndAvailableStatus(booking.getGroup().getId(), AvailableStatus.ACTIVE);
+                pointLedgerService.refund(group, booking);
 
-                List<Students> groupMembers = booking.getGroup().getStudents();
+                MentorSchedule schedule = mentorScheduleRepository.findByIdAndAvailableStatus(booking.getMentorSchedule().getId(), AvailableStatus.ACTIVE);
+                schedule.setStatus(MentorScheduleStatus.AVAILABLE);
+                Mentors mentor = mentorsRepository.findByIdAndAvailableStatus(booking.getMentorSchedule().getMentor().getId(), AvailableStatus.ACTIVE);
+                LocalDateTime timeStart = schedule.getAvailableFrom();
+                LocalDateTime timeEnd = schedule.getAvailableTo();
+                float time = timeStart.until(timeEnd, ChronoUnit.MINUTES) / 60f;
+                mentor.setTotalTimeRemain(mentor.getTotalTimeRemain() + time);
+                mentor.setStar(mentor.getStar() - 0.5f);
+                if (mentor.getStar() < 0) {
+                    mentor.setStar(0);
+                }
+                mentorsRepository.save(mentor);
+                mentorScheduleRepository.save(schedule);
+                mentorSearchIndex.mentorChanged(mentor.getId());
+                mentorLeaderboard.mentorChanged(mentor.getId());
 
-                Group group = groupRepository.findByIdAndAvailableStatus(booking.getGroup().getId(), AvailableStatus.ACTIVE);
-                group.setStudents(groupMembers);
-                group.setTotalPoint(group.getTotalPoint() + booking.getPointPay());
-
-                int newPoint = group.getTotalPoint() / groupMembers.size();
-
-                for (Students member : groupMembers) {
-                    int adjustedPoint = newPoint - member.getPoint();
-                    member.setPoint(newPoint);
-                    pointHistory = new PointHistory();
-                    pointHistory.setStatus(PointHistoryStatus.ADJUSTED);
-                    pointHistory.setAvailableStatus(AvailableStatus.ACTIVE);
-                    pointHistory.setStudent(member);
-                    pointHistory.setDateCreated(LocalDateTime.now());
-                    pointHistory.setDateUpdated(LocalDateTime.now());
-                    pointHistory.setPoint(adjustedPoint);
-                    pointHistory.setBooking(booking);
-                    pointHistoryRepository.save(pointHistory);
-
-                    if (member.getPointHistories() == null) {
-                        pointHistoryList = new ArrayList<>();
-                    } else {
-                        pointHistoryList = member.getPointHistories();
-                    }
-                    pointHistoryList.add(pointHistory);
-                    member.setPointHistories(pointHistoryList);
+                bookingRepository.save(booking);
+                //The group goes first in this mentor's inbox when it books again
+                bookingRepository.updatePendingPriorityByGroupIdAndMentorId(booking.getGroup().getId(), booking.getMentor().getId(), Booking.PRIORITY_REBOOK);
+                bookingViewService.refresh(List.of(booking.getId()));
+
+                BookingDTO dto = Converter.convertBookingToBookingDTO(booking);
+                response.setBookingDTO(dto);
+                response.setStatusCode(200);
+                response.setMessage("Booking canceled by mentor");
+            }
+            if (type.equalsIgnoreCase("STUDENTS")) {
+                booking.setStatus(BookingStatus.CANCELLED);
+                booking.setAvailableStatus(AvailableStatus.INACTIVE);
+                booking.setDateUpdated(LocalDateTime.now());
+                booking.setExpiredTime(null);
+                Meeting meeting = meetingRepository.findByBookingIdAndAvailableStatus(bookingId, AvailableStatus.ACTIVE);
+                if (meeting != null) {
+                    meeting.setStatus(MeetingStatus.CANCELLED);
+                    meeting.setAvailableStatus(AvailableStatus.INACTIVE);
+                    meetingRepository.save(meeting);
                 }
-                groupRepository.save(group);
+
+                MentorSchedule schedule = mentorScheduleRepository.findByIdAndAvailableStatus(booking.getMentorSchedule().getId(), AvailableStatus.ACTIVE);
+                schedule.setStatus(MentorScheduleStatus.AVAILABLE);
+                Mentors mentor = mentorsRepository.findByIdAndAvailableStatus(booking.getMentorSchedule().getMentor().getId(), AvailableStatus.ACTIVE);
+                LocalDateTime timeStart = schedule.getAvailableFrom();
+                LocalDateTime timeEnd = schedule.getAvailableTo();
+                float time = timeStart.until(timeEnd, ChronoUnit.MINUTES) / 60f;
+                mentor.setTotalTimeRemain(mentor.getTotalTimeRemain() + time);
+                mentorsRepository.save(mentor);
+                mentorScheduleRepository.save(schedule);
+                mentorSearchIndex.mentorChanged(mentor.getId());
 
                 bookingRepository.save(booking);
+                bookingViewService.refresh(List.of(booking.getId()));
 
                 BookingDTO dto = Converter.convertBookingToBookingDTO(booking);
                 response.setBookingDTO(dto);
                 response.setStatusCode(200);
-                response.setMessage("Pending booking cancelled");
-            } else {
-                throw new OurException("Cannot find booking");
+                response.setMessage("Booking canceled by students");
             }
-        } catch (OurException e) {
-            response.setStatusCode(400);
-            response.setMessage(e.getMessage());
-        } catch (Exception e) {
-            response.setStatusCode(500);
-            response.setMessage("Error occurred during cancel pending booking: " + e.getMessage());
+        } else {
+            throw new OurException("Cannot find booking");
+        }
+        return response;
+    }
+
+    @Transactional
+    public Response cancelPendingBooking(Long bookingId) {
+        Response response = new Response();
+        Booking booking = bookingRepository.findByIdAndAvailableStatusAndStatus(bookingId, AvailableStatus.ACTIVE, BookingStatus.PENDING);
+        if (booking != null) {
+            booking.setAvailableStatus(AvailableStatus.DELETED);
+            booking.setDateUpdated(LocalDateTime.now());
+            booking.setExpiredTime(null);
+
+            Group group = groupRepository.findByIdAndAvailableStatus(booking.getGroup().getId(), AvailableStatus.ACTIVE);
+            pointLedgerService.refund(group, booking);
+
+            bookingRepository.save(booking);
+            bookingViewService.refresh(List.of(booking.getId()));
+
+            BookingDTO dto = Converter.convertBookingToBookingDTO(booking);
+            response.setBookingDTO(dto);
+            response.setStatusCode(200);
+            response.setMessage("Pending booking cancelled");
+        } else {
+            throw new OurException("Cannot find booking");
         }
         return response;
     }
@@ -662,24 +712,33 @@ public class BookingService {
         return response;
     }
 
+    @Transactional
     public Response getBookingBySemesterId(Long semesterId) {
         Response response = new Response();
         try {
             List<com.project.model.Class> findClass = classRepository.findClassBySemesterIdExcludingDeleted(semesterId, AvailableStatus.DELETED);
 
             if (findClass != null && !findClass.isEmpty()) {
-                List<BookingDTO> allBookings = new ArrayList<>();
-                for (Class c : findClass) {
-                    List<Booking> bookings = bookingRepository.findBookingsByClassId(c.getId());
-
-                    if (bookings != null && !bookings.isEmpty()) {
-                        for (Booking booking : bookings) {
-                            BookingDTO bookingDTO = Converter.convertBookingToBookingDTO(booking); // Hàm chuyển đổi (nếu cần)
-                            allBookings.add(bookingDTO);
+                List<Booking> bookings = bookingRepository.findBookingsBySemesterIdWithDetails(semesterId, AvailableStatus.DELETED);
+                if (!bookings.isEmpty()) {
+                    //Fill the collections read by the converter, one statement per collection instead of one per entity
+                    //(keyed by id, the entity hashCode walks the lazy collections)
+                    Map<Long, Group> groups = new LinkedHashMap<>();
+                    Map<Long, Mentors> mentors = new LinkedHashMap<>();
+                    for (Booking booking : bookings) {
+                        groups.putIfAbsent(booking.getGroup().getId(), booking.getGroup());
+                        mentors.putIfAbsent(booking.getMentor().getId(), booking.getMentor());
+                        Mentors classMentor = booking.getGroup().getAClass().getMentor();
+                        if (classMentor != null) {
+                            mentors.putIfAbsent(classMentor.getId(), classMentor);
                         }
                     }
+                    groupRepository.fetchStudents(groups.values());
+                    mentorsRepository.fetchSkills(mentors.values());
+                    mentorsRepository.fetchAssignedClasses(mentors.values());
                 }
-                response.setBookingDTOList(allBookings);
+
+                response.setBookingDTOList(Converter.convertBookingListToBookingDTOList(bookings));
                 response.setStatusCode(200);
                 response.setMessage("Successfully");
             } else {
@@ -695,119 +754,49 @@ public class BookingService {
         return response;
     }
 
-    @Scheduled(fixedRate = 60000)
+    /**
+     * Apply the deadline transition of a booking, called by the booking expiry
+     * wheel. Bookings that have been handled in the meantime are left as is.
+     *
+     * @param bookingId the booking that has reached a deadline
+     */
     @Transactional
-    public void setBookingAvailableStatusAndStatusAutomatically() {
-        try {
-            List<Booking> bookingList;
-
-            //Check if the pending bookings are at the expired time
-            bookingList = bookingRepository.findAllByStatusAndExpiredTimeBefore(BookingStatus.PENDING, LocalDateTime.now());
-            if (!bookingList.isEmpty()) {
-                for (Booking booking : bookingList) {
-                    booking.setStatus(BookingStatus.REJECTED);
-                    booking.setAvailableStatus(AvailableStatus.INACTIVE);
-                    booking.setDateUpdated(LocalDateTime.now());
-                    booking.setExpiredTime(null);
-                    PointHistory pointHistory;
-
-                    List<PointHistory> pointHistoryList;
-
-                    List<Students> groupMembers = booking.getGroup().getStudents();
-
-                    Group group = groupRepository.findByIdAndAvailableStatus(booking.getGroup().getId(), AvailableStatus.ACTIVE);
-                    group.setStudents(groupMembers);
-                    group.setTotalPoint(group.getTotalPoint() + booking.getPointPay());
-
-                    int newPoint = group.getTotalPoint() / groupMembers.size();
-
-                    for (Students member : groupMembers) {
-                        int adjustedPoint = newPoint - member.getPoint();
-                        member.setPoint(newPoint);
-                        pointHistory = new PointHistory();
-                        pointHistory.setStatus(PointHistoryStatus.ADJUSTED);
-                        pointHistory.setAvailableStatus(AvailableStatus.ACTIVE);
-                        pointHistory.setStudent(member);
-                        pointHistory.setDateCreated(LocalDateTime.now());
-                        pointHistory.setDateUpdated(LocalDateTime.now());
-                        pointHistory.setPoint(adjustedPoint);
-                        pointHistory.setBooking(booking);
-                        pointHistoryRepository.save(pointHistory);
-
-                        if (member.getPointHistories() == null) {
-                            pointHistoryList = new ArrayList<>();
-                        } else {
-                            pointHistoryList = member.getPointHistories();
-                        }
-                        pointHistoryList.add(pointHistory);
-                        member.setPointHistories(pointHistoryList);
-                    }
-                    groupRepository.save(group);
-
-                    bookingRepository.save(booking);
-                }
-            }
-
-            //Check if the booking is not accepted by mentor before the meeting start time
-            bookingList = bookingRepository.findAllByStatusAndAvailableFromBefore(BookingStatus.PENDING, LocalDateTime.now());
-            if (!bookingList.isEmpty()) {
-                for (Booking booking : bookingList) {
-                    booking.setStatus(BookingStatus.REJECTED);
-                    booking.setAvailableStatus(AvailableStatus.INACTIVE);
-                    booking.setDateUpdated(LocalDateTime.now());
-                    booking.setExpiredTime(null);
-
-                    PointHistory pointHistory;
-
-                    List<PointHistory> pointHistoryList;
-
-                    List<Students> groupMembers = booking.getGroup().getStudents();
-
-                    Group group = groupRepository.findByIdAndAvailableStatus(booking.getGroup().getId(), AvailableStatus.ACTIVE);
-                    group.setStudents(groupMembers);
-                    group.setTotalPoint(group.getTotalPoint() + booking.getPointPay());
-
-                    int newPoint = group.getTotalPoint() / groupMembers.size();
-
-                    for (Students member : groupMembers) {
-                        int adjustedPoint = newPoint - member.getPoint();
-                        member.setPoint(newPoint);
-                        pointHistory = new PointHistory();
-                        pointHistory.setStatus(PointHistoryStatus.ADJUSTED);
-                        pointHistory.setAvailableStatus(AvailableStatus.ACTIVE);
-                        pointHistory.setStudent(member);
-                        pointHistory.setDateCreated(LocalDateTime.now());
-                        pointHistory.setDateUpdated(LocalDateTime.now());
-                        pointHistory.setPoint(adjustedPoint);
-                        pointHistory.setBooking(booking);
-                        pointHistoryRepository.save(pointHistory);
-
-                        if (member.getPointHistories() == null) {
-                            pointHistoryList = new ArrayList<>();
-                        } else {
-                            pointHistoryList = member.getPointHistories();
-                        }
-                        pointHistoryList.add(pointHistory);
-                        member.setPointHistories(pointHistoryList);
-                    }
-                    groupRepository.save(group);
-                    bookingRepository.save(booking);
-                }
-            }
+    public void expireBooking(Long bookingId) {
+        Booking booking = bookingRepository.findByIdAndAvailableStatus(bookingId, AvailableStatus.ACTIVE);
+        if (booking == null) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        boolean started = booking.getMentorSchedule().getAvailableFrom().isBefore(now);
+
+        //Check if the pending booking is at the expired time or is not accepted by mentor before the meeting start time
+        if (booking.getStatus() == BookingStatus.PENDING
+                && (started || (booking.getExpiredTime() != null && booking.getExpiredTime().isBefore(now)))) {
+            booking.setStatus(BookingStatus.REJECTED);
+            booking.setAvailableStatus(AvailableStatus.INACTIVE);
+            booking.setDateUpdated(now);
+            booking.setExpiredTime(null);
+
+            Group group = groupRepository.findByIdAndAvailableStatus(booking.getGroup().getId(), AvailableStatus.ACTIVE);
+            pointLedgerService.refund(group, booking);
+            bookingRepository.save(booking);
+            bookingViewService.refresh(List.of(booking.getId()));
+            return;
+        }
 
-            //Set confirmed active bookings to inactive (The meeting has been started)
-            bookingList = bookingRepository.findAllByStatusAndAvailableFromBefore(BookingStatus.CONFIRMED, LocalDateTime.now());
-            if (!bookingList.isEmpty()) {
-                for (Booking booking : bookingList) {
-                    booking.setAvailableStatus(AvailableStatus.INACTIVE);
-                    booking.setDateUpdated(LocalDateTime.now());
-                    booking.setExpiredTime(null);
-                    bookingRepository.save(booking);
-                }
-            }
+        //Set confirmed active booking to inactive (The meeting has been started)
+        if (booking.getStatus() == BookingStatus.CONFIRMED && started) {
+            booking.setAvailableStatus(AvailableStatus.INACTIVE);
+            booking.setDateUpdated(now);
+            booking.setExpiredTime(null);
+            bookingRepository.save(booking);
+            bookingViewService.refresh(List.of(booking.getId()));
+            return;
+        }
 
-        } catch (Exception e) {
-            System.out.println("Error while setting booking status automatically: " + e.getMessage());
+        //Not due yet (the schedule has been moved), wait for the new deadline
+        if (booking.getStatus() == BookingStatus.PENDING || booking.getStatus() == BookingStatus.CONFIRMED) {
+            bookingExpiryService.register(booking);
         }
     }
 }
@@ -0,0 +1,170 @@
+package com.project.service;
+
+import com.project.dto.BookingViewDTO;
+import com.project.dto.Response;
+import com.project.enums.AvailableStatus;
+import com.project.enums.BookingStatus;
+import com.project.model.BookingView;
+import com.project.repository.BookingViewRepository;
+import com.project.ultis.Converter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Maintains the booking_view table and serves the compact booking lists.
+ *
+ * A row is recomputed from booking, group_table, class, mentors, users and
+ * mentor_schedule with one REPLACE ... SELECT, so a refresh costs one
+ * statement whatever the number of bookings changed. Every writer of a joined
+ * column refreshes the rows it touches, a full rebuild runs every hour.
+ */
+@Service
+public class BookingViewService {
+
+    private static final long REBUILD_INTERVAL_MS = 60 * 60 * 1000;
+
+    private static final String REFRESH_SQL
+            = "REPLACE INTO booking_view (booking_id, status, available_status, point_pay, date_created, date_updated, expired_time, "
+            + "group_id, group_name, class_id, class_name, semester_id, mentor_id, mentor_code, mentor_name, "
+            + "mentor_schedule_id, available_from, available_to) "
+            + "SELECT b.id, b.status, b.available_status, b.point_pay, b.date_created, b.date_updated, b.expired_time, "
+            + "g.id, g.group_name, c.id, c.class_name, c.semester_id, m.id, m.mentor_code, u.full_name, "
+            + "ms.id, ms.available_from, ms.available_to "
+            + "FROM booking b "
+            + "LEFT JOIN group_table g ON g.id = b.group_id "
+            + "LEFT JOIN class c ON c.id = g.class_id "
+            + "LEFT JOIN mentors m ON m.id = b.mentor_id "
+            + "LEFT JOIN users u ON u.id = m.user_id "
+            + "LEFT JOIN mentor_schedule ms ON ms.id = b.mentor_schedule_id ";
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private BookingViewRepository bookingViewRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Rewrite the view rows of the given bookings
+     *
+     * @param bookingIds changed bookings
+     */
+    @Transactional
+    public void refresh(Collection<Long> bookingIds) {
+        if (bookingIds.isEmpty()) {
+            return;
+        }
+        refreshWhere("b.id IN (:ids)", Map.of("ids", bookingIds));
+    }
+
+    /**
+     * Rewrite the view rows of every booking of a group (group renamed or
+     * several of its bookings changed at once)
+     *
+     * @param groupId the group
+     */
+    @Transactional
+    public void refreshGroup(Long groupId) {
+        refreshWhere("b.group_id = :groupId", Map.of("groupId", groupId));
+    }
+
+    /**
+     * Rewrite the view rows of the bookings of a class (renamed or moved to
+     * another semester)
+     */
+    @Transactional
+    public void refreshClass(Long classId) {
+        refreshWhere("g.class_id = :classId", Map.of("classId", classId));
+    }
+
+    /**
+     * Rewrite the view rows of the bookings of a mentor (code or name changed)
+     */
+    @Transactional
+    public void refreshMentor(Long mentorId) {
+        refreshWhere("b.mentor_id = :mentorId", Map.of("mentorId", mentorId));
+    }
+
+    /**
+     * Rewrite the view rows of the bookings of a mentor schedule (moved)
+     */
+    @Transactional
+    public void refreshMentorSchedule(Long mentorScheduleId) {
+        refreshWhere("b.mentor_schedule_id = :mentorScheduleId", Map.of("mentorScheduleId", mentorScheduleId));
+    }
+
+    /**
+     * Rebuild every row on startup and every hour, which also repairs rows
+     * changed by a writer that does not refresh them
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelay = REBUILD_INTERVAL_MS, fixedDelay = REBUILD_INTERVAL_MS)
+    @Transactional
+    public void rebuild() {
+        try {
+            int rows = namedParameterJdbcTemplate.update(REFRESH_SQL, Map.of());
+            System.out.println("Booking view rebuilt with " + rows + " rows.");
+        } catch (Exception e) {
+            System.out.println("Error while rebuilding booking view: " + e.getMessage());
+        }
+    }
+
+    //Errors are left to the caller, the change that made the row stale is rolled back with it
+    private void refreshWhere(String condition, Map<String, ?> params) {
+        //The view is read from the tables, pending entity changes have to be written first
+        entityManager.flush();
+        namedParameterJdbcTemplate.update(REFRESH_SQL + "WHERE " + condition, params);
+    }
+
+    public Response getBookingViewsByAvailableStatus(AvailableStatus availableStatus) {
+        return toResponse(() -> bookingViewRepository.findByAvailableStatusOrderByDateCreatedDesc(availableStatus));
+    }
+
+    public Response getBookingViewsByStatus(BookingStatus status) {
+        return toResponse(() -> bookingViewRepository.findByStatusOrderByDateCreatedDesc(status));
+    }
+
+    public Response getBookingViewsInClass(Long classId) {
+        return toResponse(() -> bookingViewRepository.findByClassIdAndAvailableStatusNotOrderByDateCreatedDesc(classId, AvailableStatus.DELETED));
+    }
+
+    private Response toResponse(Supplier<List<BookingView>> query) {
+        Response response = new Response();
+        try {
+            List<BookingView> bookingViewList = query.get();
+            List<BookingViewDTO> bookingViewDTOList = new ArrayList<>();
+            if (!bookingViewList.isEmpty()) {
+                bookingViewDTOList = bookingViewList.stream()
+                        .map(Converter::convertBookingViewToBookingViewDTO)
+                        .collect(Collectors.toList());
+
+                response.setBookingViewDTOList(bookingViewDTOList);
+                response.setStatusCode(200);
+                response.setMessage("Bookings fetched successfully");
+            } else {
+                response.setBookingViewDTOList(bookingViewDTOList);
+                response.setStatusCode(400);
+                response.setMessage("Cannot find any booking");
+            }
+        } catch (Exception e) {
+            response.setStatusCode(500);
+            response.setMessage("Error occurred during get all bookings: " + e.getMessage());
+        }
+        return response;
+    }
+}
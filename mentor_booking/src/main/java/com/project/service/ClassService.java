@@ -40,6 +40,9 @@ public class ClassService {
     @Autowired
     private GroupRepository groupRepository;
 
+    @Autowired
+    private BookingViewService bookingViewService;
+
     /**
      *  Phương thức tạo lớp học mới
      */
@@ -258,6 +261,7 @@ public class ClassService {
             if (newClass.getMentor() != null) presentClass.setMentor(mentor);
 
             classRepository.save(presentClass);
+            bookingViewService.refreshClass(presentClass.getId());
             ClassDTO dto = Converter.convertClassToClassDTO(presentClass);
             response.setClassDTO(dto);
             response.setStatusCode(200);
@@ -0,0 +1,278 @@
+package com.project.service;
+
+import com.project.enums.EmailStatus;
+import com.project.model.EmailOutboxMessage;
+import com.project.repository.EmailOutboxRepository;
+import com.project.ultis.TransactionHooks;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.AddressException;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Emails are written to the email_outbox table with the caller's transaction
+ * and sent later by a background dispatcher, so no request waits on SMTP and
+ * a mail is only sent if what it announces was committed.
+ *
+ * The dispatcher wakes up after each commit that queued mail, and every few
+ * seconds for retries. It sends the due mails in batches, each batch over one
+ * SMTP connection, and mails of a batch with the same subject and body (a
+ * notification to several people) as one message with the recipients in Bcc.
+ * A mail that fails is retried alone with an exponential backoff and marked
+ * FAILED after MAX_ATTEMPTS; the status, attempts and last error stay on the
+ * row. The dispatcher runs in a single thread of one instance.
+ *
+ * A body can hold a generated password or an OTP, so it is cleared as soon as
+ * the mail is SENT or FAILED. Finished rows are deleted after
+ * email.outbox.retention-days.
+ */
+@Service
+public class EmailOutbox {
+
+    private static final int MAX_ATTEMPTS = 6;
+
+    private static final long FIRST_RETRY_SECONDS = 30;
+    private static final long MAX_RETRY_SECONDS = 60 * 60;
+
+    private static final String INSERT_MAIL
+            = "INSERT INTO email_outbox (recipient, subject, body, status, attempts, next_attempt_at, date_created) "
+            + "VALUES (?, ?, ?, ?, 0, ?, ?)";
+
+    /**
+     * A rendered mail to queue
+     */
+    public record Mail(String recipient, String subject, String body) {
+    }
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private JavaMailSender javaMailSender;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${spring.mail.username}")
+    private String sender;
+
+    @Value("${email.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${email.outbox.retention-days:7}")
+    private int retentionDays;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ThreadPoolExecutor dispatcher = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(1), runnable -> {
+        Thread thread = new Thread(runnable, "email-outbox");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    //Set while a drain is queued and has not started reading yet
+    private final AtomicBoolean drainQueued = new AtomicBoolean();
+
+    public EmailOutbox(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public void enqueue(Mail mail) {
+        enqueueAll(List.of(mail));
+    }
+
+    /**
+     * Write the mails with the current transaction (one JDBC batch), they
+     * are sent once it commits
+     */
+    public void enqueueAll(List<Mail> mails) {
+        if (mails.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_MAIL, mails, mails.size(), (ps, mail) -> {
+            ps.setString(1, mail.recipient());
+            ps.setString(2, mail.subject());
+            ps.setString(3, mail.body());
+            ps.setString(4, EmailStatus.PENDING.name());
+            ps.setTimestamp(5, now);
+            ps.setTimestamp(6, now);
+        });
+        TransactionHooks.afterCommit(this::wakeUp);
+    }
+
+    /**
+     * Start a drain unless one is already waiting to start
+     */
+    @Scheduled(initialDelay = 5000, fixedDelay = 5000)
+    public void wakeUp() {
+        if (!drainQueued.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            dispatcher.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            drainQueued.set(false);
+        }
+    }
+
+    private void drain() {
+        //Cleared before reading, a mail committed from now on triggers another drain
+        drainQueued.set(false);
+        try {
+            List<EmailOutboxMessage> batch;
+            do {
+                batch = emailOutboxRepository.findDue(EmailStatus.PENDING, LocalDateTime.now(), PageRequest.of(0, batchSize));
+                if (!batch.isEmpty()) {
+                    sendBatch(batch);
+                }
+            } while (batch.size() == batchSize);
+        } catch (Exception e) {
+            System.out.println("Error while sending queued emails: " + e.getMessage());
+        }
+    }
+
+    private void sendBatch(List<EmailOutboxMessage> batch) {
+        //Mails with the same subject and body go out as one message; a retry is sent alone
+        Map<String, List<EmailOutboxMessage>> groups = new LinkedHashMap<>();
+        for (EmailOutboxMessage row : batch) {
+            try {
+                new InternetAddress(row.getRecipient(), true);
+            } catch (AddressException e) {
+                //The address is invalid, sending again will not help
+                row.setAttempts(row.getAttempts() + 1);
+                finish(row, EmailStatus.FAILED);
+                row.setLastError(truncate(e.getMessage()));
+                continue;
+            }
+            String key = row.getAttempts() == 0 ? row.getSubject() + '\u0000' + row.getBody() : "retry:" + row.getId();
+            groups.computeIfAbsent(key, k -> new ArrayList<>()).add(row);
+        }
+
+        Map<MimeMessage, List<EmailOutboxMessage>> rows = new IdentityHashMap<>();
+        List<MimeMessage> messages = new ArrayList<>(groups.size());
+        for (List<EmailOutboxMessage> group : groups.values()) {
+            EmailOutboxMessage first = group.get(0);
+            try {
+                MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+                MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, "UTF-8");
+                helper.setFrom(sender);
+                if (group.size() == 1) {
+                    helper.setTo(first.getRecipient());
+                } else {
+                    //Recipients do not see each other
+                    helper.setTo(sender);
+                    helper.setBcc(group.stream().map(EmailOutboxMessage::getRecipient).toArray(String[]::new));
+                }
+                helper.setSubject(first.getSubject());
+                helper.setText(first.getBody(), true);
+                messages.add(mimeMessage);
+                rows.put(mimeMessage, group);
+            } catch (MessagingException e) {
+                for (EmailOutboxMessage row : group) {
+                    row.setAttempts(row.getAttempts() + 1);
+                    finish(row, EmailStatus.FAILED);
+                    row.setLastError(truncate(e.getMessage()));
+                }
+            }
+        }
+
+        Map<Object, Exception> failed = Map.of();
+        Exception batchError = null;
+        if (!messages.isEmpty()) {
+            try {
+                //One connection for the whole batch
+                javaMailSender.send(messages.toArray(new MimeMessage[0]));
+            } catch (MailSendException e) {
+                failed = e.getFailedMessages();
+                batchError = failed.isEmpty() ? e : null;
+            } catch (MailException e) {
+                batchError = e;
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (Map.Entry<MimeMessage, List<EmailOutboxMessage>> entry : rows.entrySet()) {
+            Exception error = batchError != null ? batchError : failed.get(entry.getKey());
+            for (EmailOutboxMessage row : entry.getValue()) {
+                row.setAttempts(row.getAttempts() + 1);
+                if (error == null) {
+                    finish(row, EmailStatus.SENT);
+                    row.setDateSent(now);
+                    row.setLastError(null);
+                } else if (row.getAttempts() >= MAX_ATTEMPTS) {
+                    finish(row, EmailStatus.FAILED);
+                    row.setLastError(truncate(error.getMessage()));
+                } else {
+                    long delay = Math.min(FIRST_RETRY_SECONDS << (row.getAttempts() - 1), MAX_RETRY_SECONDS);
+                    row.setNextAttemptAt(now.plusSeconds(delay));
+                    row.setLastError(truncate(error.getMessage()));
+                }
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> emailOutboxRepository.saveAll(batch));
+
+        long sent = batch.stream().filter(row -> row.getStatus() == EmailStatus.SENT).count();
+        if (sent < batch.size()) {
+            System.out.println("Email outbox: " + sent + " of " + batch.size() + " emails sent, the others will be retried or are failed.");
+        }
+    }
+
+    private static void finish(EmailOutboxMessage row, EmailStatus status) {
+        row.setStatus(status);
+        row.setBody(null);
+    }
+
+    /**
+     * Clear the bodies left on finished rows (e.g. written before they were
+     * cleared on send) and delete the finished rows past the retention
+     */
+    @Scheduled(initialDelay = 60000, fixedDelay = 60 * 60 * 1000)
+    public void purgeFinished() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                emailOutboxRepository.clearFinishedBodies(EmailStatus.PENDING);
+                emailOutboxRepository.deleteFinishedBefore(EmailStatus.PENDING, LocalDateTime.now().minusDays(retentionDays));
+            });
+        } catch (Exception e) {
+            System.out.println("Error while purging sent emails: " + e.getMessage());
+        }
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() <= 1000 ? message : message.substring(0, 1000);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdown();
+    }
+}
@@ -2,13 +2,15 @@ package com.project.service;
 
 import com.project.dto.EmailRequest;
 import com.project.dto.Response;
+import com.project.enums.NoficationType;
 import com.project.exception.OurException;
 import com.project.repository.GroupRepository;
 import com.project.repository.UsersRepository;
 import com.project.ultis.JWTUtils;
-import com.project.ultis.Ultis;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
+import java.util.ArrayList;
+import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.javamail.JavaMailSender;
@@ -37,6 +39,12 @@ public class EmailServiceImpl {
     @Autowired
     private GroupRepository groupRepository;
 
+    @Autowired
+    private EmailOutbox emailOutbox;
+
+    @Autowired
+    private EmailTemplates emailTemplates;
+
     @Value("${spring.mail.username}")
     private String sender;
 
@@ -55,16 +63,7 @@ public class EmailServiceImpl {
             helper.setSubject(emailRequest.getSubject());
 
             // Nội dung HTML của email
-            String htmlContent = "<div style='text-align: center; font-family: Arial, sans-serif; padding: 20px; background-color: #f9f9f9; border-radius: 5px;'>" +
-                    "<h1 style='color: #FFBF00;'>Thông báo mới</h1>" +
-                    "<p style='font-size: 16px; color: #333;'>" + emailRequest.getMsgBody() + "</p>" +
-                    "<p style='font-size: 14px; color: #888;'>Mentor Booking</p>" +
-                    "<footer style='margin-top: 30px; font-size: 12px; color: #aaa;'>" +
-                    "<p>&copy; " + 2024 + " Booking Mentor System | SWP391-Group 99+.</p>" +
-                    "</footer>" +
-                    "</div>";
-
-            helper.setText(htmlContent, true); // true để gửi dưới dạng HTML
+            helper.setText(htmlMailContent(emailRequest.getMsgBody()), true); // true để gửi dưới dạng HTML
 
             // Gửi email
             javaMailSender.send(mimeMessage);
@@ -95,16 +94,7 @@ public class EmailServiceImpl {
             helper.setTo(emailRequest.getRecipient());
             helper.setSubject(emailRequest.getSubject());
 
-            String htmlContent = "<div style='text-align: center; font-family: Arial, sans-serif; padding: 20px; background-color: #f9f9f9; border-radius: 5px;'>" +
-                    "<h1 style='color: #FFBF00;'>Mã OTP Của Bạn</h1>" +
-                    "<p style='font-size: 16px; color: #333;'>" + emailRequest.getMsgBody() + "</p>" +
-                    "<p style='font-size: 14px; color: #888;'>Mentor Booking</p>" +
-                    "<footer style='margin-top: 30px; font-size: 12px; color: #aaa;'>" +
-                    "<p>&copy; " + 2024 + " Booking Mentor System | SWP391-Group 99+.</p>" +
-                    "</footer>" +
-                    "</div>";
-
-            helper.setText(htmlContent, true); // true để gửi dưới dạng HTML
+            helper.setText(otpMailContent(emailRequest.getMsgBody()), true); // true để gửi dưới dạng HTML
 
             // Gửi email
             javaMailSender.send(mimeMessage);
@@ -121,16 +111,51 @@ public class EmailServiceImpl {
         }
     }
 
-    public String sendPasswordCreateUser(String email, String username){
-        String password = Ultis.generateRandomString();
-        // tạo mail
+    /**
+     * Phương thức đưa email dạng HTML vào hàng đợi, gửi sau khi giao dịch hiện tại được lưu
+     */
+    public void queueHtmlMail(EmailRequest emailRequest) {
+        queueHtmlMails(List.of(emailRequest));
+    }
+
+    public void queueHtmlMails(List<EmailRequest> emailRequests) {
+        List<EmailOutbox.Mail> mails = new ArrayList<>(emailRequests.size());
+        for (EmailRequest emailRequest : emailRequests) {
+            mails.add(new EmailOutbox.Mail(emailRequest.getRecipient(), emailRequest.getSubject(), htmlMailContent(emailRequest.getMsgBody())));
+        }
+        emailOutbox.enqueueAll(mails);
+    }
 
+    /**
+     * Phương thức đưa email thông báo vào hàng đợi, với mẫu của loại thông báo
+     */
+    public void queueNotificationMail(NoficationType type, EmailRequest emailRequest) {
+        emailOutbox.enqueue(new EmailOutbox.Mail(emailRequest.getRecipient(), emailRequest.getSubject(), emailTemplates.renderNotification(type, emailRequest.getMsgBody())));
+    }
+
+    /**
+     * Phương thức đưa email OTP vào hàng đợi
+     */
+    public void queueOTP(EmailRequest emailRequest) {
+        emailOutbox.enqueue(new EmailOutbox.Mail(emailRequest.getRecipient(), emailRequest.getSubject(), otpMailContent(emailRequest.getMsgBody())));
+    }
+
+    /**
+     * Mail with the password of a new account
+     */
+    public EmailRequest createPasswordEmail(String email, String username, String password){
         EmailRequest emailRequest = new EmailRequest();
         emailRequest.setRecipient(email);
         emailRequest.setMsgBody(username + " " +password);
         emailRequest.setSubject("PASSWORD");
-        sendHtmlMail(emailRequest);
+        return emailRequest;
+    }
+
+    private String htmlMailContent(String msgBody) {
+        return emailTemplates.renderNotification(msgBody);
+    }
 
-        return password;
+    private String otpMailContent(String msgBody) {
+        return emailTemplates.renderOTP(msgBody);
     }
 }
@@ -0,0 +1,65 @@
+package com.project.service;
+
+import com.project.enums.NoficationType;
+import com.project.ultis.MailTemplate;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Service;
+
+/**
+ * Mail templates of classpath:mail, compiled once when the application starts.
+ *
+ * Each template is the content of a mail placed inside mail/layout.html, the
+ * layout is merged in before compiling so rendering is a single pass. A
+ * notification uses mail/notification-{type}.html when there is one for its
+ * type, mail/notification.html otherwise.
+ */
+@Service
+public class EmailTemplates {
+
+    private final MailTemplate notification;
+    private final MailTemplate otp;
+    private final Map<NoficationType, MailTemplate> notificationByType = new EnumMap<>(NoficationType.class);
+
+    public EmailTemplates() throws IOException {
+        String layout = read("mail/layout.html");
+        notification = compile(layout, "mail/notification.html");
+        otp = compile(layout, "mail/otp.html");
+        for (NoficationType type : NoficationType.values()) {
+            String path = "mail/notification-" + type.name().toLowerCase(Locale.ROOT) + ".html";
+            notificationByType.put(type, new ClassPathResource(path).exists() ? compile(layout, path) : notification);
+        }
+    }
+
+    public String renderNotification(String message) {
+        return notification.render(Map.of("message", nullToEmpty(message)));
+    }
+
+    public String renderNotification(NoficationType type, String message) {
+        MailTemplate template = type == null ? notification : notificationByType.get(type);
+        return template.render(Map.of("message", nullToEmpty(message)));
+    }
+
+    public String renderOTP(String otpMessage) {
+        return otp.render(Map.of("message", nullToEmpty(otpMessage)));
+    }
+
+    private static MailTemplate compile(String layout, String path) throws IOException {
+        return MailTemplate.compile(layout.replace("{{{content}}}", read(path)));
+    }
+
+    private static String read(String path) throws IOException {
+        try (InputStream is = new ClassPathResource(path).getInputStream()) {
+            return new String(is.readAllBytes(), StandardCharsets.UTF_8).strip();
+        }
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
@@ -41,6 +41,12 @@ public class GroupService {
     @Autowired
     private SemesterRepository semesterRepository;
 
+    @Autowired
+    private BookingViewService bookingViewService;
+
+    @Autowired
+    private NameSearchIndex nameSearchIndex;
+
     public Response createGroup(GroupDTO inputRequest) {
         Response response = new Response();
         try {
@@ -148,6 +154,7 @@ public class GroupService {
             presentGroup.setDateUpdated(LocalDate.now());
 
             groupRepository.save(presentGroup);
+            bookingViewService.refreshGroup(presentGroup.getId());
 
             GroupDTO dto = Converter.convertGroupToGroupDTO(presentGroup);
             response.setGroupDTO(dto);
@@ -285,12 +292,13 @@ public class GroupService {
 
             if (findClass != null && !findClass.isEmpty()) {
                 List<GroupDTO> allGroups = new ArrayList<>();
+                List<Long> groupIds = (name == null || name.isEmpty()) ? null : nameSearchIndex.findGroupIds(name);
                 for (Class c : findClass) {
                     List<Group> groups;
                     if(name ==null || name.isEmpty()){
                         groups = groupRepository.findGroupsByClassIdAndExcludeDeleted(c.getId(), AvailableStatus.DELETED);
                     }else{
-                        groups = groupRepository.findGroupsByClassAndGroupName(c.getId(), name, AvailableStatus.DELETED);
+                        groups = groupRepository.findGroupsByClassAndIds(c.getId(), groupIds, AvailableStatus.DELETED);
                     }
 
                     if (groups != null && !groups.isEmpty()) {
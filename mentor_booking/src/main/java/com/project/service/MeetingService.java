@@ -42,6 +42,9 @@ public class MeetingService {
     @Autowired
     private MeetingRepository meetingRepository;
 
+    @Autowired
+    private MentorLeaderboard mentorLeaderboard;
+
     private String createGoogleMeetEvent(Long bookingId) {
         String meetUrl = "";
         try {
@@ -111,6 +114,7 @@ public class MeetingService {
             meeting.setReviews(new ArrayList<>());
             
             meetingRepository.save(meeting);
+            mentorLeaderboard.meetingCreated(booking.getMentor().getId());
             
             if (meeting.getId() > 0) {
                 MeetingDTO dto = Converter.convertMeetingToMeetingDTO(meeting);
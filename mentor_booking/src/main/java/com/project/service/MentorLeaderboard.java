@@ -0,0 +1,162 @@
+package com.project.service;
+
+import com.project.ultis.TransactionHooks;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Ranking of the active mentors by star, then number of bookings, then number
+ * of meetings (every row whatever its status, the same order as the former
+ * findTopMentors query), kept in memory for the top mentors of the home page.
+ *
+ * Every mentor is an entry of a sorted set. When a mentor changes (booking or
+ * meeting created, star changed) the stored counters are adjusted by the
+ * change and only the star and status are read again, then the entry is
+ * moved. Bookings and meetings are never deleted, so accepting, cancelling or
+ * completing them does not change the counters. The counting query only runs for a mentor
+ * that has no entry yet. The first entries are copied to an immutable list
+ * after each change, so reading the top k is O(k) and never locks. The whole
+ * ranking is rebuilt at startup and every few minutes, which also corrects
+ * any counter that drifted.
+ */
+@Service
+public class MentorLeaderboard {
+
+    private static final long REBUILD_INTERVAL_MS = 10 * 60 * 1000;
+
+    //Longest top list that can be read
+    private static final int TOP_SIZE = 20;
+
+    private static final String MENTORS_SQL
+            = "SELECT m.id, m.star, "
+            + "(SELECT COUNT(*) FROM booking b WHERE b.mentor_id = m.id), "
+            + "(SELECT COUNT(*) FROM meeting mt JOIN booking b ON b.id = mt.booking_id WHERE b.mentor_id = m.id) "
+            + "FROM mentors m WHERE m.available_status = 'ACTIVE'";
+
+    private static final String STAR_SQL
+            = "SELECT star FROM mentors WHERE id = ? AND available_status = 'ACTIVE'";
+
+    private static final Comparator<Entry> RANKING = Comparator
+            .comparingDouble(Entry::star).reversed()
+            .thenComparing(Comparator.comparingLong(Entry::bookings).reversed())
+            .thenComparing(Comparator.comparingLong(Entry::meetings).reversed())
+            .thenComparingLong(Entry::mentorId);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ConcurrentSkipListSet<Entry> ranking = new ConcurrentSkipListSet<>(RANKING);
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    private volatile List<Long> top = List.of();
+
+    /**
+     * Ids of the best ranked mentors, best first
+     *
+     * @param size at most TOP_SIZE
+     */
+    public List<Long> topMentorIds(int size) {
+        List<Long> current = top;
+        return current.subList(0, Math.min(size, current.size()));
+    }
+
+    /**
+     * Read the mentor's star and status again once the transaction commits
+     */
+    public void mentorChanged(Long mentorId) {
+        TransactionHooks.afterCommit(() -> refreshMentor(mentorId, 0, 0));
+    }
+
+    /**
+     * One more booking for the mentor once the transaction commits
+     */
+    public void bookingCreated(Long mentorId) {
+        TransactionHooks.afterCommit(() -> refreshMentor(mentorId, 1, 0));
+    }
+
+    /**
+     * One more meeting for the mentor once the transaction commits
+     */
+    public void meetingCreated(Long mentorId) {
+        TransactionHooks.afterCommit(() -> refreshMentor(mentorId, 0, 1));
+    }
+
+    /**
+     * Rebuild everything once the transaction commits (stars of every mentor reset)
+     */
+    public void allChanged() {
+        TransactionHooks.afterCommit(this::rebuild);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelay = REBUILD_INTERVAL_MS, fixedRate = REBUILD_INTERVAL_MS)
+    public synchronized void rebuild() {
+        try {
+            List<Entry> loaded = jdbcTemplate.query(MENTORS_SQL, (rs, rowNum) -> new Entry(rs.getLong(1), rs.getFloat(2), rs.getLong(3), rs.getLong(4)));
+            ranking.clear();
+            entries.clear();
+            for (Entry entry : loaded) {
+                ranking.add(entry);
+                entries.put(entry.mentorId(), entry);
+            }
+            publishTop();
+            System.out.println("Mentor leaderboard rebuilt with " + loaded.size() + " mentors.");
+        } catch (Exception e) {
+            System.out.println("Error while rebuilding mentor leaderboard: " + e.getMessage());
+        }
+    }
+
+    private synchronized void refreshMentor(Long mentorId, int bookingChange, int meetingChange) {
+        try {
+            Entry old = entries.get(mentorId);
+            Entry next = null;
+            if (old == null) {
+                //Not ranked yet (new or reactivated mentor), the counters are unknown
+                List<Entry> loaded = jdbcTemplate.query(MENTORS_SQL + " AND m.id = ?",
+                        (rs, rowNum) -> new Entry(rs.getLong(1), rs.getFloat(2), rs.getLong(3), rs.getLong(4)), mentorId);
+                if (!loaded.isEmpty()) {
+                    next = loaded.get(0);
+                }
+            } else {
+                List<Float> star = jdbcTemplate.queryForList(STAR_SQL, Float.class, mentorId);
+                if (!star.isEmpty()) {
+                    next = new Entry(mentorId, star.get(0),
+                            Math.max(0, old.bookings() + bookingChange), Math.max(0, old.meetings() + meetingChange));
+                }
+                entries.remove(mentorId);
+                ranking.remove(old);
+            }
+            if (next != null) {
+                ranking.add(next);
+                entries.put(mentorId, next);
+            }
+            publishTop();
+        } catch (Exception e) {
+            System.out.println("Error while refreshing mentor leaderboard: " + e.getMessage());
+        }
+    }
+
+    private void publishTop() {
+        List<Long> next = new ArrayList<>(TOP_SIZE);
+        for (Entry entry : ranking) {
+            if (next.size() == TOP_SIZE) {
+                break;
+            }
+            next.add(entry.mentorId());
+        }
+        top = List.copyOf(next);
+    }
+
+    private record Entry(long mentorId, float star, long bookings, long meetings) {
+    }
+}
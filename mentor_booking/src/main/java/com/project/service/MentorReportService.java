@@ -0,0 +1,270 @@
+package com.project.service;
+
+import com.project.dto.MentorReportProgressDTO;
+import com.project.dto.Response;
+import com.project.enums.MentorReportStatus;
+import com.project.exception.OurException;
+import com.project.model.MentorReportJob;
+import com.project.repository.MentorReportJobRepository;
+import com.project.ultis.TransactionHooks;
+import jakarta.annotation.PreDestroy;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Semester end report of the mentors, generated on a background thread.
+ *
+ * The star and the activity of every active mentor in the semester (confirmed
+ * bookings, completed meetings, reviews received) are read with one aggregate
+ * query, the report rows are written with JDBC batches and the stars are reset
+ * with one UPDATE, all in one transaction.
+ *
+ * The state of each generation is kept in mentor_report_job, written with the
+ * semester update, so it can be read while the job runs and survives a
+ * restart. On startup and with every run of the semester job, each inactive
+ * semester that has no report yet is queued again.
+ */
+@Service
+public class MentorReportService {
+
+    private static final int BATCH_SIZE = 500;
+
+    //A failed report is tried again after this delay
+    private static final long RETRY_FAILED_MINUTES = 10;
+
+    private static final String MENTOR_STATS_SQL
+            = "SELECT m.id, m.star, COALESCE(b.bookings, 0), COALESCE(b.meetings, 0), COALESCE(r.reviews, 0) "
+            + "FROM mentors m "
+            + "LEFT JOIN (SELECT bk.mentor_id, COUNT(DISTINCT bk.id) AS bookings, COUNT(mt.id) AS meetings "
+            + "FROM booking bk "
+            + "JOIN group_table g ON g.id = bk.group_id "
+            + "JOIN class c ON c.id = g.class_id "
+            + "LEFT JOIN meeting mt ON mt.booking_id = bk.id AND mt.status = 'COMPLETED' "
+            + "WHERE c.semester_id = ? AND bk.status = 'CONFIRMED' "
+            + "GROUP BY bk.mentor_id) b ON b.mentor_id = m.id "
+            + "LEFT JOIN (SELECT rv.user_receive_id, COUNT(*) AS reviews "
+            + "FROM reviews rv "
+            + "JOIN meeting mt ON mt.id = rv.meeting_id "
+            + "JOIN booking bk ON bk.id = mt.booking_id "
+            + "JOIN group_table g ON g.id = bk.group_id "
+            + "JOIN class c ON c.id = g.class_id "
+            + "WHERE c.semester_id = ? AND (rv.available_status IS NULL OR rv.available_status <> 'DELETED') "
+            + "GROUP BY rv.user_receive_id) r ON r.user_receive_id = m.user_id "
+            + "WHERE m.available_status = 'ACTIVE'";
+
+    private static final String INSERT_REPORT
+            = "INSERT INTO mentor_reports (mentor_id, semester_id, star_rating, date_created, booking_count, meeting_count, review_count) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String RESET_MENTORS
+            = "UPDATE mentors SET star = 5.0, total_time_remain = 150.0, version = COALESCE(version, 0) + 1 "
+            + "WHERE available_status = 'ACTIVE'";
+
+    private static final String SAVE_JOB
+            = "INSERT INTO mentor_report_job (semester_id, status, total, processed, date_created, started_at) VALUES (?, ?, 0, 0, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE status = VALUES(status), total = 0, processed = 0, message = NULL, "
+            + "started_at = VALUES(started_at), finished_at = NULL";
+
+    //Inactive semesters without report rows, except those done (no active mentor) or failed a moment ago
+    private static final String MISSING_REPORTS_SQL
+            = "SELECT s.id FROM semester s "
+            + "WHERE s.available_status = 'INACTIVE' "
+            + "AND NOT EXISTS (SELECT 1 FROM mentor_reports r WHERE r.semester_id = s.id) "
+            + "AND NOT EXISTS (SELECT 1 FROM mentor_report_job j WHERE j.semester_id = s.id "
+            + "AND (j.status = 'DONE' OR (j.status = 'FAILED' AND j.finished_at > ?))) "
+            + "ORDER BY s.date_end, s.id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MentorReportJobRepository mentorReportJobRepository;
+
+    @Autowired
+    private MentorLeaderboard mentorLeaderboard;
+
+    private final TransactionTemplate transactionTemplate;
+
+    //Progress is committed on its own, so it can be read while the report transaction runs
+    private final TransactionTemplate progressTemplate;
+
+    //One semester at a time, in the order they ended
+    private final ExecutorService worker = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), runnable -> {
+        Thread thread = new Thread(runnable, "mentor-report");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    //Semesters waiting in the worker or running, so none is queued twice
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+
+    public MentorReportService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.progressTemplate = new TransactionTemplate(transactionManager);
+        this.progressTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Record the report of the semester as queued with the current
+     * transaction, and start it once that transaction commits (the job must
+     * see the semester already inactive)
+     */
+    public void generateReport(Long semesterId) {
+        jdbcTemplate.update(SAVE_JOB, semesterId, MentorReportStatus.QUEUED.name(), Timestamp.valueOf(LocalDateTime.now()), null);
+        TransactionHooks.afterCommit(() -> queue(semesterId));
+    }
+
+    /**
+     * Queue every inactive semester whose report was never written, e.g. the
+     * process stopped before the job ran
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void queueMissingReports() {
+        try {
+            List<Long> semesterIds = jdbcTemplate.queryForList(MISSING_REPORTS_SQL, Long.class,
+                    Timestamp.valueOf(LocalDateTime.now().minusMinutes(RETRY_FAILED_MINUTES)));
+            TransactionHooks.afterCommit(() -> semesterIds.forEach(this::queue));
+        } catch (Exception e) {
+            System.out.println("Error while looking for missing mentor reports: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Phương thức lấy tiến độ tạo báo cáo mentor của một học kỳ
+     */
+    public Response getReportProgress(Long semesterId) {
+        Response response = new Response();
+        try {
+            if (semesterId == null) {
+                throw new OurException("Semester ID cannot be null");
+            }
+            MentorReportJob job = mentorReportJobRepository.findById(semesterId)
+                    .orElseThrow(() -> new OurException("No report generation found with semester id: " + semesterId));
+            response.setMentorReportProgressDTO(toDTO(job));
+            response.setStatusCode(200);
+            response.setMessage("Report progress fetched successfully");
+        } catch (OurException e) {
+            response.setStatusCode(400);
+            response.setMessage(e.getMessage());
+        } catch (Exception e) {
+            response.setStatusCode(500);
+            response.setMessage("Error occurred during get report progress: " + e.getMessage());
+        }
+        return response;
+    }
+
+    private void queue(Long semesterId) {
+        if (!queued.add(semesterId)) {
+            return;
+        }
+        worker.execute(() -> {
+            try {
+                run(semesterId);
+            } finally {
+                queued.remove(semesterId);
+            }
+        });
+    }
+
+    private void run(Long semesterId) {
+        try {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            progressTemplate.executeWithoutResult(status -> jdbcTemplate.update(SAVE_JOB, semesterId, MentorReportStatus.RUNNING.name(), now, now));
+            Integer written = transactionTemplate.execute(status -> writeReport(semesterId));
+            mentorLeaderboard.rebuild();
+            System.out.println("Mentor report of semester " + semesterId + " generated with " + written + " mentors.");
+        } catch (Exception e) {
+            String message = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+            System.err.println("Error while generating mentor report of semester " + semesterId + ": " + message);
+            try {
+                progressTemplate.executeWithoutResult(status -> jdbcTemplate.update(
+                        "UPDATE mentor_report_job SET status = ?, message = ?, finished_at = ? WHERE semester_id = ?",
+                        MentorReportStatus.FAILED.name(), message.length() <= 1000 ? message : message.substring(0, 1000),
+                        Timestamp.valueOf(LocalDateTime.now()), semesterId));
+            } catch (Exception ignored) {
+                //Still RUNNING, queued again on the next start
+            }
+        }
+    }
+
+    private int writeReport(Long semesterId) {
+        //A semester only gets one report, the stars were already reset the first time
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM mentor_reports WHERE semester_id = ?", Integer.class, semesterId);
+        if (existing != null && existing > 0) {
+            finishJob(semesterId, existing, "Report already generated");
+            return 0;
+        }
+
+        List<MentorStats> stats = jdbcTemplate.query(MENTOR_STATS_SQL, (rs, rowNum) -> new MentorStats(
+                rs.getLong(1), rs.getFloat(2), rs.getInt(3), rs.getInt(4), rs.getInt(5)), semesterId, semesterId);
+        saveProgress(semesterId, stats.size(), 0);
+
+        Date today = Date.valueOf(LocalDate.now());
+        for (int from = 0; from < stats.size(); from += BATCH_SIZE) {
+            List<MentorStats> chunk = stats.subList(from, Math.min(from + BATCH_SIZE, stats.size()));
+            jdbcTemplate.batchUpdate(INSERT_REPORT, chunk, chunk.size(), (ps, row) -> {
+                ps.setLong(1, row.mentorId());
+                ps.setLong(2, semesterId);
+                ps.setFloat(3, row.star());
+                ps.setDate(4, today);
+                ps.setInt(5, row.bookings());
+                ps.setInt(6, row.meetings());
+                ps.setInt(7, row.reviews());
+            });
+            saveProgress(semesterId, stats.size(), from + chunk.size());
+        }
+
+        jdbcTemplate.update(RESET_MENTORS);
+        //In the report transaction, the job is only DONE if the report and the reset are committed
+        finishJob(semesterId, stats.size(), null);
+        return stats.size();
+    }
+
+    private void saveProgress(Long semesterId, int total, int processed) {
+        progressTemplate.executeWithoutResult(status -> jdbcTemplate.update(
+                "UPDATE mentor_report_job SET total = ?, processed = ? WHERE semester_id = ?", total, processed, semesterId));
+    }
+
+    private void finishJob(Long semesterId, int total, String message) {
+        jdbcTemplate.update("UPDATE mentor_report_job SET status = ?, total = ?, processed = ?, message = ?, finished_at = ? WHERE semester_id = ?",
+                MentorReportStatus.DONE.name(), total, total, message, Timestamp.valueOf(LocalDateTime.now()), semesterId);
+    }
+
+    private static MentorReportProgressDTO toDTO(MentorReportJob job) {
+        MentorReportProgressDTO dto = new MentorReportProgressDTO();
+        dto.setSemesterId(job.getSemesterId());
+        dto.setStatus(job.getStatus() == null ? null : job.getStatus().name());
+        dto.setTotal(job.getTotal());
+        dto.setProcessed(job.getProcessed());
+        dto.setStartedAt(job.getStartedAt());
+        dto.setFinishedAt(job.getFinishedAt());
+        dto.setMessage(job.getMessage());
+        return dto;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdown();
+    }
+
+    private record MentorStats(long mentorId, float star, int bookings, int meetings, int reviews) {
+    }
+}
@@ -1,25 +1,45 @@
 package com.project.service;
 
+import com.project.dto.CalendarDayDTO;
+import com.project.dto.MentorCalendarDTO;
+import com.project.dto.MentorScheduleBatchDTO;
 import com.project.dto.MentorScheduleDTO;
+import com.project.dto.MentorScheduleRuleDTO;
 import com.project.dto.MentorsDTO;
 import com.project.dto.Response;
 import com.project.enums.AvailableStatus;
+import com.project.enums.BookingStatus;
 import com.project.enums.MentorScheduleStatus;
 import com.project.exception.OurException;
+import com.project.model.Booking;
 import com.project.model.MentorSchedule;
+import com.project.model.MentorScheduleRule;
 import com.project.model.Mentors;
+import com.project.model.Semester;
+import com.project.repository.BookingRepository;
 import com.project.repository.MentorScheduleRepository;
+import com.project.repository.MentorScheduleRuleRepository;
 import com.project.repository.MentorsRepository;
+import com.project.repository.SemesterRepository;
 import com.project.ultis.Converter;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 @Service
@@ -31,6 +51,46 @@ public class MentorScheduleService {
     @Autowired
     MentorsRepository mentorsRepository;
 
+    @Autowired
+    MentorSearchIndex mentorSearchIndex;
+
+    @Autowired
+    ScheduleConflictIndex scheduleConflictIndex;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private static final int MAX_REPEAT_WEEKS = 20;
+
+    @Autowired
+    MentorScheduleRuleRepository mentorScheduleRuleRepository;
+
+    @Autowired
+    SemesterRepository semesterRepository;
+
+    @Autowired
+    BookingViewService bookingViewService;
+
+    @Autowired
+    BookingService bookingService;
+
+    @Autowired
+    BookingExpiryService bookingExpiryService;
+
+    @Autowired
+    BookingRepository bookingRepository;
+
+    private final AtomicLong expiredScheduleCount = new AtomicLong();
+
+    private static final int MAX_CALENDAR_DAYS = 62;
+
+    //Rules are turned into concrete schedules this many days ahead
+    private static final int MATERIALIZE_DAYS = 14;
+
+    private static final String INSERT_MENTOR_SCHEDULE
+            = "INSERT INTO mentor_schedule (available_from, available_to, status, mentor_id, rule_id, available_status, version) "
+            + "VALUES (?, ?, ?, ?, ?, ?, 0)";
+
     public Response createMentorSchedule(MentorScheduleDTO inputRequest){
         Response response = new Response();
         try {
@@ -63,12 +123,11 @@ public class MentorScheduleService {
             }
 
             // Kiểm tra lịch hẹn không bị trùng
-            boolean isScheduleConflict = mentorScheduleRepository.existsByMentorAndAvailableStatusAndAvailableFromLessThanEqualAndAvailableToGreaterThanEqual(
-                    mentor,
-                    AvailableStatus.ACTIVE,
-                    inputRequest.getAvailableTo(),
-                    inputRequest.getAvailableFrom()
-            );
+            boolean isScheduleConflict = !scheduleConflictIndex.findConflicts(
+                    mentor.getId(),
+                    inputRequest.getAvailableFrom(),
+                    inputRequest.getAvailableTo()
+            ).isEmpty();
 
             if (isScheduleConflict) {
                 response.setStatusCode(400);
@@ -93,6 +152,8 @@ public class MentorScheduleService {
             mentorSchedule.setStatus(MentorScheduleStatus.AVAILABLE);
             mentorSchedule.setMentor(mentor);
             mentorScheduleRepository.save(mentorSchedule);
+            scheduleConflictIndex.invalidate(mentor.getId());
+            mentorSearchIndex.mentorChanged(mentor.getId());
 
             response.setMentorScheduleDTO(Converter.convertMentorScheduleToMentorScheduleDTO(mentorSchedule));
             response.setStatusCode(200);
@@ -108,6 +169,90 @@ public class MentorScheduleService {
         return response;
     }
 
+    /**
+     *  Tạo cả tuần lịch của mentor một lần (lặp lại repeatWeeks tuần).
+     *  Every slot is checked first (future, order, overlap with the other
+     *  slots and with the existing schedules), then all are inserted with one
+     *  JDBC batch. Nothing is created if one slot is invalid.
+     */
+    @Transactional
+    public Response createMentorScheduleBatch(MentorScheduleBatchDTO inputRequest) {
+        Response response = new Response();
+        try {
+            if (inputRequest.getMentor() == null || inputRequest.getMentor().getId() == null) {
+                throw new OurException("Mentor ID is required");
+            }
+            if (inputRequest.getSlots() == null || inputRequest.getSlots().isEmpty()) {
+                throw new OurException("At least one slot is required");
+            }
+            int repeatWeeks = inputRequest.getRepeatWeeks() == null ? 1 : inputRequest.getRepeatWeeks();
+            if (repeatWeeks < 1 || repeatWeeks > MAX_REPEAT_WEEKS) {
+                throw new OurException("Repeat weeks must be between 1 and " + MAX_REPEAT_WEEKS);
+            }
+            Mentors mentor = mentorsRepository.findByIdAndAvailableStatus(inputRequest.getMentor().getId(), AvailableStatus.ACTIVE);
+            if (mentor == null) {
+                throw new OurException("Mentor not found");
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            List<MentorScheduleDTO> slots = new ArrayList<>();
+            for (int week = 0; week < repeatWeeks; week++) {
+                for (MentorScheduleDTO slot : inputRequest.getSlots()) {
+                    if (slot.getAvailableFrom() == null || slot.getAvailableTo() == null) {
+                        throw new OurException("AvailableFrom and AvailableTo must be provided");
+                    }
+                    MentorScheduleDTO weekSlot = new MentorScheduleDTO();
+                    weekSlot.setAvailableFrom(slot.getAvailableFrom().plusWeeks(week));
+                    weekSlot.setAvailableTo(slot.getAvailableTo().plusWeeks(week));
+                    slots.add(weekSlot);
+                }
+            }
+            slots.sort(Comparator.comparing(MentorScheduleDTO::getAvailableFrom));
+
+            MentorScheduleDTO previous = null;
+            for (MentorScheduleDTO slot : slots) {
+                if (slot.getAvailableFrom().isBefore(now)) {
+                    throw new OurException("Available from time must be in the future: " + slot.getAvailableFrom());
+                }
+                if (!slot.getAvailableFrom().isBefore(slot.getAvailableTo())) {
+                    throw new OurException("Available from time must be before available to time: " + slot.getAvailableFrom());
+                }
+                float time = (float) slot.getAvailableFrom().until(slot.getAvailableTo(), ChronoUnit.HOURS);
+                if (mentor.getTotalTimeRemain() < time) {
+                    throw new OurException("You have reached your support time limit for this semester");
+                }
+                // Sorted by start, a slot can only overlap the one before it
+                if (previous != null && !slot.getAvailableFrom().isAfter(previous.getAvailableTo())) {
+                    throw new OurException("Slots overlap: " + previous.getAvailableFrom() + " and " + slot.getAvailableFrom());
+                }
+                if (!scheduleConflictIndex.findConflicts(mentor.getId(), slot.getAvailableFrom(), slot.getAvailableTo()).isEmpty()) {
+                    throw new OurException("Schedule conflicts with existing mentor availability: " + slot.getAvailableFrom());
+                }
+                previous = slot;
+            }
+
+            insertSchedules(mentor.getId(), null, slots);
+
+            List<LocalDateTime> availableFroms = slots.stream().map(MentorScheduleDTO::getAvailableFrom).toList();
+            List<MentorScheduleDTO> created = mentorScheduleRepository
+                    .findByMentorIdAndAvailableFromIn(mentor.getId(), AvailableStatus.ACTIVE, availableFroms)
+                    .stream()
+                    .map(Converter::convertMentorScheduleToMentorScheduleDTO)
+                    .collect(Collectors.toList());
+
+            response.setMentorScheduleDTOList(created);
+            response.setStatusCode(200);
+            response.setMessage(created.size() + " mentor schedules created successfully");
+        } catch (OurException e) {
+            response.setStatusCode(400);
+            response.setMessage(e.getMessage());
+        } catch (Exception e) {
+            response.setStatusCode(500);
+            response.setMessage("Error occurred while create mentor schedules: " + e.getMessage());
+        }
+        return response;
+    }
+
     public Response getAllMentorSchedule(){
         Response response = new Response();
         try{
@@ -169,6 +314,8 @@ public class MentorScheduleService {
             if(mentorSchedule != null){
                 mentorSchedule.setAvailableStatus(AvailableStatus.DELETED);
                 mentorScheduleRepository.save(mentorSchedule);
+                scheduleConflictIndex.invalidate(mentorSchedule.getMentor().getId());
+                mentorSearchIndex.mentorChanged(mentorSchedule.getMentor().getId());
                 response.setStatusCode(200);
                 response.setMessage("Mentor Schedule deleted successfully");
             }else{
@@ -212,11 +359,10 @@ public class MentorScheduleService {
             }
 
             // Kiểm tra không có lịch trình nào trùng với thời gian mới
-            boolean isScheduleConflict = mentorScheduleRepository.existsByMentorAndAvailableStatusAndAvailableFromLessThanEqualAndAvailableToGreaterThanEqualAndIdNot(
-                    mentorSchedule.getMentor(),
-                    AvailableStatus.ACTIVE,
-                    updateRequest.getAvailableTo(),
+            boolean isScheduleConflict = scheduleConflictIndex.hasConflict(
+                    mentorSchedule.getMentor().getId(),
                     updateRequest.getAvailableFrom(),
+                    updateRequest.getAvailableTo(),
                     mentorSchedule.getId()  // Bỏ qua chính lịch trình hiện tại
             );
 
@@ -230,6 +376,16 @@ public class MentorScheduleService {
             mentorSchedule.setAvailableFrom(updateRequest.getAvailableFrom());
             mentorSchedule.setAvailableTo(updateRequest.getAvailableTo());
             mentorScheduleRepository.save(mentorSchedule);
+            scheduleConflictIndex.invalidate(mentorSchedule.getMentor().getId());
+            mentorSearchIndex.mentorChanged(mentorSchedule.getMentor().getId());
+            bookingViewService.refreshMentorSchedule(mentorSchedule.getId());
+
+            // Deadline của các booking đang chờ hoặc đã xác nhận phụ thuộc vào giờ bắt đầu mới
+            List<Booking> activeBookings = bookingRepository.findActiveBookingsWithScheduleByMentorScheduleId(
+                    mentorSchedule.getId(), List.of(BookingStatus.PENDING, BookingStatus.CONFIRMED));
+            for (Booking booking : activeBookings) {
+                bookingExpiryService.register(booking);
+            }
 
             mentorScheduleDTO = Converter.convertMentorScheduleToMentorScheduleDTO(mentorSchedule);
             response.setMentorScheduleDTO(mentorScheduleDTO);
@@ -323,6 +479,7 @@ public class MentorScheduleService {
             if(mentorSchedule !=null){
                 mentorSchedule.setStatus(MentorScheduleStatus.EXPIRED);
                 mentorScheduleRepository.save(mentorSchedule);
+                mentorSearchIndex.mentorChanged(mentorSchedule.getMentor().getId());
 
                 mentorScheduleDTO = Converter.convertMentorScheduleToMentorScheduleDTO(mentorSchedule);
                 response.setMentorScheduleDTO(mentorScheduleDTO);
@@ -339,20 +496,378 @@ public class MentorScheduleService {
         return response;
     }
 
+    /**
+     *  Số lịch đã được tự động chuyển sang EXPIRED từ khi khởi động
+     */
+    public Response getExpiredScheduleCount() {
+        Response response = new Response();
+        response.setExpiredScheduleCount(expiredScheduleCount.get());
+        response.setStatusCode(200);
+        response.setMessage("Expired schedule count fetched successfully");
+        return response;
+    }
+
     // Phương thức sẽ chạy định kỳ
+    // One UPDATE for every ended schedule, nothing is loaded into the persistence context.
+    // The count is read through getExpiredScheduleCount, an error is logged by the scheduler.
     @Scheduled(fixedRate = 60000)  // Chạy mỗi 60 giây (1 phút)
     @Transactional
     public void expireMentorSchedulesAutomatically() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> mentorIds = mentorScheduleRepository.findMentorIdsWithAvailableEndedBefore(now);
+        if (mentorIds.isEmpty()) {
+            return;
+        }
+        int expired = mentorScheduleRepository.expireAvailableEndedBefore(now);
+        expiredScheduleCount.addAndGet(expired);
+        for (Long mentorId : mentorIds) {
+            mentorSearchIndex.mentorChanged(mentorId);
+        }
+    }
+
+    /**
+     *  Tạo lịch lặp lại hàng tuần cho mentor trong một kì học.
+     *  The schedules of the next days are created right away, the later
+     *  weeks by {@link #materializeScheduleRules()} as they come closer.
+     */
+    @Transactional
+    public Response createMentorScheduleRule(MentorScheduleRuleDTO inputRequest) {
+        Response response = new Response();
+        try {
+            if (inputRequest.getMentor() == null || inputRequest.getMentor().getId() == null) {
+                throw new OurException("Mentor ID is required");
+            }
+            if (inputRequest.getSemester() == null || inputRequest.getSemester().getId() == null) {
+                throw new OurException("Semester ID is required");
+            }
+            if (inputRequest.getDayOfWeek() == null || inputRequest.getStartTime() == null || inputRequest.getEndTime() == null) {
+                throw new OurException("Day of week, start time and end time must be provided");
+            }
+            if (!inputRequest.getStartTime().isBefore(inputRequest.getEndTime())) {
+                throw new OurException("Start time must be before end time");
+            }
+            Mentors mentor = mentorsRepository.findByIdAndAvailableStatus(inputRequest.getMentor().getId(), AvailableStatus.ACTIVE);
+            if (mentor == null) {
+                throw new OurException("Mentor not found");
+            }
+            Semester semester = semesterRepository.findByIdAndAvailableStatus(inputRequest.getSemester().getId(), AvailableStatus.ACTIVE);
+            if (semester == null) {
+                throw new OurException("Semester not found");
+            }
+            if (semester.getDateEnd().isBefore(LocalDate.now())) {
+                throw new OurException("Semester has already ended");
+            }
+            float time = (float) inputRequest.getStartTime().until(inputRequest.getEndTime(), ChronoUnit.HOURS);
+            if (mentor.getTotalTimeRemain() < time) {
+                throw new OurException("You have reached your support time limit for this semester");
+            }
+
+            // Kiểm tra không trùng với lịch lặp lại khác trong cùng ngày
+            for (MentorScheduleRule other : mentorScheduleRuleRepository.findByMentorId(mentor.getId(), AvailableStatus.ACTIVE)) {
+                if (other.getSemester().getId().equals(semester.getId())
+                        && other.getDayOfWeek() == inputRequest.getDayOfWeek()
+                        && !other.getStartTime().isAfter(inputRequest.getEndTime())
+                        && !other.getEndTime().isBefore(inputRequest.getStartTime())) {
+                    throw new OurException("Schedule rule conflicts with an existing rule on " + other.getDayOfWeek());
+                }
+            }
+
+            MentorScheduleRule rule = new MentorScheduleRule();
+            rule.setDayOfWeek(inputRequest.getDayOfWeek());
+            rule.setStartTime(inputRequest.getStartTime());
+            rule.setEndTime(inputRequest.getEndTime());
+            rule.setDateCreated(LocalDateTime.now());
+            rule.setMentor(mentor);
+            rule.setSemester(semester);
+            rule.setAvailableStatus(AvailableStatus.ACTIVE);
+            mentorScheduleRuleRepository.save(rule);
+            materializeRule(rule, LocalDate.now());
+
+            response.setMentorScheduleRuleDTO(Converter.convertMentorScheduleRuleToMentorScheduleRuleDTO(rule));
+            response.setStatusCode(200);
+            response.setMessage("Mentor schedule rule created successfully");
+        } catch (OurException e) {
+            response.setStatusCode(400);
+            response.setMessage(e.getMessage());
+        } catch (Exception e) {
+            response.setStatusCode(500);
+            response.setMessage("Error occurred while create mentor schedule rule: " + e.getMessage());
+        }
+        return response;
+    }
+
+    public Response getMentorScheduleRules(Long mentorId) {
+        Response response = new Response();
         try {
-            List<MentorSchedule> expiredSchedules = mentorScheduleRepository.findByAvailableToBeforeAndStatus(LocalDateTime.now(), MentorScheduleStatus.AVAILABLE);
+            List<MentorScheduleRuleDTO> ruleDTOList = mentorScheduleRuleRepository.findByMentorId(mentorId, AvailableStatus.ACTIVE)
+                    .stream()
+                    .sorted(Comparator.comparing(MentorScheduleRule::getDayOfWeek))
+                    .map(Converter::convertMentorScheduleRuleToMentorScheduleRuleDTO)
+                    .collect(Collectors.toList());
+            response.setMentorScheduleRuleDTOList(ruleDTOList);
+            response.setStatusCode(200);
+            response.setMessage("Mentor schedule rules fetched successfully");
+        } catch (Exception e) {
+            response.setStatusCode(500);
+            response.setMessage("Error occurred while get mentor schedule rules: " + e.getMessage());
+        }
+        return response;
+    }
 
-            for (MentorSchedule schedule : expiredSchedules) {
-                schedule.setStatus(MentorScheduleStatus.EXPIRED);
-                mentorScheduleRepository.save(schedule);
+    /**
+     *  Xóa lịch lặp lại, the open future schedules created from it are
+     *  deleted too and their pending bookings rejected (points given back),
+     *  booked ones are kept.
+     */
+    @Transactional
+    public Response deleteMentorScheduleRule(Long id) {
+        Response response = new Response();
+        try {
+            MentorScheduleRule rule = mentorScheduleRuleRepository.findByIdAndAvailableStatus(id, AvailableStatus.ACTIVE);
+            if (rule == null) {
+                throw new OurException("Mentor schedule rule not found");
             }
-            System.out.println("Expired schedules updated successfully.");
+            rule.setAvailableStatus(AvailableStatus.DELETED);
+            mentorScheduleRuleRepository.save(rule);
+            List<Long> deletedScheduleIds = mentorScheduleRepository.findOpenScheduleIdsOfRule(rule.getId(), MentorScheduleStatus.AVAILABLE,
+                    AvailableStatus.ACTIVE, LocalDateTime.now());
+            if (!deletedScheduleIds.isEmpty()) {
+                mentorScheduleRepository.deleteOpenSchedules(deletedScheduleIds, MentorScheduleStatus.AVAILABLE, AvailableStatus.DELETED);
+                bookingService.rejectPendingBookingsOfSchedules(deletedScheduleIds);
+            }
+            scheduleConflictIndex.invalidate(rule.getMentor().getId());
+            mentorSearchIndex.mentorChanged(rule.getMentor().getId());
+
+            response.setStatusCode(200);
+            response.setMessage("Mentor schedule rule deleted successfully");
+        } catch (OurException e) {
+            response.setStatusCode(400);
+            response.setMessage(e.getMessage());
         } catch (Exception e) {
-            System.err.println("Error while expiring mentor schedules: " + e.getMessage());
+            response.setStatusCode(500);
+            response.setMessage("Error occurred while delete mentor schedule rule: " + e.getMessage());
         }
+        return response;
+    }
+
+    /**
+     *  Lịch trống của mentor trong khoảng thời gian. Concrete schedules come
+     *  from the table, the weeks of a rule after its materialized days are
+     *  computed and returned without id.
+     */
+    public Response getMentorAvailability(Long mentorId, LocalDateTime from, LocalDateTime to) {
+        Response response = new Response();
+        try {
+            if (from == null || to == null || !from.isBefore(to)) {
+                throw new OurException("A valid time range is required");
+            }
+            LocalDateTime now = LocalDateTime.now();
+            List<MentorScheduleDTO> slots = mentorScheduleRepository
+                    .findByMentorIdAndStatusBetween(mentorId, AvailableStatus.ACTIVE, MentorScheduleStatus.AVAILABLE, from, to)
+                    .stream()
+                    .filter(schedule -> schedule.getAvailableTo().isAfter(now))
+                    .map(Converter::convertMentorScheduleToMentorScheduleDTO)
+                    .collect(Collectors.toList());
+
+            slots.addAll(projectRules(mentorId, from, to, now));
+            slots.sort(Comparator.comparing(MentorScheduleDTO::getAvailableFrom));
+
+            response.setMentorScheduleDTOList(slots);
+            response.setStatusCode(200);
+            response.setMessage("Mentor availability fetched successfully");
+        } catch (OurException e) {
+            response.setStatusCode(400);
+            response.setMessage(e.getMessage());
+        } catch (Exception e) {
+            response.setStatusCode(500);
+            response.setMessage("Error occurred while get mentor availability: " + e.getMessage());
+        }
+        return response;
+    }
+
+    /**
+     *  Lịch của mentor theo từng ngày, from and to included (at most
+     *  MAX_CALENDAR_DAYS days). Each day has its counts by status, a bitmap
+     *  of the available half hours and its slots, the mentor is sent once.
+     */
+    public Response getMentorCalendar(Long mentorId, LocalDate from, LocalDate to) {
+        Response response = new Response();
+        try {
+            if (from == null || to == null || from.isAfter(to)) {
+                throw new OurException("A valid date range is required");
+            }
+            if (ChronoUnit.DAYS.between(from, to) >= MAX_CALENDAR_DAYS) {
+                throw new OurException("The date range cannot be longer than " + MAX_CALENDAR_DAYS + " days");
+            }
+            Mentors mentor = mentorsRepository.findByIdAndAvailableStatus(mentorId, AvailableStatus.ACTIVE);
+            if (mentor == null) {
+                throw new OurException("Mentor not found");
+            }
+
+            LocalDateTime start = from.atStartOfDay();
+            LocalDateTime end = to.plusDays(1).atStartOfDay();
+            LocalDateTime now = LocalDateTime.now();
+            List<MentorScheduleDTO> slots = mentorScheduleRepository
+                    .findByMentorIdStartingBetween(mentorId, AvailableStatus.ACTIVE, start, end)
+                    .stream()
+                    .map(Converter::convertMentorScheduleToSlotDTO)
+                    .collect(Collectors.toList());
+            slots.addAll(projectRules(mentorId, start, end, now));
+            slots.sort(Comparator.comparing(MentorScheduleDTO::getAvailableFrom));
+
+            Map<LocalDate, CalendarDayDTO> days = new LinkedHashMap<>();
+            for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+                CalendarDayDTO day = new CalendarDayDTO();
+                day.setDate(date);
+                day.setSlots(new ArrayList<>());
+                days.put(date, day);
+            }
+            for (MentorScheduleDTO slot : slots) {
+                CalendarDayDTO day = days.get(slot.getAvailableFrom().toLocalDate());
+                day.getSlots().add(slot);
+                if (slot.getStatus() == MentorScheduleStatus.BOOKED) {
+                    day.setBookedCount(day.getBookedCount() + 1);
+                } else if (slot.getStatus() == MentorScheduleStatus.EXPIRED || slot.getAvailableTo().isBefore(now)) {
+                    day.setExpiredCount(day.getExpiredCount() + 1);
+                } else {
+                    day.setAvailableCount(day.getAvailableCount() + 1);
+                    day.setAvailableMask(day.getAvailableMask() | halfHourMask(slot));
+                }
+            }
+
+            MentorCalendarDTO calendar = new MentorCalendarDTO();
+            calendar.setMentor(Converter.convertMentorToMentorDTO(mentor));
+            calendar.setFrom(from);
+            calendar.setTo(to);
+            calendar.setDays(new ArrayList<>(days.values()));
+
+            response.setMentorCalendarDTO(calendar);
+            response.setStatusCode(200);
+            response.setMessage("Mentor calendar fetched successfully");
+        } catch (OurException e) {
+            response.setStatusCode(400);
+            response.setMessage(e.getMessage());
+        } catch (Exception e) {
+            response.setStatusCode(500);
+            response.setMessage("Error occurred while get mentor calendar: " + e.getMessage());
+        }
+        return response;
+    }
+
+    //Bits of the half hours of its day covered by the slot, a slot ending the next day fills the day
+    private static long halfHourMask(MentorScheduleDTO slot) {
+        int startMinute = slot.getAvailableFrom().getHour() * 60 + slot.getAvailableFrom().getMinute();
+        int endMinute = slot.getAvailableTo().toLocalDate().isAfter(slot.getAvailableFrom().toLocalDate())
+                ? 24 * 60
+                : slot.getAvailableTo().getHour() * 60 + slot.getAvailableTo().getMinute();
+        long mask = 0;
+        for (int i = startMinute / 30; i * 30 < endMinute; i++) {
+            mask |= 1L << i;
+        }
+        return mask;
+    }
+
+    //Weeks of the mentor's rules after their materialized days, inside [from, to], not started yet and free
+    private List<MentorScheduleDTO> projectRules(Long mentorId, LocalDateTime from, LocalDateTime to, LocalDateTime now) {
+        List<MentorScheduleDTO> projected = new ArrayList<>();
+        for (MentorScheduleRule rule : mentorScheduleRuleRepository.findByMentorId(mentorId, AvailableStatus.ACTIVE)) {
+            LocalDate first = rule.getMaterializedUntil() == null
+                    ? rule.getSemester().getDateStart()
+                    : rule.getMaterializedUntil().plusDays(1);
+            for (MentorScheduleDTO occurrence : occurrences(rule, max(first, from.toLocalDate()), min(rule.getSemester().getDateEnd(), to.toLocalDate()))) {
+                //A week taken by another schedule is skipped by materializeRule, it is not offered either
+                if (!occurrence.getAvailableFrom().isBefore(from) && !occurrence.getAvailableTo().isAfter(to)
+                        && occurrence.getAvailableFrom().isAfter(now)
+                        && scheduleConflictIndex.findConflicts(mentorId, occurrence.getAvailableFrom(), occurrence.getAvailableTo()).isEmpty()) {
+                    projected.add(occurrence);
+                }
+            }
+        }
+        return projected;
+    }
+
+    // Tạo lịch cụ thể từ lịch lặp lại cho những ngày sắp tới
+    @Scheduled(fixedRate = 60 * 60 * 1000)
+    @Transactional
+    public void materializeScheduleRules() {
+        try {
+            LocalDate today = LocalDate.now();
+            List<MentorScheduleRule> rules = mentorScheduleRuleRepository.findRulesToMaterialize(
+                    AvailableStatus.ACTIVE, today, today.plusDays(MATERIALIZE_DAYS));
+            for (MentorScheduleRule rule : rules) {
+                materializeRule(rule, today);
+            }
+        } catch (Exception e) {
+            System.err.println("Error while materializing mentor schedule rules: " + e.getMessage());
+        }
+    }
+
+    //Creates the schedules of the rule up to MATERIALIZE_DAYS ahead, a day
+    //already taken by another schedule of the mentor is skipped
+    private void materializeRule(MentorScheduleRule rule, LocalDate today) {
+        Semester semester = rule.getSemester();
+        LocalDate first = rule.getMaterializedUntil() == null
+                ? max(semester.getDateStart(), today)
+                : max(rule.getMaterializedUntil().plusDays(1), today);
+        LocalDate last = min(semester.getDateEnd(), today.plusDays(MATERIALIZE_DAYS));
+        if (first.isAfter(last)) {
+            return;
+        }
+
+        Long mentorId = rule.getMentor().getId();
+        LocalDateTime now = LocalDateTime.now();
+        List<MentorScheduleDTO> slots = new ArrayList<>();
+        for (MentorScheduleDTO occurrence : occurrences(rule, first, last)) {
+            if (occurrence.getAvailableFrom().isAfter(now)
+                    && scheduleConflictIndex.findConflicts(mentorId, occurrence.getAvailableFrom(), occurrence.getAvailableTo()).isEmpty()) {
+                slots.add(occurrence);
+            }
+        }
+        if (!slots.isEmpty()) {
+            insertSchedules(mentorId, rule.getId(), slots);
+        }
+        rule.setMaterializedUntil(last);
+        mentorScheduleRuleRepository.save(rule);
+    }
+
+    private List<MentorScheduleDTO> occurrences(MentorScheduleRule rule, LocalDate first, LocalDate last) {
+        List<MentorScheduleDTO> occurrences = new ArrayList<>();
+        for (LocalDate day = first.with(TemporalAdjusters.nextOrSame(rule.getDayOfWeek()));
+             !day.isAfter(last);
+             day = day.plusWeeks(1)) {
+            MentorScheduleDTO occurrence = new MentorScheduleDTO();
+            occurrence.setAvailableFrom(day.atTime(rule.getStartTime()));
+            occurrence.setAvailableTo(day.atTime(rule.getEndTime()));
+            occurrence.setStatus(MentorScheduleStatus.AVAILABLE);
+            occurrence.setAvailableStatus(AvailableStatus.ACTIVE);
+            occurrences.add(occurrence);
+        }
+        return occurrences;
+    }
+
+    //One JDBC batch for all the slots, ruleId is null for slots created by hand
+    private void insertSchedules(Long mentorId, Long ruleId, List<MentorScheduleDTO> slots) {
+        jdbcTemplate.batchUpdate(INSERT_MENTOR_SCHEDULE, slots, slots.size(), (ps, slot) -> {
+            ps.setTimestamp(1, Timestamp.valueOf(slot.getAvailableFrom()));
+            ps.setTimestamp(2, Timestamp.valueOf(slot.getAvailableTo()));
+            ps.setString(3, MentorScheduleStatus.AVAILABLE.name());
+            ps.setLong(4, mentorId);
+            if (ruleId == null) {
+                ps.setNull(5, Types.BIGINT);
+            } else {
+                ps.setLong(5, ruleId);
+            }
+            ps.setString(6, AvailableStatus.ACTIVE.name());
+        });
+        scheduleConflictIndex.invalidate(mentorId);
+        mentorSearchIndex.mentorChanged(mentorId);
+    }
+
+    private static LocalDate max(LocalDate a, LocalDate b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static LocalDate min(LocalDate a, LocalDate b) {
+        return a.isBefore(b) ? a : b;
     }
 }
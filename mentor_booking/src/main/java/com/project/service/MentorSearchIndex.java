@@ -0,0 +1,260 @@
+package com.project.service;
+
+import com.project.ultis.TransactionHooks;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * In-memory index of active mentors by skill and by available schedule, used
+ * by the mentor search so skill and time filters do not touch the database.
+ *
+ * Skill id maps to a bitset of mentor ids. Mentor id maps to its AVAILABLE
+ * schedules as a sorted array of [from, to] pairs (epoch seconds). Bitsets
+ * are never modified once published: a change to one mentor copies only the
+ * bitsets whose bit for that mentor flips and swaps in a new snapshot sharing
+ * the others. Schedule arrays are replaced per mentor in a concurrent map.
+ * Readers never lock. Changes are applied after the transaction commits, and
+ * the whole index is rebuilt every few minutes in case a change was missed.
+ */
+@Service
+public class MentorSearchIndex {
+
+    private static final long REBUILD_INTERVAL_MS = 10 * 60 * 1000;
+
+    private static final String MENTORS_SQL
+            = "SELECT id FROM mentors WHERE available_status = 'ACTIVE'";
+
+    private static final String SKILLS_SQL
+            = "SELECT ms.mentor_id, ms.skill_id FROM mentor_skills ms "
+            + "JOIN mentors m ON m.id = ms.mentor_id "
+            + "JOIN skills s ON s.id = ms.skill_id "
+            + "WHERE m.available_status = 'ACTIVE' AND s.available_status = 'ACTIVE'";
+
+    private static final String SCHEDULES_SQL
+            = "SELECT mentor_id, available_from, available_to FROM mentor_schedule "
+            + "WHERE status = 'AVAILABLE' AND available_status = 'ACTIVE'";
+
+    private static final String ORDER_SCHEDULES = " ORDER BY mentor_id, available_from";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private volatile Snapshot snapshot;
+
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    /**
+     * Ids of the active mentors matching the skills and having an available
+     * schedule inside the time window
+     *
+     * @param skillIds null or empty for any skill
+     * @param matchAllSkills true if the mentor needs every skill, false if one is enough
+     * @param availableFrom null for no lower bound
+     * @param availableTo null for no upper bound
+     * @return mentor ids in ascending order
+     */
+    public List<Long> findMentorIds(List<Long> skillIds, boolean matchAllSkills, LocalDateTime availableFrom, LocalDateTime availableTo) {
+        Snapshot current = snapshot;
+        BitSet candidates = (BitSet) current.activeMentors.clone();
+
+        if (skillIds != null && !skillIds.isEmpty()) {
+            BitSet withSkills = matchAllSkills ? (BitSet) candidates.clone() : new BitSet();
+            for (Long skillId : skillIds) {
+                BitSet mentors = current.mentorsBySkill.getOrDefault(skillId, new BitSet());
+                if (matchAllSkills) {
+                    withSkills.and(mentors);
+                } else {
+                    withSkills.or(mentors);
+                }
+            }
+            candidates.and(withSkills);
+        }
+
+        boolean checkTime = availableFrom != null || availableTo != null;
+        long from = availableFrom == null ? Long.MIN_VALUE : toEpochSecond(availableFrom);
+        long to = availableTo == null ? Long.MAX_VALUE : toEpochSecond(availableTo);
+        //Same rule as MentorsSpecification.hasScheduleWithin: a schedule that has ended
+        //is expired, even if the expiry job has not run yet
+        long now = toEpochSecond(LocalDateTime.now());
+
+        List<Long> mentorIds = new ArrayList<>();
+        for (int id = candidates.nextSetBit(0); id >= 0; id = candidates.nextSetBit(id + 1)) {
+            if (!checkTime || hasScheduleWithin(current.schedulesByMentor.get((long) id), from, to, now)) {
+                mentorIds.add((long) id);
+            }
+        }
+        return mentorIds;
+    }
+
+    /**
+     * Reload one mentor (skills, status or schedules changed)
+     *
+     * @param mentorId the mentor
+     */
+    public void mentorChanged(Long mentorId) {
+        TransactionHooks.afterCommit(() -> refreshMentor(mentorId));
+    }
+
+    /**
+     * Reload everything (a skill has been changed or deleted)
+     */
+    public void skillsChanged() {
+        TransactionHooks.afterCommit(this::rebuild);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelay = REBUILD_INTERVAL_MS, fixedRate = REBUILD_INTERVAL_MS)
+    public synchronized void rebuild() {
+        try {
+            Snapshot next = new Snapshot(new BitSet(), new HashMap<>(), new ConcurrentHashMap<>());
+            jdbcTemplate.query(MENTORS_SQL, rs -> {
+                next.activeMentors.set(bit(rs.getLong(1)));
+            });
+            jdbcTemplate.query(SKILLS_SQL, rs -> {
+                next.mentorsBySkill.computeIfAbsent(rs.getLong(2), skillId -> new BitSet()).set(bit(rs.getLong(1)));
+            });
+            next.schedulesByMentor.putAll(loadSchedules(SCHEDULES_SQL + ORDER_SCHEDULES));
+            snapshot = next;
+            System.out.println("Mentor search index rebuilt with " + next.activeMentors.cardinality() + " mentors.");
+        } catch (Exception e) {
+            System.out.println("Error while rebuilding mentor search index: " + e.getMessage());
+        }
+    }
+
+    private synchronized void refreshMentor(Long mentorId) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return;
+        }
+        try {
+            int bit = bit(mentorId);
+            boolean active = !jdbcTemplate.queryForList(MENTORS_SQL + " AND id = ?", Long.class, mentorId).isEmpty();
+            Set<Long> skillIds = new HashSet<>(
+                    jdbcTemplate.query(SKILLS_SQL + " AND ms.mentor_id = ?", (rs, rowNum) -> rs.getLong(2), mentorId));
+            long[] schedules = loadSchedules(SCHEDULES_SQL + " AND mentor_id = ?" + ORDER_SCHEDULES, mentorId).get(mentorId);
+
+            //Copy only the bitsets where this mentor's bit flips
+            BitSet activeMentors = current.activeMentors;
+            if (activeMentors.get(bit) != active) {
+                activeMentors = (BitSet) activeMentors.clone();
+                activeMentors.set(bit, active);
+            }
+            Map<Long, BitSet> changedSkills = new HashMap<>();
+            for (Map.Entry<Long, BitSet> entry : current.mentorsBySkill.entrySet()) {
+                boolean hasSkill = skillIds.contains(entry.getKey());
+                if (entry.getValue().get(bit) != hasSkill) {
+                    BitSet mentors = (BitSet) entry.getValue().clone();
+                    mentors.set(bit, hasSkill);
+                    changedSkills.put(entry.getKey(), mentors);
+                }
+            }
+            for (Long skillId : skillIds) {
+                if (!current.mentorsBySkill.containsKey(skillId)) {
+                    BitSet mentors = new BitSet();
+                    mentors.set(bit);
+                    changedSkills.put(skillId, mentors);
+                }
+            }
+
+            if (schedules == null) {
+                current.schedulesByMentor.remove(mentorId);
+            } else {
+                current.schedulesByMentor.put(mentorId, schedules);
+            }
+            if (activeMentors != current.activeMentors || !changedSkills.isEmpty()) {
+                Map<Long, BitSet> mentorsBySkill = current.mentorsBySkill;
+                if (!changedSkills.isEmpty()) {
+                    mentorsBySkill = new HashMap<>(current.mentorsBySkill);
+                    mentorsBySkill.putAll(changedSkills);
+                }
+                snapshot = new Snapshot(activeMentors, mentorsBySkill, current.schedulesByMentor);
+            }
+        } catch (Exception e) {
+            System.out.println("Error while refreshing mentor search index: " + e.getMessage());
+        }
+    }
+
+    private Map<Long, long[]> loadSchedules(String sql, Object... args) {
+        Map<Long, List<long[]>> rows = new HashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            Timestamp from = rs.getTimestamp(2);
+            Timestamp to = rs.getTimestamp(3);
+            rows.computeIfAbsent(rs.getLong(1), id -> new ArrayList<>())
+                    .add(new long[]{toEpochSecond(from.toLocalDateTime()), toEpochSecond(to.toLocalDateTime())});
+        }, args);
+
+        Map<Long, long[]> schedulesByMentor = new HashMap<>();
+        for (Map.Entry<Long, List<long[]>> entry : rows.entrySet()) {
+            List<long[]> intervals = entry.getValue();
+            long[] flat = new long[intervals.size() * 2];
+            for (int i = 0; i < intervals.size(); i++) {
+                flat[2 * i] = intervals.get(i)[0];
+                flat[2 * i + 1] = intervals.get(i)[1];
+            }
+            schedulesByMentor.put(entry.getKey(), flat);
+        }
+        return schedulesByMentor;
+    }
+
+    //Schedules are sorted by start, jump to the first one starting at or after from
+    private boolean hasScheduleWithin(long[] schedules, long from, long to, long now) {
+        if (schedules == null) {
+            return false;
+        }
+        int low = 0;
+        int high = schedules.length / 2;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (schedules[2 * mid] < from) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        for (int i = low; i < schedules.length / 2 && schedules[2 * i] <= to; i++) {
+            long end = schedules[2 * i + 1];
+            if (end <= to && end >= now) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int bit(long mentorId) {
+        return Math.toIntExact(mentorId);
+    }
+
+    private static long toEpochSecond(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static final class Snapshot {
+
+        private final BitSet activeMentors;
+        private final Map<Long, BitSet> mentorsBySkill;
+        private final Map<Long, long[]> schedulesByMentor;
+
+        private Snapshot(BitSet activeMentors, Map<Long, BitSet> mentorsBySkill, Map<Long, long[]> schedulesByMentor) {
+            this.activeMentors = activeMentors;
+            this.mentorsBySkill = mentorsBySkill;
+            this.schedulesByMentor = schedulesByMentor;
+        }
+    }
+}
@@ -10,10 +10,14 @@ import com.project.repository.*;
 import com.project.security.AwsS3Service;
 import com.project.ultis.Converter;
 import com.project.ultis.ExcelHelper;
+import com.project.ultis.Ultis;
+import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -21,7 +25,13 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -46,7 +56,7 @@ public class MentorsService {
     private AwsS3Service awsS3Service;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHasher passwordHasher;
 
     @Autowired
     private RoleRepository roleRepository;
@@ -57,6 +67,23 @@ public class MentorsService {
     @Autowired
     private MentorReportRepository mentorReportRepository;
 
+    @Autowired
+    private MentorSearchIndex mentorSearchIndex;
+
+    @Autowired
+    private MentorLeaderboard mentorLeaderboard;
+
+    @Autowired
+    private NameSearchIndex nameSearchIndex;
+
+    @Autowired
+    private BookingViewService bookingViewService;
+
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
+
+    //Rows of a mentor import whose passwords are hashed together
+    private static final int IMPORT_HASH_BATCH_SIZE = 100;
+
     private static final String DEFAULT_AVATAR_URL = "https://mentor-booking-images.s3.amazonaws.com/images.jpeg";
 
     /**
@@ -70,7 +97,7 @@ public class MentorsService {
             if (name == null || name.isEmpty()) {
                 mentorsList = mentorsRepository.findByAvailableStatus(AvailableStatus.ACTIVE);
             } else {
-                mentorsList = mentorsRepository.findByName(name, AvailableStatus.ACTIVE);
+                mentorsList = mentorsRepository.findByUserIds(nameSearchIndex.findMentorUserIds(name), AvailableStatus.ACTIVE);
             }
 
             mentorsDTOList = mentorsList
@@ -200,6 +227,9 @@ public class MentorsService {
                     .collect(Collectors.toList());
             mentorUpdate.setSkills(skillsList);
             mentorsRepository.save(mentorUpdate);
+            mentorSearchIndex.mentorChanged(mentorUpdate.getId());
+            mentorLeaderboard.mentorChanged(mentorUpdate.getId());
+            bookingViewService.refreshMentor(mentorUpdate.getId());
 
             MentorsDTO mentorsDTO = Converter.convertMentorToMentorDTO(mentorUpdate);
             response.setMentorsDTO(mentorsDTO);
@@ -219,196 +249,87 @@ public class MentorsService {
 
     /**
      *  Phương thức tìm metor theo avaibility schedule và skills
+     *
+     *  Every filter is optional, they are combined into one query sorted by
+     *  star. Skill and time filters are answered by the mentor search index
+     *  (database subqueries until it is loaded). page and size are optional,
+     *  without them every mentor found is returned. The available schedules
+     *  of the mentors come with one more query.
      */
-    public Response findMentorWithNameAndSkillsAndAvaibility(String name, List<Long> skillIds, LocalDateTime availableFrom, LocalDateTime availableTo) {
+    @Transactional
+    public Response findMentorWithNameAndSkillsAndAvaibility(String name, List<Long> skillIds, boolean matchAllSkills,
+            LocalDateTime availableFrom, LocalDateTime availableTo, Integer page, Integer size) {
         Response response = new Response();
         try {
-            List<MentorsDTO> mentorsDTOList = new ArrayList<>();
+            if (availableFrom != null && availableTo != null && availableFrom.isAfter(availableTo)) {
+                throw new OurException("availableFrom cannot be after availableTo.");
+            }
+            if ((page != null && page < 0) || (size != null && (size <= 0 || size > MAX_SEARCH_PAGE_SIZE))) {
+                throw new OurException("Page must be positive and size between 1 and " + MAX_SEARCH_PAGE_SIZE);
+            }
 
-            // 1. Nếu cả name, skills, và availability đều rỗng
-            if (isNullOrEmpty(name) && (skillIds == null || skillIds.isEmpty()) && availableFrom == null && availableTo == null) {
-                List<Mentors> mentorsList = mentorsRepository.findByAvailableStatus(AvailableStatus.ACTIVE);
-                mentorsDTOList = mentorsList
-                        .stream()
-                        .map(Converter::convertMentorToMentorDTO)
-                        .collect(Collectors.toList());
-            } // 2. Nếu chỉ có name
-            else if (!isNullOrEmpty(name) && (skillIds == null || skillIds.isEmpty()) && availableFrom == null && availableTo == null) {
-                List<Mentors> mentorsList = mentorsRepository.findByName(name, AvailableStatus.ACTIVE);
-                mentorsDTOList = mentorsList
-                        .stream()
-                        .map(Converter::convertMentorToMentorDTO)
-                        .collect(Collectors.toList());
-            } // 3. Nếu chỉ có skills
-            else if (((skillIds != null)) && (isNullOrEmpty(name)) && availableFrom == null && availableTo == null) {
-                // Tìm các đối tượng Skills dựa trên skillIds
-                List<Skills> skillsList = skillsRepository.findAllById(skillIds);
-                if (skillsList.isEmpty()) {
-                    response.setStatusCode(400);
-                    response.setMessage("Skills not found.");
-                    return response;
-                }
-                List<Mentors> mentorsList = mentorsRepository.findBySkills(skillsList, AvailableStatus.ACTIVE);
-                mentorsDTOList = mentorsList
-                        .stream()
-                        .map(Converter::convertMentorToMentorDTO)
-                        .collect(Collectors.toList());
-            } // 4. Nếu chỉ có availableTo
-            else if (isNullOrEmpty(name) && (skillIds == null || skillIds.isEmpty()) && availableFrom == null && availableTo != null) {
-                List<Mentors> mentorsList = mentorScheduleRepository.findMentorsByAvailableTo(availableTo, AvailableStatus.ACTIVE);
-                mentorsDTOList = mentorsList
-                        .stream()
-                        .map(Converter::convertMentorToMentorDTO)
-                        .collect(Collectors.toList());
-            } // 5. Nếu chỉ có availableFrom
-            else if (isNullOrEmpty(name) && (skillIds == null || skillIds.isEmpty()) && availableFrom != null && availableTo == null) {
-                List<Mentors> mentorsList = mentorScheduleRepository.findMentorsByAvailableFrom(availableFrom, AvailableStatus.ACTIVE);
-                mentorsDTOList = mentorsList
-                        .stream()
-                        .map(Converter::convertMentorToMentorDTO)
-                        .collect(Collectors.toList());
-            } // 6. Nếu có cả name và skills
-            else if (!isNullOrEmpty(name) && (skillIds != null && !skillIds.isEmpty()) && availableFrom == null && availableTo == null) {
-                // Tìm các đối tượng Skills dựa trên skillIds
-                List<Skills> skillsList = skillsRepository.findAllById(skillIds);
-                if (skillsList.isEmpty()) {
-                    response.setStatusCode(400);
-                    response.setMessage("Skills not found.");
-                    return response;
-                }
-                List<Mentors> mentorsList = mentorScheduleRepository.findByNameAndSkills(name, skillsList, AvailableStatus.ACTIVE);
-                mentorsDTOList = mentorsList
-                        .stream()
-                        .map(Converter::convertMentorToMentorDTO)
-                        .collect(Collectors.toList());
-            } // 7. Nếu có cả name và availableTo
-            else if (!isNullOrEmpty(name) && availableTo != null && availableFrom == null && (skillIds == null || skillIds.isEmpty())) {
-                List<Mentors> mentorsList = mentorScheduleRepository.findMentorsByNameAndAvailableTo(name, availableTo, AvailableStatus.ACTIVE);
-                mentorsDTOList = mentorsList
-                        .stream()
-                        .map(Converter::convertMentorToMentorDTO)
-                        .collect(Collectors.toList());
-            } // 8. Nếu có cả name và availableFrom
-            else if (!isNullOrEmpty(name) && availableTo == null && availableFrom != null && (skillIds == null || skillIds.isEmpty())) {
-                List<Mentors> mentorsList = mentorScheduleRepository.findMentorsByNameAndAvailableFrom(name, availableFrom, AvailableStatus.ACTIVE);
-                mentorsDTOList = mentorsList
-                        .stream()
-                        .map(Converter::convertMentorToMentorDTO)
-                        .collect(Collectors.toList());
-            } // 9. Nếu có cả skills và availableTo
-            else if (isNullOrEmpty(name) && availableTo != null && availableFrom == null && (skillIds != null || !skillIds.isEmpty())) {
-                // Tìm các đối tượng Skills dựa trên skillIds
-                List<Skills> skillsList = skillsRepository.findAllById(skillIds);
-                if (skillsList.isEmpty()) {
-                    response.setStatusCode(400);
-                    response.setMessage("Skills not found.");
-                    return response;
-                }
-                List<Mentors> mentorsList = mentorScheduleRepository.findMentorsBySkillsAndAvailableTo(skillsList, availableTo, AvailableStatus.ACTIVE);
-                mentorsDTOList = mentorsList
-                        .stream()
-                        .map(Converter::convertMentorToMentorDTO)
-                        .collect(Collectors.toList());
-            } // 10. Nếu có cả skills và availableFrom
-            else if (isNullOrEmpty(name) && availableTo == null && availableFrom != null && (skillIds != null || !skillIds.isEmpty())) {
-                // Tìm các đối tượng Skills dựa trên skillIds
-                List<Skills> skillsList = skillsRepository.findAllById(skillIds);
-                if (skillsList.isEmpty()) {
-                    response.setStatusCode(400);
-                    response.setMessage("Skills not found.");
-                    return response;
-                }
-                List<Mentors> mentorsList = mentorScheduleRepository.findMentorsBySkillsAndAvailableFrom(skillsList, availableFrom, AvailableStatus.ACTIVE);
-                mentorsDTOList = mentorsList
-                        .stream()
-                        .map(Converter::convertMentorToMentorDTO)
-                        .collect(Collectors.toList());
-            } // 11. Nếu có cả availableTo và availableFrom
-            else if (isNullOrEmpty(name) && availableTo != null && availableFrom != null && (skillIds == null || skillIds.isEmpty())) {
-                List<Mentors> mentorsList = mentorScheduleRepository.findMentorsByAvailableFromAndTo(availableFrom, availableTo, AvailableStatus.ACTIVE);
-                mentorsDTOList = mentorsList
-                        .stream()
-                        .map(Converter::convertMentorToMentorDTO)
-                        .collect(Collectors.toList());
-            } // 12. Nếu có cả name, skills, availableTo
-            else if (!isNullOrEmpty(name) && availableTo != null && availableFrom == null && (skillIds != null || !skillIds.isEmpty())) {
-                List<Mentors> mentorsList = mentorScheduleRepository.findMentorsByNameSkillsAndAvailableTo(name, skillIds, availableTo, AvailableStatus.ACTIVE);
-                mentorsDTOList = mentorsList
-                        .stream()
-                        .map(Converter::convertMentorToMentorDTO)
-                        .collect(Collectors.toList());
-            } // 13. Nếu có cả name, skills, availableFrom
-            else if (!isNullOrEmpty(name) && skillIds != null && !skillIds.isEmpty() && availableFrom != null) {
-                List<Mentors> mentorsList = mentorScheduleRepository.findMentorsByNameSkillsAndAvailableFrom(name, skillIds, availableFrom, AvailableStatus.ACTIVE);
-                mentorsDTOList = mentorsList
-                        .stream()
-                        .map(Converter::convertMentorToMentorDTO)
-                        .collect(Collectors.toList());
-            } // 14. Nếu có cả skills, availableTo, availableFrom
-            else if (skillIds != null && !skillIds.isEmpty() && availableFrom != null && availableTo != null) {
-                // Kiểm tra nếu availableFrom không sau availableTo
-                if (availableFrom.isAfter(availableTo)) {
-                    response.setStatusCode(400);
-                    response.setMessage("availableFrom cannot be after availableTo.");
-                    return response;
+            Specification<Mentors> spec = MentorsSpecification.hasAvailableStatus(AvailableStatus.ACTIVE);
+            if (!isNullOrEmpty(name)) {
+                spec = spec.and(MentorsSpecification.userIdIn(nameSearchIndex.findMentorUserIds(name)));
+            }
+            boolean filterSkills = skillIds != null && !skillIds.isEmpty();
+            boolean filterTime = availableFrom != null || availableTo != null;
+            if (filterSkills && skillsRepository.findAllById(skillIds).isEmpty()) {
+                throw new OurException("Skills not found.");
+            }
+            if ((filterSkills || filterTime) && mentorSearchIndex.isReady()) {
+                List<Long> mentorIds = mentorSearchIndex.findMentorIds(skillIds, matchAllSkills, availableFrom, availableTo);
+                if (mentorIds.isEmpty()) {
+                    throw new OurException("No mentors found.");
                 }
-
-                // Lấy danh sách các mentor dựa trên kỹ năng và khoảng thời gian có sẵn
-                List<Mentors> mentorsList = mentorScheduleRepository.findMentorsBySkillsAndAvailableFromTo(skillIds, availableFrom, availableTo, AvailableStatus.ACTIVE);
-                mentorsDTOList = mentorsList
-                        .stream()
-                        .map(Converter::convertMentorToMentorDTO)
-                        .collect(Collectors.toList());
-            } // 15. Nếu có cả name, availableFrom và availableTo
-            else if (!isNullOrEmpty(name) && availableFrom != null && availableTo != null) {
-                // Kiểm tra nếu availableFrom không sau availableTo
-                if (availableFrom.isAfter(availableTo)) {
-                    response.setStatusCode(400);
-                    response.setMessage("availableFrom cannot be after availableTo.");
-                    return response;
+                spec = spec.and(MentorsSpecification.idIn(mentorIds));
+            } else {
+                if (filterSkills && matchAllSkills) {
+                    for (Long skillId : skillIds) {
+                        spec = spec.and(MentorsSpecification.hasAnySkill(List.of(skillId)));
+                    }
+                } else if (filterSkills) {
+                    spec = spec.and(MentorsSpecification.hasAnySkill(skillIds));
                 }
-
-                // Lấy danh sách các mentor dựa trên tên và khoảng thời gian có sẵn
-                List<Mentors> mentorsList = mentorScheduleRepository.findMentorsByNameAndAvailableFromTo(name, availableFrom, availableTo, AvailableStatus.ACTIVE);
-                mentorsDTOList = mentorsList
-                        .stream()
-                        .map(Converter::convertMentorToMentorDTO)
-                        .collect(Collectors.toList());
-            } // 16. Nếu có cả name, skills, availableTo, availableFrom
-            else if (!isNullOrEmpty(name) && skillIds != null && !skillIds.isEmpty() && availableFrom != null && availableTo != null) {
-                // Kiểm tra nếu availableFrom không sau availableTo
-                if (availableFrom.isAfter(availableTo)) {
-                    response.setStatusCode(400);
-                    response.setMessage("availableFrom cannot be after availableTo.");
-                    return response;
+                if (filterTime) {
+                    spec = spec.and(MentorsSpecification.hasScheduleWithin(availableFrom, availableTo));
                 }
-
-                // Lấy danh sách các mentor dựa trên tên, kỹ năng, và khoảng thời gian có sẵn
-                List<Mentors> mentorsList = mentorScheduleRepository.findMentorsByNameSkillsAvailableFromAndTo(name, skillIds, availableFrom, availableTo, AvailableStatus.ACTIVE);
-                mentorsDTOList = mentorsList
-                        .stream()
-                        .map(Converter::convertMentorToMentorDTO)
-                        .collect(Collectors.toList());
             }
 
-            if (mentorsDTOList.isEmpty()) {
+            Sort byStar = Sort.by(Sort.Direction.DESC, "star").and(Sort.by("id"));
+            Pageable pageable = size == null
+                    ? Pageable.unpaged(byStar)
+                    : PageRequest.of(page == null ? 0 : page, size, byStar);
+            Page<Mentors> mentorsPage = mentorsRepository.findAll(spec, pageable);
+            List<Mentors> mentorsList = mentorsPage.getContent();
+
+            if (mentorsList.isEmpty()) {
                 response.setStatusCode(400);
                 response.setMessage("No mentors found.");
             } else {
-
-                List<MentorScheduleDTO> mentorScheduleDTOList = null;
-                for (MentorsDTO m : mentorsDTOList) {
-                    List<MentorScheduleDTO> scheduleDTOList = mentorScheduleService.findAllMentorScheduleByMentor(m.getId());
-                    m.setMentorSchedules(scheduleDTOList);
+                //Load what the converter reads for the whole page at once
+                mentorsRepository.fetchSkills(mentorsList);
+                mentorsRepository.fetchAssignedClasses(mentorsList);
+
+                Map<Long, List<MentorScheduleDTO>> schedulesByMentor = mentorScheduleRepository
+                        .findByMentorIdInAndAvailableStatusAndStatus(
+                                mentorsList.stream().map(Mentors::getId).collect(Collectors.toList()),
+                                AvailableStatus.ACTIVE, MentorScheduleStatus.AVAILABLE)
+                        .stream()
+                        .collect(Collectors.groupingBy(schedule -> schedule.getMentor().getId(),
+                                Collectors.mapping(Converter::convertMentorScheduleToMentorScheduleDTO, Collectors.toList())));
+
+                List<MentorsDTO> mentorsDTOList = new ArrayList<>();
+                for (Mentors mentor : mentorsList) {
+                    MentorsDTO mentorsDTO = Converter.convertMentorToMentorDTO(mentor);
+                    mentorsDTO.setMentorSchedules(schedulesByMentor.getOrDefault(mentor.getId(), new ArrayList<>()));
+                    mentorsDTOList.add(mentorsDTO);
                 }
 
-                // Sắp xếp danh sách mentor theo starRating (giảm dần)
-                mentorsDTOList = mentorsDTOList.stream()
-                        .sorted(Comparator.comparing(MentorsDTO::getStar).reversed())
-                        .collect(Collectors.toList());
-
                 response.setStatusCode(200);
                 response.setMentorsDTOList(mentorsDTOList);
+                response.setTotalElements(mentorsPage.getTotalElements());
+                response.setTotalPages(mentorsPage.getTotalPages());
                 response.setMessage("Mentors found successfully.");
             }
         } catch (OurException e) {
@@ -463,17 +384,28 @@ public class MentorsService {
     public Response importMentorFromExcel(MultipartFile file) {
         Response response = new Response();
         try {
-            List<CreateMentorRequest> createMentorRequests = ExcelHelper.excelToMentors(file);
-            List<String> errors = new ArrayList<>();
-            for (CreateMentorRequest request : createMentorRequests) {
-                Response createResponse = createMentorFormExcel(request);
-                if (createResponse.getStatusCode() != 200 && request.getFullName() != null) {
-                    errors.add(" [" + request.getFullName() + "] ");
+            MentorImport anImport = new MentorImport();
+            ImportReportDTO report = anImport.report;
+            List<Map.Entry<Integer, CreateMentorRequest>> pending = new ArrayList<>();
+            ExcelHelper.excelToMentors(file, (rowNumber, request, error) -> {
+                report.setTotalRows(report.getTotalRows() + 1);
+                if (error != null) {
+                    report.addError(rowNumber, request.getFullName(), error);
+                    return;
                 }
-            }
-            if (!errors.isEmpty()) {
+                pending.add(Map.entry(rowNumber, request));
+                if (pending.size() == IMPORT_HASH_BATCH_SIZE) {
+                    createMentorsFromExcel(pending, anImport);
+                }
+            });
+            createMentorsFromExcel(pending, anImport);
+            response.setImportReportDTO(report);
+
+            if (!report.getErrors().isEmpty()) {
                 response.setStatusCode(400);
-                response.setMessage("Failed to import some mentors: " + String.join(", ", errors));
+                response.setMessage("Failed to import some mentors: " + report.getErrors().stream()
+                        .map(ImportRowErrorDTO::toString)
+                        .collect(Collectors.joining(", ")));
             } else {
                 response.setStatusCode(200);
                 response.setMessage("All mentors created successfully");
@@ -488,10 +420,109 @@ public class MentorsService {
         return response;
     }
 
+    //Check the rows against the database and the file like StudentImportService, then hash
+    //the passwords of the accepted rows together and create the mentors in row order
+    private void createMentorsFromExcel(List<Map.Entry<Integer, CreateMentorRequest>> rows, MentorImport anImport) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        ImportReportDTO report = anImport.report;
+
+        // Giá trị đã tồn tại trong hệ thống, một truy vấn cho mỗi cột
+        Set<String> takenUsernames = StudentImportService.keys(usersRepository.findExistingUsernames(
+                importValues(rows, CreateMentorRequest::getUsername), AvailableStatus.ACTIVE));
+        Set<String> takenEmails = StudentImportService.keys(usersRepository.findExistingEmails(
+                importValues(rows, CreateMentorRequest::getEmail), AvailableStatus.ACTIVE));
+        Set<String> takenPhones = StudentImportService.keys(usersRepository.findExistingPhones(
+                importValues(rows, CreateMentorRequest::getPhone), AvailableStatus.ACTIVE));
+        Set<String> takenCodes = StudentImportService.keys(mentorsRepository.findExistingMentorCodes(
+                importValues(rows, CreateMentorRequest::getMentorCode), AvailableStatus.ACTIVE));
+
+        List<Map.Entry<Integer, CreateMentorRequest>> accepted = new ArrayList<>();
+        for (Map.Entry<Integer, CreateMentorRequest> row : rows) {
+            CreateMentorRequest request = row.getValue();
+            String error = null;
+            if (StudentImportService.taken(request.getUsername(), takenUsernames, anImport.usernames)) {
+                error = "Username already exists";
+            } else if (StudentImportService.taken(request.getEmail(), takenEmails, anImport.emails)) {
+                error = "Email already exists";
+            } else if (StudentImportService.taken(request.getPhone(), takenPhones, anImport.phones)) {
+                error = "Phone already exists";
+            } else if (StudentImportService.taken(request.getMentorCode(), takenCodes, anImport.mentorCodes)) {
+                error = "MentorCode already exists";
+            } else if (request.getSkilllNamesList() != null) {
+                for (String skillName : request.getSkilllNamesList()) {
+                    boolean found = anImport.skillNames.computeIfAbsent(skillName,
+                            name -> skillsRepository.findBySkillNameExcel(name, AvailableStatus.ACTIVE).isPresent());
+                    if (!found) {
+                        error = "Skill not found: " + skillName;
+                        break;
+                    }
+                }
+            }
+
+            if (error != null) {
+                report.addError(row.getKey(), request.getFullName(), error);
+                continue;
+            }
+            anImport.usernames.add(StudentImportService.key(request.getUsername()));
+            anImport.emails.add(StudentImportService.key(request.getEmail()));
+            if (request.getPhone() != null) {
+                anImport.phones.add(StudentImportService.key(request.getPhone()));
+            }
+            anImport.mentorCodes.add(StudentImportService.key(request.getMentorCode()));
+            accepted.add(row);
+        }
+        rows.clear();
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        List<String> passwords = new ArrayList<>(accepted.size());
+        for (int i = 0; i < accepted.size(); i++) {
+            passwords.add(Ultis.generateRandomString());
+        }
+        List<String> encodedPasswords = passwordHasher.encodeAll(passwords);
+
+        for (int i = 0; i < accepted.size(); i++) {
+            CreateMentorRequest request = accepted.get(i).getValue();
+            Response createResponse = createMentorFormExcel(request, passwords.get(i), encodedPasswords.get(i));
+            if (createResponse.getStatusCode() != 200) {
+                report.addError(accepted.get(i).getKey(), request.getFullName(), createResponse.getMessage());
+            } else {
+                report.setImportedRows(report.getImportedRows() + 1);
+            }
+        }
+    }
+
+    private static Set<String> importValues(List<Map.Entry<Integer, CreateMentorRequest>> rows, Function<CreateMentorRequest, String> column) {
+        return rows.stream()
+                .map(row -> column.apply(row.getValue()))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+    }
+
+    private static final class MentorImport {
+
+        private final ImportReportDTO report = new ImportReportDTO();
+
+        //Values of the rows already accepted in this file
+        private final Set<String> usernames = new HashSet<>();
+        private final Set<String> emails = new HashSet<>();
+        private final Set<String> phones = new HashSet<>();
+        private final Set<String> mentorCodes = new HashSet<>();
+
+        //Skill names of the file, found or not
+        private final Map<String, Boolean> skillNames = new HashMap<>();
+    }
+
     /**
      *  Phương thức tạo mentor từ Excel
+     *
+     * @param password sent to the mentor once the account is created
+     * @param encodedPassword the same password, already hashed
      */
-    public Response createMentorFormExcel(CreateMentorRequest request) {
+    public Response createMentorFormExcel(CreateMentorRequest request, String password, String encodedPassword) {
         Response response = new Response();
         try {
             // Kiểm tra nếu username hoặc email đã tồn tại
@@ -513,9 +544,6 @@ public class MentorsService {
             Role role = roleRepository.findByRoleName("MENTOR")
                     .orElseThrow(() -> new OurException("No role name"));
 
-            // Mã hóa mật khẩu
-            String encodedPassword = passwordEncoder.encode(emailService.sendPasswordCreateUser(request.getEmail().trim(), request.getUsername().trim()));
-
             // Tạo đối tượng User mới
             Users newUser = new Users();
             newUser.setUsername(request.getUsername());
@@ -551,10 +579,15 @@ public class MentorsService {
 
                 mentor.setSkills(skillsList);
                 mentorsRepository.save(mentor);
+                mentorSearchIndex.mentorChanged(mentor.getId());
+                mentorLeaderboard.mentorChanged(mentor.getId());
 
                 newUser.setMentor(mentor);
                 usersRepository.save(newUser);
 
+                // Gửi mật khẩu cho mentor
+                emailService.queueHtmlMail(emailService.createPasswordEmail(request.getEmail().trim(), request.getUsername().trim(), password));
+
                 response.setStatusCode(200);
                 response.setMessage("Student created successfully");
             }
@@ -575,10 +608,15 @@ public class MentorsService {
         Response response = new Response();
         List<MentorsDTO> mentorsDTOList = new ArrayList<>();
         try {
-            Pageable topThree = PageRequest.of(0, 3);
-            List<Mentors> topMentors = mentorsRepository.findTopMentors(topThree, AvailableStatus.ACTIVE);
-            mentorsDTOList = topMentors
+            //Ranking kept in memory by MentorLeaderboard, only the three mentors are read
+            List<Long> topIds = mentorLeaderboard.topMentorIds(3);
+            Map<Long, Mentors> topMentors = mentorsRepository.findAllById(topIds)
+                    .stream()
+                    .collect(Collectors.toMap(Mentors::getId, m -> m));
+            mentorsDTOList = topIds
                     .stream()
+                    .map(topMentors::get)
+                    .filter(Objects::nonNull)
                     .map(Converter::convertMentorToMentorDTO)
                     .collect(Collectors.toList());
             response.setStatusCode(200);
@@ -594,26 +632,6 @@ public class MentorsService {
         return response;
     }
 
-    /**
-     *  Phương thức tạo report rating cho mentor theo kì
-     */
-    public void generateMentorReportRating(Semester semester){
-        List<Mentors> mentorsList = mentorsRepository.findByAvailableStatus(AvailableStatus.ACTIVE);
-
-        for (Mentors m : mentorsList) {
-            MentorReport report = new MentorReport();
-            report.setMentor(m);
-            report.setSemester(semester);
-            report.setStarRating(m.getStar());
-            report.setDateCreated(LocalDate.now());
-            mentorReportRepository.save(report);
-
-            m.setStar(5.0f);
-            m.setTotalTimeRemain(150.0f);
-            mentorsRepository.save(m);
-        }
-    }
-
     public Response getMentorStarsReportBySemesterId(Long semesterId) {
         Response response = new Response();
         try {
@@ -622,8 +640,13 @@ public class MentorsService {
                 throw new OurException("Semester ID cannot be null");
             }
 
-            List<MentorReport> report = mentorReportRepository.findBySemesterId(semesterId);
+            List<MentorReport> report = mentorReportRepository.findReportBySemesterId(semesterId);
             if (!report.isEmpty()) {
+                //The counts are stored on the rows, only the mentors' collections are left to load
+                List<Mentors> mentors = report.stream().map(MentorReport::getMentor).toList();
+                mentorsRepository.fetchSkills(mentors);
+                mentorsRepository.fetchAssignedClasses(mentors);
+
                 List<MentorReportDTO> reportDTO = report
                         .stream()
                         .map(Converter::convertReportToReportDTO)
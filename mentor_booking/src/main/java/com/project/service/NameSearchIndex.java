@@ -0,0 +1,188 @@
+package com.project.service;
+
+import com.project.enums.AvailableStatus;
+import com.project.ultis.TransactionHooks;
+import com.project.ultis.TrigramIndex;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Accent-insensitive name search over user full names, topic names and group
+ * names, replacing the LIKE '%name%' queries which cannot use an index.
+ *
+ * Each name kind is a {@link TrigramIndex} of every row, deleted ones too.
+ * User matches are narrowed to the mentors or the students of the classes
+ * asked for, with the status kept next to the index, so a short common name
+ * fragment does not turn into thousands of ids in the SQL IN list. Callers
+ * keep their filters in SQL, the index may only be a little behind.
+ * Rows are fed by {@link NameSearchListener} after the transaction commits
+ * and everything is reloaded every few minutes in case a change was missed,
+ * e.g. by a native update.
+ */
+@Service
+public class NameSearchIndex {
+
+    private static final long REBUILD_INTERVAL_MS = 10 * 60 * 1000;
+
+    private static final String USERS_SQL = "SELECT id, full_name FROM users";
+    private static final String ROLES_SQL
+            = "SELECT u.id, m.available_status, s.available_status, s.class_id FROM users u "
+            + "LEFT JOIN mentors m ON m.user_id = u.id "
+            + "LEFT JOIN students s ON s.user_id = u.id "
+            + "WHERE m.id IS NOT NULL OR s.id IS NOT NULL";
+    private static final String TOPICS_SQL = "SELECT id, topic_name FROM topic";
+    private static final String GROUPS_SQL = "SELECT id, group_name FROM group_table";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final TrigramIndex users = new TrigramIndex();
+    private final TrigramIndex topics = new TrigramIndex();
+    private final TrigramIndex groups = new TrigramIndex();
+
+    //Mentor or student side of each user, by user id
+    private final Map<Long, Role> roles = new ConcurrentHashMap<>();
+
+    private volatile boolean loaded;
+
+    /**
+     * Ids of the users of active mentors whose full name contains the name
+     */
+    public List<Long> findMentorUserIds(String name) {
+        ensureLoaded();
+        List<Long> ids = new ArrayList<>();
+        for (Long id : users.search(name)) {
+            Role role = roles.get(id);
+            if (role != null && role.mentorStatus() == AvailableStatus.ACTIVE) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Ids of the users of the class's students whose full name contains the
+     * name, only active students or every student that is not deleted
+     */
+    public List<Long> findStudentUserIds(String name, Long classId, boolean activeOnly) {
+        return findStudentUserIdsByClass(name, List.of(classId), activeOnly).getOrDefault(classId, List.of());
+    }
+
+    /**
+     * Same as {@link #findStudentUserIds} for several classes with one search
+     *
+     * @return the ids by class id, a class without match is absent
+     */
+    public Map<Long, List<Long>> findStudentUserIdsByClass(String name, Collection<Long> classIds, boolean activeOnly) {
+        ensureLoaded();
+        Map<Long, List<Long>> idsByClass = new HashMap<>();
+        for (Long id : users.search(name)) {
+            Role role = roles.get(id);
+            if (role == null || role.studentStatus() == null || role.classId() == null || !classIds.contains(role.classId())) {
+                continue;
+            }
+            boolean visible = activeOnly
+                    ? role.studentStatus() == AvailableStatus.ACTIVE
+                    : role.studentStatus() != AvailableStatus.DELETED;
+            if (visible) {
+                idsByClass.computeIfAbsent(role.classId(), key -> new ArrayList<>()).add(id);
+            }
+        }
+        return idsByClass;
+    }
+
+    public List<Long> findTopicIds(String name) {
+        ensureLoaded();
+        return topics.search(name);
+    }
+
+    public List<Long> findGroupIds(String name) {
+        ensureLoaded();
+        return groups.search(name);
+    }
+
+    /**
+     * Index the new name once the transaction commits, a null name removes the row
+     */
+    public void userChanged(Long id, String fullName) {
+        TransactionHooks.afterCommit(() -> users.put(id, fullName));
+    }
+
+    public void topicChanged(Long id, String topicName) {
+        TransactionHooks.afterCommit(() -> topics.put(id, topicName));
+    }
+
+    public void groupChanged(Long id, String groupName) {
+        TransactionHooks.afterCommit(() -> groups.put(id, groupName));
+    }
+
+    public void mentorChanged(Long userId, AvailableStatus status) {
+        TransactionHooks.afterCommit(() -> roles.compute(userId, (id, role) -> role == null
+                ? new Role(status, null, null)
+                : new Role(status, role.studentStatus(), role.classId())));
+    }
+
+    public void studentChanged(Long userId, Long classId, AvailableStatus status) {
+        TransactionHooks.afterCommit(() -> roles.compute(userId, (id, role) -> new Role(role == null ? null : role.mentorStatus(), status, classId)));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelay = REBUILD_INTERVAL_MS, fixedRate = REBUILD_INTERVAL_MS)
+    public synchronized void rebuild() {
+        try {
+            users.reset(load(USERS_SQL));
+            topics.reset(load(TOPICS_SQL));
+            groups.reset(load(GROUPS_SQL));
+            Map<Long, Role> loadedRoles = new HashMap<>();
+            jdbcTemplate.query(ROLES_SQL, rs -> {
+                loadedRoles.put(rs.getLong(1), new Role(status(rs.getString(2)), status(rs.getString(3)), rs.getObject(4, Long.class)));
+            });
+            roles.keySet().retainAll(loadedRoles.keySet());
+            roles.putAll(loadedRoles);
+            loaded = true;
+            System.out.println("Name search index rebuilt with " + users.size() + " users, "
+                    + topics.size() + " topics and " + groups.size() + " groups.");
+        } catch (Exception e) {
+            System.out.println("Error while rebuilding name search index: " + e.getMessage());
+        }
+    }
+
+    //A search can come before the application is ready
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    rebuild();
+                }
+            }
+            if (!loaded) {
+                throw new IllegalStateException("Name search index is not available");
+            }
+        }
+    }
+
+    private Map<Long, String> load(String sql) {
+        Map<Long, String> rows = new HashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            rows.put(rs.getLong(1), rs.getString(2));
+        });
+        return rows;
+    }
+
+    private static AvailableStatus status(String value) {
+        return value == null ? null : AvailableStatus.valueOf(value);
+    }
+
+    private record Role(AvailableStatus mentorStatus, AvailableStatus studentStatus, Long classId) {
+    }
+}
@@ -0,0 +1,58 @@
+package com.project.service;
+
+import com.project.enums.AvailableStatus;
+import com.project.model.Group;
+import com.project.model.Mentors;
+import com.project.model.Students;
+import com.project.model.Topic;
+import com.project.model.Users;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+/**
+ * Entity listener of Users, Topic, Group, Mentors and Students keeping the
+ * name search index up to date. Hibernate gets it from the Spring context, so it can be injected.
+ */
+@Component
+public class NameSearchListener {
+
+    @Lazy
+    @Autowired
+    private NameSearchIndex nameSearchIndex;
+
+    @PostPersist
+    @PostUpdate
+    public void saved(Object entity) {
+        if (entity instanceof Users user) {
+            nameSearchIndex.userChanged(user.getId(), user.getFullName());
+        } else if (entity instanceof Topic topic) {
+            nameSearchIndex.topicChanged(topic.getId(), topic.getTopicName());
+        } else if (entity instanceof Group group) {
+            nameSearchIndex.groupChanged(group.getId(), group.getGroupName());
+        } else if (entity instanceof Mentors mentor && mentor.getUser() != null) {
+            nameSearchIndex.mentorChanged(mentor.getUser().getId(), mentor.getAvailableStatus());
+        } else if (entity instanceof Students student && student.getUser() != null) {
+            nameSearchIndex.studentChanged(student.getUser().getId(),
+                    student.getAClass() == null ? null : student.getAClass().getId(), student.getAvailableStatus());
+        }
+    }
+
+    @PostRemove
+    public void removed(Object entity) {
+        if (entity instanceof Users user) {
+            nameSearchIndex.userChanged(user.getId(), null);
+        } else if (entity instanceof Topic topic) {
+            nameSearchIndex.topicChanged(topic.getId(), null);
+        } else if (entity instanceof Group group) {
+            nameSearchIndex.groupChanged(group.getId(), null);
+        } else if (entity instanceof Mentors mentor && mentor.getUser() != null) {
+            nameSearchIndex.mentorChanged(mentor.getUser().getId(), AvailableStatus.DELETED);
+        } else if (entity instanceof Students student && student.getUser() != null) {
+            nameSearchIndex.studentChanged(student.getUser().getId(), null, AvailableStatus.DELETED);
+        }
+    }
+}
@@ -16,6 +16,7 @@ import com.project.repository.NotificationRepository;
 import com.project.repository.UsersRepository;
 import com.project.ultis.Converter;
 import org.modelmapper.ModelMapper;
+import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Lazy;
@@ -47,6 +48,7 @@ public class NotificationService {
     /**
      *  Phương thức tạo tin nhắn cho hệ thống
      */
+    @Transactional
     public Response createNotification(NotificationsDTO notificationsDTO) {
         Response response = new Response();
         try {
@@ -94,12 +96,12 @@ public class NotificationService {
                 }
             }
 
-            // Tạo email thông báo và gửi tới người nhận
+            // Tạo email thông báo, được gửi tới người nhận sau khi lưu
             EmailRequest emailRequest = new EmailRequest();
             emailRequest.setRecipient(reciver.getEmail());
             emailRequest.setMsgBody(notificationsDTO.getMessage());
             emailRequest.setSubject(String.valueOf(notificationsDTO.getType()));
-            emailService.sendHtmlMail(emailRequest);
+            emailService.queueNotificationMail(notificationsDTO.getType(), emailRequest);
 
             // Lưu notification
             notificationRepository.save(notifications);
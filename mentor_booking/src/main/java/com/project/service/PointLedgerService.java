@@ -0,0 +1,194 @@
+package com.project.service;
+
+import com.project.enums.AvailableStatus;
+import com.project.enums.PointHistoryStatus;
+import com.project.exception.OurException;
+import com.project.model.Booking;
+import com.project.model.Group;
+import com.project.model.Students;
+import com.project.repository.GroupRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+/**
+ * Keeps the group point pool and the per student share in sync.
+ *
+ * Every booking that takes or gives back points spreads the new group total
+ * evenly to the members and writes one point history row per member. All the
+ * rows are written with one JDBC batch and two updates, so the number of
+ * round trips does not depend on the group size. The group update checks the
+ * group version, a stale group fails instead of overwriting the pool.
+ * Refunding many bookings at once groups them by group and writes every
+ * group with the same batches.
+ */
+@Service
+public class PointLedgerService {
+
+    private static final String INSERT_POINT_HISTORY
+            = "INSERT INTO point_history (point, status, date_created, date_updated, student_id, booking_id, available_status) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_STUDENTS_POINT
+            = "UPDATE students SET point = ? WHERE group_id = ?";
+
+    private static final String UPDATE_GROUP_TOTAL_POINT
+            = "UPDATE group_table SET total_point = ?, version = COALESCE(version, 0) + 1 WHERE id = ? AND COALESCE(version, 0) = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Take the booking's point pay from the group pool
+     *
+     * @param group the group that made the booking
+     * @param booking the saved booking
+     */
+    @Transactional
+    public void redeem(Group group, Booking booking) {
+        redistribute(group, booking, -booking.getPointPay(), PointHistoryStatus.REDEEMED);
+    }
+
+    /**
+     * Give the booking's point pay back to the group pool (rejected,
+     * cancelled or expired booking)
+     *
+     * @param group the group that made the booking
+     * @param booking the booking being refunded
+     */
+    @Transactional
+    public void refund(Group group, Booking booking) {
+        redistribute(group, booking, booking.getPointPay(), PointHistoryStatus.ADJUSTED);
+    }
+
+    /**
+     * Give the point pay of every booking back to its group. The groups are
+     * loaded with one query and written with one batch per table, whatever
+     * the number of bookings and groups
+     *
+     * @param bookings the bookings being refunded
+     */
+    @Transactional
+    public void refundAll(List<Booking> bookings) {
+        if (bookings.isEmpty()) {
+            return;
+        }
+        Map<Long, List<Booking>> bookingsByGroup = new LinkedHashMap<>();
+        for (Booking booking : bookings) {
+            bookingsByGroup.computeIfAbsent(booking.getGroup().getId(), id -> new ArrayList<>()).add(booking);
+        }
+        List<Group> groups = groupRepository.findWithStudentsByIdsAndAvailableStatus(bookingsByGroup.keySet(), AvailableStatus.ACTIVE);
+        if (groups.size() != bookingsByGroup.size()) {
+            throw new OurException("Group not found");
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> groupRows = new ArrayList<>();
+        List<Object[]> studentRows = new ArrayList<>();
+        List<Object[]> historyRows = new ArrayList<>();
+        int[] totalPoints = new int[groups.size()];
+        int[] newPoints = new int[groups.size()];
+        for (int i = 0; i < groups.size(); i++) {
+            Group group = groups.get(i);
+            List<Students> groupMembers = group.getStudents();
+            if (groupMembers == null || groupMembers.isEmpty()) {
+                throw new OurException("This group doesn't have any member");
+            }
+
+            //Each booking is a separate history entry, as if they had been refunded one by one
+            int totalPoint = group.getTotalPoint();
+            Integer previousPoint = null;
+            for (Booking booking : bookingsByGroup.get(group.getId())) {
+                totalPoint += booking.getPointPay();
+                int newPoint = totalPoint / groupMembers.size();
+                for (Students member : groupMembers) {
+                    int change = newPoint - (previousPoint == null ? member.getPoint() : previousPoint);
+                    historyRows.add(new Object[]{change, PointHistoryStatus.ADJUSTED.name(), now, now,
+                        member.getId(), booking.getId(), AvailableStatus.ACTIVE.name()});
+                }
+                previousPoint = newPoint;
+            }
+            totalPoints[i] = totalPoint;
+            newPoints[i] = previousPoint;
+            long version = group.getVersion() == null ? 0 : group.getVersion();
+            groupRows.add(new Object[]{totalPoint, group.getId(), version});
+            studentRows.add(new Object[]{previousPoint, group.getId()});
+        }
+
+        //Optimistic check, another booking of a group may have changed its pool since it was loaded
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_GROUP_TOTAL_POINT, groupRows);
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                throw new ObjectOptimisticLockingFailureException(Group.class, groups.get(i).getId());
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_POINT_HISTORY, historyRows);
+        jdbcTemplate.batchUpdate(UPDATE_STUDENTS_POINT, studentRows);
+
+        for (int i = 0; i < groups.size(); i++) {
+            Group group = groups.get(i);
+            if (entityManager.contains(group)) {
+                entityManager.detach(group);
+            }
+            group.setTotalPoint(totalPoints[i]);
+            group.setVersion((group.getVersion() == null ? 0 : group.getVersion()) + 1);
+            for (Students member : group.getStudents()) {
+                member.setPoint(newPoints[i]);
+            }
+        }
+    }
+
+    private void redistribute(Group group, Booking booking, int pointChange, PointHistoryStatus status) {
+        List<Students> groupMembers = group.getStudents();
+        if (groupMembers == null || groupMembers.isEmpty()) {
+            throw new OurException("This group doesn't have any member");
+        }
+
+        int totalPoint = group.getTotalPoint() + pointChange;
+        int newPoint = totalPoint / groupMembers.size();
+        long version = group.getVersion() == null ? 0 : group.getVersion();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        //Optimistic check, another booking of this group may have changed the pool since it was loaded
+        if (jdbcTemplate.update(UPDATE_GROUP_TOTAL_POINT, totalPoint, group.getId(), version) == 0) {
+            throw new ObjectOptimisticLockingFailureException(Group.class, group.getId());
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_POINT_HISTORY, groupMembers, groupMembers.size(), (ps, member) -> {
+            ps.setInt(1, newPoint - member.getPoint());
+            ps.setString(2, status.name());
+            ps.setTimestamp(3, now);
+            ps.setTimestamp(4, now);
+            ps.setLong(5, member.getId());
+            ps.setLong(6, booking.getId());
+            ps.setString(7, AvailableStatus.ACTIVE.name());
+        });
+        jdbcTemplate.update(UPDATE_STUDENTS_POINT, newPoint, group.getId());
+
+        //The rows are already written, detach the group (and its members) so Hibernate does not flush them again
+        if (entityManager.contains(group)) {
+            entityManager.detach(group);
+        }
+        group.setTotalPoint(totalPoint);
+        group.setVersion(version + 1);
+        for (Students member : groupMembers) {
+            member.setPoint(newPoint);
+        }
+    }
+}
@@ -8,7 +8,6 @@ import com.project.enums.AvailableStatus;
 import com.project.exception.OurException;
 
 import com.project.model.Meeting;
-import com.project.model.Mentors;
 import com.project.model.Reviews;
 import com.project.model.Users;
 import com.project.repository.MeetingRepository;
@@ -17,9 +16,13 @@ import com.project.repository.ReviewsRepository;
 import com.project.repository.UsersRepository;
 import com.project.ultis.Converter;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -40,6 +43,13 @@ public class ReviewsService {
     @Autowired
     private MeetingRepository meetingRepository;
 
+    @Autowired
+    private MentorLeaderboard mentorLeaderboard;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Transactional
     public Response createReview(ReviewsDTO createRequest) {
         Response response = new Response();
         try {
@@ -63,7 +73,9 @@ public class ReviewsService {
             review.setMeeting(meeting);
             reviewsRepository.save(review);
 
-            updateMentorStar(userReceive.getId());
+            if (isCounted(review)) {
+                updateMentorStar(userReceive.getId(), review.getRating(), 1);
+            }
 
             ReviewsDTO dto = convertReviewToReviewDTO(review);
             response.setReviewsDTO(dto);
@@ -79,19 +91,38 @@ public class ReviewsService {
         return response;
     }
 
-    private void updateMentorStar(Long mentorId) {
-        List<Reviews> reviews = reviewsRepository.findByUserReceiveId(mentorId, Sort.by(Sort.Direction.DESC, "dateCreated"));
-        double sumRatings = reviews.stream()
-                .mapToInt(Reviews::getRating)
-                .sum();
-        Mentors mentor = mentorsRepository.findByUser_Id(mentorId);
-        if (mentor != null) {
-            double currentAverageRating = mentor.getStar();
-            double totalRatings = sumRatings + currentAverageRating;
-            double averageRating = totalRatings / (reviews.size() + 1);  //Rule of average for this project
+    /**
+     * Apply a rating change to the mentor's running totals and star with one
+     * UPDATE. The star is still (sum of ratings + current star) / (count + 1),
+     * the rule of average for this project, without reading the reviews.
+     *
+     * @param userId the user receiving the reviews, nothing happens if not a mentor
+     */
+    private void updateMentorStar(Long userId, long sumDelta, int countDelta) {
+        if (sumDelta == 0 && countDelta == 0) {
+            return;
+        }
+        if (mentorsRepository.addRating(userId, sumDelta, countDelta) > 0) {
+            mentorsRepository.findIdByUserId(userId).ifPresent(mentorLeaderboard::mentorChanged);
+        }
+    }
+
+    //Deleted reviews are not part of the star
+    private boolean isCounted(Reviews review) {
+        return review.getAvailableStatus() != AvailableStatus.DELETED;
+    }
 
-            mentor.setStar((float) averageRating);
-            mentorsRepository.save(mentor);
+    /**
+     * Fill the rating totals of the mentors written before the columns
+     * existed. Only NULL rows are touched, so after the first start it
+     * changes nothing. Runs before requests are served, so no rating added
+     * meanwhile can be overwritten.
+     */
+    @PostConstruct
+    public void backfillRatingTotals() {
+        Integer rows = new TransactionTemplate(transactionManager).execute(status -> mentorsRepository.backfillRatingTotals());
+        if (rows != null && rows > 0) {
+            System.out.println("Mentor rating totals filled for " + rows + " mentors.");
         }
     }
 
@@ -201,13 +232,18 @@ public class ReviewsService {
         return response;
     }
 
+    @Transactional
     public Response deleteReview(Long id) {
         Response response = new Response();
         try {
             Reviews review = reviewsRepository.findById(id)
                     .orElseThrow(() -> new OurException("Review not found"));
+            boolean counted = isCounted(review);
             review.setAvailableStatus(AvailableStatus.DELETED);
             reviewsRepository.save(review);
+            if (counted) {
+                updateMentorStar(review.getUserReceive().getId(), -review.getRating(), -1);
+            }
             response.setStatusCode(200);
             response.setMessage("Review deleted successfully");
         } catch (OurException e) {
@@ -220,11 +256,15 @@ public class ReviewsService {
         return response;
     }
 
+    @Transactional
     public Response updateReview(Long id, ReviewsDTO updateRequest) {
         Response response = new Response();
         try {
             Reviews review = reviewsRepository.findById(id)
                     .orElseThrow(() -> new OurException("Review not found"));
+            Long oldUserReceiveId = review.getUserReceive().getId();
+            int oldRating = isCounted(review) ? review.getRating() : 0;
+            int oldCount = isCounted(review) ? 1 : 0;
             review.setComment(updateRequest.getComment());
             review.setRating(updateRequest.getRating());
             review.setAvailableStatus(updateRequest.getAvailableStatus());
@@ -233,6 +273,15 @@ public class ReviewsService {
             userReceive.setId(updateRequest.getUserReceive().getId());
             review.setUserReceive(userReceive);
             reviewsRepository.save(review);
+
+            int newRating = isCounted(review) ? review.getRating() : 0;
+            int newCount = isCounted(review) ? 1 : 0;
+            if (oldUserReceiveId.equals(userReceive.getId())) {
+                updateMentorStar(oldUserReceiveId, newRating - oldRating, newCount - oldCount);
+            } else {
+                updateMentorStar(oldUserReceiveId, -oldRating, -oldCount);
+                updateMentorStar(userReceive.getId(), newRating, newCount);
+            }
             response.setStatusCode(200);
             response.setMessage("Review updated successfully");
         } catch (OurException e) {
@@ -0,0 +1,95 @@
+package com.project.service;
+
+import com.project.ultis.IntervalTree;
+import com.project.ultis.TransactionHooks;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Cached interval tree of the active schedules of each mentor, used to check
+ * a new or moved schedule for overlaps without a query per slot.
+ *
+ * Only schedules that have not ended are loaded, a new schedule must start in
+ * the future so an ended one can never overlap it. A mentor's tree is dropped
+ * when one of their schedules changes and loaded again on the next check.
+ */
+@Service
+public class ScheduleConflictIndex {
+
+    private static final String SCHEDULES_SQL
+            = "SELECT id, available_from, available_to FROM mentor_schedule "
+            + "WHERE mentor_id = ? AND available_status = 'ACTIVE' AND available_to >= ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Map<Long, IntervalTree<Slot>> trees = new ConcurrentHashMap<>();
+
+    //Bumped on every invalidation, a tree loaded across one is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Ids of the mentor's active schedules overlapping [from, to], both ends
+     * included (a schedule ending when the other starts is a conflict)
+     */
+    public List<Long> findConflicts(Long mentorId, LocalDateTime from, LocalDateTime to) {
+        return tree(mentorId).findOverlapping(toEpochSecond(from), toEpochSecond(to))
+                .stream()
+                .map(Slot::id)
+                .toList();
+    }
+
+    /**
+     * Same as {@link #findConflicts} but ignoring the schedule being moved
+     */
+    public boolean hasConflict(Long mentorId, LocalDateTime from, LocalDateTime to, Long ignoredScheduleId) {
+        return findConflicts(mentorId, from, to).stream().anyMatch(id -> !id.equals(ignoredScheduleId));
+    }
+
+    /**
+     * Drop the mentor's tree now and again once the transaction commits
+     */
+    public void invalidate(Long mentorId) {
+        drop(mentorId);
+        TransactionHooks.afterCompletion(() -> drop(mentorId));
+    }
+
+    private void drop(Long mentorId) {
+        generation.incrementAndGet();
+        trees.remove(mentorId);
+    }
+
+    private IntervalTree<Slot> tree(Long mentorId) {
+        IntervalTree<Slot> tree = trees.get(mentorId);
+        if (tree != null) {
+            return tree;
+        }
+        long loadedAt = generation.get();
+        List<Slot> slots = jdbcTemplate.query(SCHEDULES_SQL, (rs, rowNum) -> new Slot(
+                rs.getLong(1),
+                toEpochSecond(rs.getTimestamp(2).toLocalDateTime()),
+                toEpochSecond(rs.getTimestamp(3).toLocalDateTime())),
+                mentorId, Timestamp.valueOf(LocalDateTime.now()));
+        tree = new IntervalTree<>(slots, Slot::from, Slot::to);
+        trees.put(mentorId, tree);
+        if (generation.get() != loadedAt) {
+            trees.remove(mentorId, tree);
+        }
+        return tree;
+    }
+
+    private static long toEpochSecond(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private record Slot(long id, long from, long to) {
+    }
+}
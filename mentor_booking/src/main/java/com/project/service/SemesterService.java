@@ -44,7 +44,7 @@ public class SemesterService {
     private TopicRepository topicRepository;
 
     @Autowired
-    private MentorsService mentorsService;
+    private MentorReportService mentorReportService;
 
     /**
      * Phương thức tạo một học kỳ mới
@@ -238,10 +238,12 @@ public class SemesterService {
                 }
 
                 // Tạo báo cáo đánh giá mentor
-                mentorsService.generateMentorReportRating(s);
+                mentorReportService.generateReport(s.getId());
                 // Lưu thông tin học kỳ đã cập nhật
                 semesterRepository.save(s);
             }
+            // Tạo lại báo cáo của các học kỳ đã kết thúc nhưng chưa có báo cáo
+            mentorReportService.queueMissingReports();
             System.out.println("Semester inactive successfully.");
         } catch (Exception e) {
             System.err.println("Error while inactive semester: " + e.getMessage());
@@ -21,6 +21,9 @@ public class SkillsService {
     @Autowired
     private SkillsRepository skillsRepository;
 
+    @Autowired
+    private MentorSearchIndex mentorSearchIndex;
+
     /**
      *  Phương thức tạo skill mới
      */
@@ -162,6 +165,7 @@ public class SkillsService {
             skill.setSkillName(skillsDTO.getSkillName().trim());
             skill.setSkillDescription(skillsDTO.getSkillDescription());
             skillsRepository.save(skill);
+            mentorSearchIndex.skillsChanged();
 
             response.setSkillsDTO(Converter.convertSkillToSkillDTO(skill));
             response.setStatusCode(200);
@@ -186,6 +190,7 @@ public class SkillsService {
             Skills skill = skillsRepository.findById(id).orElseThrow(() -> new OurException("Skill not found"));
             skill.setAvailableStatus(AvailableStatus.DELETED);
             skillsRepository.save(skill);
+            mentorSearchIndex.skillsChanged();
 
             response.setStatusCode(200);
             response.setMessage("Skill deleted successfully");
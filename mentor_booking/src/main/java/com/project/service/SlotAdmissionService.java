@@ -0,0 +1,116 @@
+package com.project.service;
+
+import com.project.dto.BookingDTO;
+import com.project.dto.Response;
+import com.project.exception.OurException;
+import com.project.repository.BookingRepository;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+/**
+ * Entry point for the booking actions that take or free a mentor schedule.
+ *
+ * Work on the same mentor schedule runs one at a time through a striped lock,
+ * held until the booking transaction has committed. Different schedules use
+ * different stripes and run in parallel. The version columns of Booking,
+ * MentorSchedule, Mentors and Group catch what the lock cannot see (e.g. two
+ * schedules of the same mentor), the losing request gets a 409. Other
+ * errors roll the booking transaction back and are answered here, 400 for an
+ * OurException and 500 otherwise.
+ */
+@Service
+public class SlotAdmissionService {
+
+    private static final int STRIPES = 256;
+
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    public SlotAdmissionService() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    public Response createBooking(BookingDTO createRequest) {
+        Long mentorScheduleId = createRequest.getMentorSchedule() == null ? null : createRequest.getMentorSchedule().getId();
+        return admit(mentorScheduleId, "booking creation", () -> bookingService.createBooking(createRequest));
+    }
+
+    public Response acceptBooking(Long bookingId) {
+        return admit(bookingRepository.findMentorScheduleIdById(bookingId), "accept booking", () -> bookingService.acceptBooking(bookingId));
+    }
+
+    public Response rejectBooking(Long bookingId) {
+        return admit(bookingRepository.findMentorScheduleIdById(bookingId), "reject booking", () -> bookingService.rejectBooking(bookingId));
+    }
+
+    public Response cancelBooking(Long bookingId, String type) {
+        return admit(bookingRepository.findMentorScheduleIdById(bookingId), "cancel booking", () -> bookingService.cancelBooking(bookingId, type));
+    }
+
+    public Response cancelPendingBooking(Long bookingId) {
+        return admit(bookingRepository.findMentorScheduleIdById(bookingId), "cancel pending booking", () -> bookingService.cancelPendingBooking(bookingId));
+    }
+
+    /**
+     * Apply the deadline of a booking under the lock of its schedule, called
+     * by the booking expiry wheel. Exceptions are left to the caller, which
+     * tries again later.
+     */
+    public void expireBooking(Long bookingId) {
+        Long mentorScheduleId = bookingRepository.findMentorScheduleIdById(bookingId);
+        if (mentorScheduleId == null) {
+            bookingService.expireBooking(bookingId);
+            return;
+        }
+        ReentrantLock lock = lockOf(mentorScheduleId);
+        lock.lock();
+        try {
+            bookingService.expireBooking(bookingId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Response admit(Long mentorScheduleId, String action, Supplier<Response> work) {
+        ReentrantLock lock = mentorScheduleId == null ? null : lockOf(mentorScheduleId);
+        if (lock != null) {
+            lock.lock();
+        }
+        try {
+            return work.get();
+        } catch (OptimisticLockingFailureException e) {
+            Response response = new Response();
+            response.setStatusCode(409);
+            response.setMessage("This schedule has just been changed by another request, please try again");
+            return response;
+        } catch (OurException e) {
+            Response response = new Response();
+            response.setStatusCode(400);
+            response.setMessage(e.getMessage());
+            return response;
+        } catch (Exception e) {
+            Response response = new Response();
+            response.setStatusCode(500);
+            response.setMessage("Error occurred during " + action + ": " + e.getMessage());
+            return response;
+        } finally {
+            if (lock != null) {
+                lock.unlock();
+            }
+        }
+    }
+
+    private ReentrantLock lockOf(Long mentorScheduleId) {
+        return locks[Math.floorMod(Long.hashCode(mentorScheduleId), STRIPES)];
+    }
+}
@@ -0,0 +1,354 @@
+package com.project.service;
+
+import com.project.dto.CreateStudentRequest;
+import com.project.dto.EmailRequest;
+import com.project.dto.ImportReportDTO;
+import com.project.dto.ImportRowErrorDTO;
+import com.project.dto.Response;
+import com.project.enums.AvailableStatus;
+import com.project.exception.OurException;
+import com.project.model.Class;
+import com.project.model.Role;
+import com.project.repository.ClassRepository;
+import com.project.repository.RoleRepository;
+import com.project.repository.StudentsRepository;
+import com.project.repository.UsersRepository;
+import com.project.ultis.ExcelHelper;
+import com.project.ultis.Ultis;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Import of students from Excel, a batch of rows at a time.
+ *
+ * For each batch the usernames, emails, phones and student codes already
+ * taken are read with one IN query each and checked in memory, together with
+ * the values of the rows accepted before in the same file. Classes and the
+ * STUDENT role are looked up once per import. The passwords of the accepted
+ * rows are hashed in parallel by {@link PasswordHasher}, then the rows are
+ * written with two JDBC batches (users, then students) in one transaction,
+ * and the password emails are queued to be sent after it commits.
+ */
+@Service
+public class StudentImportService {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String DEFAULT_AVATAR_URL = "https://mentor-booking-images.s3.amazonaws.com/images.jpeg";
+
+    private static final String INSERT_USER
+            = "INSERT INTO users (username, email, password, full_name, birth_date, address, phone, gender, "
+            + "date_created, role_id, available_status, avatar) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_STUDENT
+            = "INSERT INTO students (user_id, expertise, student_code, date_created, point, class_id, available_status) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private UsersRepository usersRepository;
+
+    @Autowired
+    private StudentsRepository studentsRepository;
+
+    @Autowired
+    private ClassRepository classRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private PasswordHasher passwordHasher;
+
+    @Autowired
+    private EmailServiceImpl emailService;
+
+    @Autowired
+    private NameSearchIndex nameSearchIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public StudentImportService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     *  Phương thức nhập sinh viên bằng excel
+     */
+    public Response importStudents(MultipartFile file, Long semesterId) {
+        Response response = new Response();
+        try {
+            Role role = roleRepository.findByRoleName("STUDENT")
+                    .orElseThrow(() -> new OurException("No role name"));
+
+            Import anImport = new Import(semesterId, role.getId());
+            ExcelHelper.excelToStudents(file, (rowNumber, request, error) -> {
+                anImport.report.setTotalRows(anImport.report.getTotalRows() + 1);
+                if (error != null) {
+                    anImport.report.addError(rowNumber, request.getFullName(), error);
+                    return;
+                }
+                anImport.pending.add(new Row(rowNumber, request));
+                if (anImport.pending.size() == BATCH_SIZE) {
+                    importBatch(anImport);
+                }
+            });
+            importBatch(anImport);
+
+            ImportReportDTO report = anImport.report;
+            response.setImportReportDTO(report);
+            if (!report.getErrors().isEmpty()) {
+                response.setStatusCode(400);
+                response.setMessage("Failed to import some students: " + report.getErrors().stream()
+                        .map(ImportRowErrorDTO::toString)
+                        .collect(Collectors.joining(", ")));
+            } else {
+                response.setStatusCode(200);
+                response.setMessage("All students imported successfully");
+            }
+        } catch (OurException e) {
+            response.setStatusCode(400);
+            response.setMessage(e.getMessage());
+        } catch (Exception e) {
+            response.setStatusCode(500);
+            response.setMessage("Error occurred during import: " + e.getMessage());
+        }
+        return response;
+    }
+
+    private void importBatch(Import anImport) {
+        if (anImport.pending.isEmpty()) {
+            return;
+        }
+        List<Row> rows = new ArrayList<>(anImport.pending);
+        anImport.pending.clear();
+
+        // Giá trị đã tồn tại trong hệ thống, một truy vấn cho mỗi cột
+        Set<String> takenUsernames = keys(usersRepository.findExistingUsernames(
+                values(rows, CreateStudentRequest::getUsername), AvailableStatus.ACTIVE));
+        Set<String> takenEmails = keys(usersRepository.findExistingEmails(
+                values(rows, CreateStudentRequest::getEmail), AvailableStatus.ACTIVE));
+        Set<String> takenPhones = keys(usersRepository.findExistingPhones(
+                values(rows, CreateStudentRequest::getPhone), AvailableStatus.ACTIVE));
+        Set<String> takenCodes = keys(studentsRepository.findExistingStudentCodes(
+                values(rows, CreateStudentRequest::getStudentCode), AvailableStatus.ACTIVE));
+
+        List<Row> accepted = new ArrayList<>();
+        for (Row row : rows) {
+            CreateStudentRequest request = row.request;
+            String error = null;
+            if (taken(request.getUsername(), takenUsernames, anImport.usernames)) {
+                error = "Username already exists";
+            } else if (taken(request.getEmail(), takenEmails, anImport.emails)) {
+                error = "Email already exists";
+            } else if (taken(request.getPhone(), takenPhones, anImport.phones)) {
+                error = "Phone already exists";
+            } else if (taken(request.getStudentCode(), takenCodes, anImport.studentCodes)) {
+                error = "StudentCode already exists";
+            } else {
+                try {
+                    row.classId = classId(anImport, request.getClassName());
+                    if (row.classId == null) {
+                        error = "Class not found";
+                    }
+                } catch (Exception e) {
+                    error = "Error occurred during student creation: " + e.getMessage();
+                }
+            }
+
+            if (error != null) {
+                anImport.report.addError(row.number, request.getFullName(), error);
+                continue;
+            }
+            anImport.usernames.add(key(request.getUsername()));
+            anImport.emails.add(key(request.getEmail()));
+            if (request.getPhone() != null) {
+                anImport.phones.add(key(request.getPhone()));
+            }
+            anImport.studentCodes.add(key(request.getStudentCode()));
+            accepted.add(row);
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        // Mã hóa mật khẩu song song, kết quả theo đúng thứ tự các dòng
+        List<String> passwords = new ArrayList<>(accepted.size());
+        for (Row row : accepted) {
+            row.password = Ultis.generateRandomString();
+            passwords.add(row.password);
+        }
+        List<String> encodedPasswords = passwordHasher.encodeAll(passwords);
+        for (int i = 0; i < accepted.size(); i++) {
+            accepted.get(i).encodedPassword = encodedPasswords.get(i);
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(anImport, accepted));
+            anImport.report.setImportedRows(anImport.report.getImportedRows() + accepted.size());
+        } catch (Exception e) {
+            for (Row row : accepted) {
+                anImport.report.addError(row.number, row.request.getFullName(), "Error occurred during student creation: " + e.getMessage());
+            }
+        }
+    }
+
+    private void insert(Import anImport, List<Row> rows) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        GeneratedKeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_USER, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        CreateStudentRequest request = rows.get(i).request;
+                        ps.setString(1, request.getUsername());
+                        ps.setString(2, request.getEmail());
+                        ps.setString(3, rows.get(i).encodedPassword);
+                        ps.setString(4, request.getFullName());
+                        ps.setDate(5, request.getBirthDate() == null ? null : Date.valueOf(request.getBirthDate()));
+                        ps.setString(6, request.getAddress());
+                        ps.setString(7, request.getPhone());
+                        ps.setString(8, request.getGender() == null ? null : request.getGender().name());
+                        ps.setTimestamp(9, now);
+                        ps.setLong(10, anImport.roleId);
+                        ps.setString(11, AvailableStatus.ACTIVE.name());
+                        ps.setString(12, DEFAULT_AVATAR_URL);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return rows.size();
+                    }
+                }, keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        if (keys.size() != rows.size()) {
+            throw new IllegalStateException("Expected " + rows.size() + " user ids, got " + keys.size());
+        }
+        for (int i = 0; i < rows.size(); i++) {
+            rows.get(i).userId = ((Number) keys.get(i).values().iterator().next()).longValue();
+        }
+
+        Date today = Date.valueOf(LocalDate.now());
+        jdbcTemplate.batchUpdate(INSERT_STUDENT, rows, rows.size(), (ps, row) -> {
+            ps.setLong(1, row.userId);
+            ps.setString(2, row.request.getExpertise());
+            ps.setString(3, row.request.getStudentCode());
+            ps.setDate(4, today);
+            ps.setInt(5, 100);
+            ps.setLong(6, row.classId);
+            ps.setString(7, AvailableStatus.ACTIVE.name());
+        });
+
+        // JDBC bypasses the entity listener, update the name index here; both it and the mails take effect after commit
+        List<EmailRequest> mails = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            nameSearchIndex.userChanged(row.userId, row.request.getFullName());
+            nameSearchIndex.studentChanged(row.userId, row.classId, AvailableStatus.ACTIVE);
+            mails.add(emailService.createPasswordEmail(row.request.getEmail().trim(), row.request.getUsername(), row.password));
+        }
+        emailService.queueHtmlMails(mails);
+    }
+
+    //Same lookup as one student creation, done once per class name of the file
+    private Long classId(Import anImport, String className) {
+        if (!anImport.classIds.containsKey(className)) {
+            Class aClass = classRepository.findByClassNameContainingIgnoreCaseAndSemesterIdAndAvailableStatus(
+                    className, anImport.semesterId, AvailableStatus.ACTIVE);
+            anImport.classIds.put(className, aClass == null ? null : aClass.getId());
+        }
+        return anImport.classIds.get(className);
+    }
+
+    //Also used by the mentor import of MentorsService
+    static boolean taken(String value, Set<String> existing, Set<String> imported) {
+        if (value == null) {
+            return false;
+        }
+        String key = key(value);
+        return existing.contains(key) || imported.contains(key);
+    }
+
+    //MySQL compares these columns ignoring case and trailing spaces
+    static String key(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    static Set<String> keys(Collection<String> values) {
+        Set<String> keys = new HashSet<>();
+        for (String value : values) {
+            if (value != null) {
+                keys.add(key(value));
+            }
+        }
+        return keys;
+    }
+
+    private static Set<String> values(List<Row> rows, Function<CreateStudentRequest, String> column) {
+        return rows.stream()
+                .map(row -> column.apply(row.request))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+    }
+
+    private static final class Import {
+
+        private final Long semesterId;
+        private final Long roleId;
+        private final ImportReportDTO report = new ImportReportDTO();
+        private final List<Row> pending = new ArrayList<>();
+        private final Map<String, Long> classIds = new HashMap<>();
+
+        //Values of the rows already accepted in this file
+        private final Set<String> usernames = new HashSet<>();
+        private final Set<String> emails = new HashSet<>();
+        private final Set<String> phones = new HashSet<>();
+        private final Set<String> studentCodes = new HashSet<>();
+
+        private Import(Long semesterId, Long roleId) {
+            this.semesterId = semesterId;
+            this.roleId = roleId;
+        }
+    }
+
+    private static final class Row {
+
+        private final int number;
+        private final CreateStudentRequest request;
+        private Long classId;
+        private String password;
+        private String encodedPassword;
+        private Long userId;
+
+        private Row(int number, CreateStudentRequest request) {
+            this.number = number;
+            this.request = request;
+        }
+    }
+}
@@ -9,15 +9,11 @@ import com.project.exception.OurException;
 import com.project.model.*;
 import com.project.model.Class;
 import com.project.repository.ClassRepository;
-import com.project.repository.RoleRepository;
 import com.project.repository.StudentsRepository;
 import com.project.repository.UsersRepository;
 import com.project.security.AwsS3Service;
 import com.project.ultis.Converter;
-import com.project.ultis.ExcelHelper;
-import com.project.ultis.Ultis;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -25,6 +21,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -46,15 +43,10 @@ public class StudentsService {
     private UsersService usersService;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private NameSearchIndex nameSearchIndex;
 
     @Autowired
-    private RoleRepository roleRepository;
-
-    @Autowired
-    private EmailServiceImpl emailService;
-
-    private static final String DEFAULT_AVATAR_URL = "https://mentor-booking-images.s3.amazonaws.com/images.jpeg";
+    private StudentImportService studentImportService;
 
     /**
      *  Phương thức lây tất cả danh sách học sinh
@@ -137,11 +129,11 @@ public class StudentsService {
             }
             // Nếu có cả name và expertise
             else if (!isNullOrEmpty(name) && !isNullOrEmpty(expertise)) {
-                studentsList = studentsRepository.findStudentByUserFullNameAndExpertiseAndClassId(name, expertise, AvailableStatus.ACTIVE, classId);
+                studentsList = studentsRepository.findStudentByUserIdsAndExpertiseAndClassId(nameSearchIndex.findStudentUserIds(name, classId, true), expertise, AvailableStatus.ACTIVE, classId);
             }
             // Nếu chỉ có name
             else if (!isNullOrEmpty(name)) {
-                studentsList = studentsRepository.findStudentByUserFullNameAndClassId(name, AvailableStatus.ACTIVE, classId);
+                studentsList = studentsRepository.findStudentByUserIdsAndClassId(nameSearchIndex.findStudentUserIds(name, classId, true), AvailableStatus.ACTIVE, classId);
             }
             // Nếu chỉ có expertise
             else if (!isNullOrEmpty(expertise)) {
@@ -308,12 +300,18 @@ public class StudentsService {
             List<Class> findClass = classRepository.findClassBySemesterIdExcludingDeleted(semesterId, AvailableStatus.DELETED);
             if (findClass != null && !findClass.isEmpty()) {
                 List<StudentsDTO> allStudent = new ArrayList<>();
+                Map<Long, List<Long>> userIdsByClass = (name == null || name.isEmpty()) ? null
+                        : nameSearchIndex.findStudentUserIdsByClass(name, findClass.stream().map(Class::getId).toList(), false);
                 for (Class c : findClass) {
                     List<Students> studentsList;
                     if(name ==null || name.isEmpty()){
                         studentsList = studentsRepository.findStudentByClassIdExcludingDeleted(c.getId(), AvailableStatus.DELETED);
                     }else{
-                        studentsList = studentsRepository.findStudentByClassIdAndFullName(c.getId(), name, AvailableStatus.DELETED);
+                        List<Long> userIds = userIdsByClass.get(c.getId());
+                        if (userIds == null) {
+                            continue;
+                        }
+                        studentsList = studentsRepository.findStudentByClassIdAndUserIds(c.getId(), userIds, AvailableStatus.DELETED);
                     }
                     if (studentsList != null && !studentsList.isEmpty()) {
                         for (Students student : studentsList) {
@@ -342,113 +340,7 @@ public class StudentsService {
      *  Phương thức nhập sinh viên bằng excel
      */
     public Response importStudentsFromExcel(MultipartFile file, Long semesterId){
-        Response response = new Response();
-        try{
-            List<CreateStudentRequest> studentRequests = ExcelHelper.excelToStudents(file);
-            List<String> errors = new ArrayList<>();
-
-            for (CreateStudentRequest request : studentRequests) {
-                Response createResponse = createStudentFormExcel(request, semesterId);
-                if (createResponse.getStatusCode() != 200 && request.getFullName() != null) {
-                        errors.add(" [" + request.getFullName() + "] ");
-                }
-            }
-            if (!errors.isEmpty()) {
-                response.setStatusCode(400);
-                response.setMessage("Failed to import some students: " + String.join(", ", errors));
-            } else {
-                response.setStatusCode(200);
-                response.setMessage("All students imported successfully");
-            }
-
-        } catch (OurException e) {
-            response.setStatusCode(400);
-            response.setMessage(e.getMessage());
-        } catch (Exception e) {
-            response.setStatusCode(500);
-            response.setMessage("Error occurred during import: " + e.getMessage());
-        }
-        return response;
-    }
-
-    /**
-     *  Phương thức tao sinh viên khi nhập excel
-     */
-    public Response createStudentFormExcel(CreateStudentRequest request, Long semesterId){
-        Response response = new Response();
-        try{
-            // Kiểm tra nếu username hoặc email đã tồn tại
-            if (usersRepository.findByUsernameAndAvailableStatus(request.getUsername(), AvailableStatus.ACTIVE).isPresent()) {
-                throw new OurException("Username already exists");
-            }
-            // Kiểm tra email
-            if (usersRepository.findByEmailAndAvailableStatus(request.getEmail(), AvailableStatus.ACTIVE).isPresent()) {
-                throw new OurException("Email already exists");
-            }
-            if (usersRepository.findByPhoneAndAvailableStatus(request.getPhone(), AvailableStatus.ACTIVE).isPresent()) {
-                throw new OurException("Phone already exists");
-            }
-            if (studentsRepository.findByStudentCodeAndAvailableStatus(request.getStudentCode(), AvailableStatus.ACTIVE).isPresent()) {
-                throw new OurException("StudentCode already exists");
-            }
-            // Kiểm tra Class
-            Class aClass = classRepository.findByClassNameContainingIgnoreCaseAndSemesterIdAndAvailableStatus(request.getClassName(),semesterId, AvailableStatus.ACTIVE);
-            if (aClass == null) {
-                throw new OurException("Class not found");
-            }
-
-            // Kiểm tra Role
-            Role role = roleRepository.findByRoleName("STUDENT")
-                    .orElseThrow(() -> new OurException("No role name"));
-
-            // Mã hóa mật khẩu
-            String encodedPassword = passwordEncoder.encode(emailService.sendPasswordCreateUser(request.getEmail().trim(), request.getUsername()).trim());
-
-            // Tạo đối tượng User mới
-            Users newUser = new Users();
-            newUser.setUsername(request.getUsername());
-            newUser.setEmail(request.getEmail());
-            newUser.setPassword(encodedPassword);
-            newUser.setFullName(request.getFullName());
-            newUser.setBirthDate(request.getBirthDate());
-            newUser.setAddress(request.getAddress());
-            newUser.setPhone(request.getPhone());
-            newUser.setGender(request.getGender());
-            newUser.setDateCreated(LocalDateTime.now());
-            newUser.setRole(role);
-            newUser.setAvailableStatus(AvailableStatus.ACTIVE);
-            newUser.setAvatar(DEFAULT_AVATAR_URL);
-
-            usersRepository.save(newUser);
-
-            if (newUser.getId() > 0) {
-                // Tạo đối tượng Student mới
-                Students student = new Students();
-                student.setUser(newUser);
-                student.setExpertise(request.getExpertise());
-                student.setStudentCode(request.getStudentCode());
-                student.setDateCreated(LocalDate.now());
-                student.setPoint(100);
-                student.setAClass(aClass);
-                student.setGroupRole(null);
-                student.setAvailableStatus(AvailableStatus.ACTIVE);
-                studentsRepository.save(student);
-
-                newUser.setStudent(student);
-                usersRepository.save(newUser);
-
-                response.setStatusCode(200);
-                response.setMessage("Student created successfully");
-            }
-        } catch (OurException e) {
-            response.setStatusCode(400);
-            response.setMessage(e.getMessage());
-        } catch (Exception e) {
-            response.setStatusCode(500);
-            response.setMessage("Error occurred during student creation: " + e.getMessage());
-        }
-        return response;
+        return studentImportService.importStudents(file, semesterId);
     }
 
-
 }
@@ -1,5 +1,7 @@
 package com.project.service;
 
+import com.project.dto.ImportReportDTO;
+import com.project.dto.ImportRowErrorDTO;
 import com.project.dto.Response;
 import com.project.dto.TopicDTO;
 import com.project.enums.AvailableStatus;
@@ -42,6 +44,9 @@ public class TopicService {
     @Autowired
     private ClassRepository classRepository;
 
+    @Autowired
+    private NameSearchIndex nameSearchIndex;
+
     /**
      *  Phương thức tạo mới một topic
      */
@@ -268,7 +273,7 @@ public class TopicService {
             if(name == null || name.isEmpty()){
                 topicList = topicRepository.findTopicsBySemesterIdAndNotDeleted(semesterId, AvailableStatus.DELETED);
             }else{
-                topicList = topicRepository.findTopicsBySemesterIdAndTopicNameNotDeleted(semesterId, name, AvailableStatus.DELETED);
+                topicList = topicRepository.findTopicsBySemesterIdAndIdsNotDeleted(semesterId, nameSearchIndex.findTopicIds(name), AvailableStatus.DELETED);
             }
 
             if (topicList != null) {
@@ -297,7 +302,7 @@ public class TopicService {
     public Response getTopicByName(String topicName) {
         Response response = new Response();
         try {
-            List<Topic> topicList = topicRepository.findByTopicNameContainingIgnoreCaseAndAvailableStatus(topicName, AvailableStatus.ACTIVE);
+            List<Topic> topicList = topicRepository.findByIdInAndAvailableStatus(nameSearchIndex.findTopicIds(topicName), AvailableStatus.ACTIVE);
             if (topicList != null) {
                 List<TopicDTO> topicListDTO = topicList.stream()
                         .map(Converter::convertTopicToTopicDTO)
@@ -355,20 +360,30 @@ public class TopicService {
      */
     public Response importTopicFromExcel(MultipartFile file, Long semester) {
         Response response = new Response();
-        List<String> errors = new ArrayList<>();
 
         try {
-            List<TopicDTO> excelToTopics = ExcelHelper.excelToTopics(file);
-
-            for (TopicDTO topicDTO : excelToTopics) {
+            ImportReportDTO report = new ImportReportDTO();
+            ExcelHelper.excelToTopics(file, (rowNumber, topicDTO, error) -> {
+                report.setTotalRows(report.getTotalRows() + 1);
+                if (error == null) {
                     Response createResponse = createTopicFromExcel(topicDTO, semester);
-                    if (createResponse.getStatusCode() != 200 && topicDTO.getTopicName() != null) {
-                        errors.add("[" + topicDTO.getTopicName() + "] ");
+                    if (createResponse.getStatusCode() != 200) {
+                        error = createResponse.getMessage();
                     }
-            }
-            if (!errors.isEmpty()) {
+                }
+                if (error != null) {
+                    report.addError(rowNumber, topicDTO.getTopicName(), error);
+                } else {
+                    report.setImportedRows(report.getImportedRows() + 1);
+                }
+            });
+            response.setImportReportDTO(report);
+
+            if (!report.getErrors().isEmpty()) {
                 response.setStatusCode(400);
-                response.setMessage("Import completed with errors: " + String.join(", ", errors));
+                response.setMessage("Import completed with errors: " + report.getErrors().stream()
+                        .map(ImportRowErrorDTO::toString)
+                        .collect(Collectors.joining(", ")));
             } else {
                 response.setStatusCode(200);
                 response.setMessage("All topics imported successfully.");
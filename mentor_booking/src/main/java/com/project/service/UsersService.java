@@ -11,6 +11,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import com.project.security.AwsS3Service;
 import com.project.ultis.Converter;
@@ -48,6 +49,9 @@ public class UsersService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private PasswordHasher passwordHasher;
+
     @Autowired
     private MentorsService mentorsService;
 
@@ -60,6 +64,12 @@ public class UsersService {
     @Autowired
     private EmailServiceImpl emailService;
 
+    @Autowired
+    private MentorSearchIndex mentorSearchIndex;
+
+    @Autowired
+    private MentorLeaderboard mentorLeaderboard;
+
     private static final String DEFAULT_AVATAR_URL = "https://mentor-booking-images.s3.amazonaws.com/images.jpeg";
 
     /**
@@ -143,13 +153,13 @@ public class UsersService {
             Role role = roleRepository.findByRoleName("STUDENT")
                     .orElseThrow(() -> new OurException("No role name"));
             // Mã hóa mật khẩu và gửi cho học sinh
-            String encodedPassword = passwordEncoder.encode(emailService.sendPasswordCreateUser(request.getEmail().trim(), request.getUsername()).trim());
+            String password = Ultis.generateRandomString();
+            CompletableFuture<String> encodedPassword = passwordHasher.encodeAsync(password);
 
             // Tạo đối tượng User mới
             Users newUser = new Users();
             newUser.setUsername(request.getUsername().trim());
             newUser.setEmail(request.getEmail().trim());
-            newUser.setPassword(encodedPassword);
             newUser.setFullName(request.getFullName().trim());
             newUser.setBirthDate(request.getBirthDate());
             newUser.setAddress(request.getAddress().trim());
@@ -168,6 +178,8 @@ public class UsersService {
             } catch (Exception e) {
                 throw new OurException("Error uploading avatar: " + e.getMessage());
             }
+            // Mật khẩu được mã hóa trong lúc tải ảnh đại diện
+            newUser.setPassword(encodedPassword.join());
             // Lưu người dùng vào database
             usersRepository.save(newUser);
             if (newUser.getId() > 0) {
@@ -185,6 +197,8 @@ public class UsersService {
                 studentsRepository.save(student);
                 newUser.setStudent(student);
                 usersRepository.save(newUser);
+                // Gửi mật khẩu cho người dùng mới
+                emailService.queueHtmlMail(emailService.createPasswordEmail(request.getEmail().trim(), request.getUsername(), password));
                 if (student.getId() > 0) {
                     StudentsDTO studentsDTO = Converter.convertStudentToStudentDTO(student);
                     response.setStudentsDTO(studentsDTO);
@@ -226,12 +240,12 @@ public class UsersService {
             Role role = roleRepository.findByRoleName("MENTOR")
                     .orElseThrow(() -> new OurException("No role name"));
             // Mã hóa mật khẩu
-            String encodedPassword = passwordEncoder.encode(emailService.sendPasswordCreateUser(request.getEmail().trim(), request.getUsername()).trim());
+            String password = Ultis.generateRandomString();
+            CompletableFuture<String> encodedPassword = passwordHasher.encodeAsync(password);
             // Tạo đối tượng User mới
             Users newUser = new Users();
             newUser.setUsername(request.getUsername().trim());
             newUser.setEmail(request.getEmail().trim());
-            newUser.setPassword(encodedPassword);
             newUser.setFullName(request.getFullName().trim());
             newUser.setBirthDate(request.getBirthDate());
             newUser.setAddress(request.getAddress().trim());
@@ -250,6 +264,8 @@ public class UsersService {
             } catch (Exception e) {
                 throw new OurException("Error uploading avatar: " + e.getMessage());
             }
+            // Mật khẩu được mã hóa trong lúc tải ảnh đại diện
+            newUser.setPassword(encodedPassword.join());
             // Lưu người dùng vào database
             usersRepository.save(newUser);
             if (newUser.getId() > 0) {
@@ -267,8 +283,12 @@ public class UsersService {
                         .collect(Collectors.toList());
                 mentor.setSkills(skillsList);
                 mentorsRepository.save(mentor);
+                mentorSearchIndex.mentorChanged(mentor.getId());
+                mentorLeaderboard.mentorChanged(mentor.getId());
                 newUser.setMentor(mentor);
                 usersRepository.save(newUser);
+                // Gửi mật khẩu cho người dùng mới
+                emailService.queueHtmlMail(emailService.createPasswordEmail(request.getEmail().trim(), request.getUsername(), password));
 
                 if (mentor.getId() > 0) {
                     MentorsDTO mentorsDTO = Converter.convertMentorToMentorDTO(mentor);
@@ -367,6 +387,8 @@ public class UsersService {
                     classRepository.save(classMentor);
                 }
                 mentorsRepository.save(deleteMentor);
+                mentorSearchIndex.mentorChanged(deleteMentor.getId());
+                mentorLeaderboard.mentorChanged(deleteMentor.getId());
             }
 
             Students deleteStudent = studentsRepository.findByUser_Id(user.getId());
@@ -6,7 +6,9 @@ import com.project.model.Class;
 import com.project.dto.*;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -203,6 +205,31 @@ public class Converter {
         return groupDTO;
     }
 
+    //Schedule without its mentor, for lists of one mentor's schedules
+    public static MentorScheduleDTO convertMentorScheduleToSlotDTO(MentorSchedule mentorSchedule) {
+        MentorScheduleDTO slotDTO = new MentorScheduleDTO();
+        slotDTO.setId(mentorSchedule.getId());
+        slotDTO.setAvailableFrom(mentorSchedule.getAvailableFrom());
+        slotDTO.setAvailableTo(mentorSchedule.getAvailableTo());
+        slotDTO.setStatus(mentorSchedule.getStatus());
+        return slotDTO;
+    }
+
+    public static MentorScheduleRuleDTO convertMentorScheduleRuleToMentorScheduleRuleDTO(MentorScheduleRule rule) {
+        MentorScheduleRuleDTO ruleDTO = new MentorScheduleRuleDTO();
+        ruleDTO.setId(rule.getId());
+        ruleDTO.setDayOfWeek(rule.getDayOfWeek());
+        ruleDTO.setStartTime(rule.getStartTime());
+        ruleDTO.setEndTime(rule.getEndTime());
+        ruleDTO.setMaterializedUntil(rule.getMaterializedUntil());
+        ruleDTO.setDateCreated(rule.getDateCreated());
+        ruleDTO.setAvailableStatus(rule.getAvailableStatus());
+        if (rule.getSemester() != null) {
+            ruleDTO.setSemester(convertSemesterToSemesterDTO(rule.getSemester()));
+        }
+        return ruleDTO;
+    }
+
     public static MentorScheduleDTO convertMentorScheduleToMentorScheduleDTO(MentorSchedule mentorSchedule) {
         MentorScheduleDTO mentorScheduleDTO = new MentorScheduleDTO();
 
@@ -269,6 +296,58 @@ public class Converter {
         return bookingDTO;
     }
 
+    /**
+     * Convert a list of bookings, the group, mentor and schedule of each
+     * booking are converted once and shared by the bookings that use them
+     */
+    public static List<BookingDTO> convertBookingListToBookingDTOList(List<Booking> bookings) {
+        Map<Long, GroupDTO> groupDTOs = new HashMap<>();
+        Map<Long, MentorsDTO> mentorDTOs = new HashMap<>();
+        Map<Long, MentorScheduleDTO> mentorScheduleDTOs = new HashMap<>();
+        List<BookingDTO> bookingDTOList = new ArrayList<>(bookings.size());
+
+        for (Booking booking : bookings) {
+            BookingDTO bookingDTO = new BookingDTO();
+            bookingDTO.setId(booking.getId());
+            bookingDTO.setDateCreated(booking.getDateCreated());
+            bookingDTO.setDateUpdated(booking.getDateUpdated());
+            bookingDTO.setPointPay(booking.getPointPay());
+            bookingDTO.setGroup(groupDTOs.computeIfAbsent(booking.getGroup().getId(),
+                    id -> convertGroupToGroupDTO(booking.getGroup())));
+            bookingDTO.setStatus(booking.getStatus());
+            bookingDTO.setMentorSchedule(mentorScheduleDTOs.computeIfAbsent(booking.getMentorSchedule().getId(),
+                    id -> convertMentorScheduleToMentorScheduleDTO(booking.getMentorSchedule())));
+            bookingDTO.setMentor(mentorDTOs.computeIfAbsent(booking.getMentor().getId(),
+                    id -> convertMentorToMentorDTO(booking.getMentor())));
+            bookingDTO.setAvailableStatus(booking.getAvailableStatus());
+            bookingDTOList.add(bookingDTO);
+        }
+        return bookingDTOList;
+    }
+
+    public static BookingViewDTO convertBookingViewToBookingViewDTO(BookingView bookingView) {
+        BookingViewDTO bookingViewDTO = new BookingViewDTO();
+        bookingViewDTO.setId(bookingView.getBookingId());
+        bookingViewDTO.setStatus(bookingView.getStatus());
+        bookingViewDTO.setAvailableStatus(bookingView.getAvailableStatus());
+        bookingViewDTO.setPointPay(bookingView.getPointPay());
+        bookingViewDTO.setDateCreated(bookingView.getDateCreated());
+        bookingViewDTO.setDateUpdated(bookingView.getDateUpdated());
+        bookingViewDTO.setExpiredTime(bookingView.getExpiredTime());
+        bookingViewDTO.setGroupId(bookingView.getGroupId());
+        bookingViewDTO.setGroupName(bookingView.getGroupName());
+        bookingViewDTO.setClassId(bookingView.getClassId());
+        bookingViewDTO.setClassName(bookingView.getClassName());
+        bookingViewDTO.setSemesterId(bookingView.getSemesterId());
+        bookingViewDTO.setMentorId(bookingView.getMentorId());
+        bookingViewDTO.setMentorCode(bookingView.getMentorCode());
+        bookingViewDTO.setMentorName(bookingView.getMentorName());
+        bookingViewDTO.setMentorScheduleId(bookingView.getMentorScheduleId());
+        bookingViewDTO.setAvailableFrom(bookingView.getAvailableFrom());
+        bookingViewDTO.setAvailableTo(bookingView.getAvailableTo());
+        return bookingViewDTO;
+    }
+
     public static NotificationsDTO convertNotificationToNotiDTO(Notifications notifications){
         NotificationsDTO notificationsDTO = new NotificationsDTO();
         notificationsDTO.setId(notifications.getId());
@@ -366,7 +445,11 @@ public class Converter {
         mentorReportDTO.setMentorsDTO(convertMentorToMentorDTO(convertReport.getMentor()));
         mentorReportDTO.setSemesterDTO(convertSemesterToSemesterDTO(convertReport.getSemester()));
         mentorReportDTO.setStarRating(convertReport.getStarRating());
-        
+        mentorReportDTO.setDateCreated(convertReport.getDateCreated());
+        mentorReportDTO.setBookingCount(convertReport.getBookingCount());
+        mentorReportDTO.setMeetingCount(convertReport.getMeetingCount());
+        mentorReportDTO.setReviewCount(convertReport.getReviewCount());
+
         return mentorReportDTO;
     }
 }
@@ -2,241 +2,162 @@ package com.project.ultis;
 
 import com.project.dto.CreateMentorRequest;
 import com.project.dto.CreateStudentRequest;
-import com.project.dto.SkillsDTO;
 import com.project.dto.TopicDTO;
 import com.project.enums.Gender;
-import com.project.exception.OurException;
-import org.apache.poi.ss.usermodel.CellType;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import com.project.ultis.ExcelRowReader.Cell;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.InputStream;
-import java.time.ZoneId;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 
+/**
+ * Excel imports. Rows are read with {@link ExcelRowReader} and handed to the
+ * consumer one by one with their Excel row number; a row that cannot be read
+ * is passed with an error instead of failing the whole file.
+ */
 public class ExcelHelper {
 
-    public static List<CreateStudentRequest> excelToStudents(MultipartFile file) {
-        try (
-                InputStream is = file.getInputStream();
-                Workbook workbook = new XSSFWorkbook(is);
-
-                ) {
-
-            List<CreateStudentRequest> studentRequests = new ArrayList<>();
-            Sheet sheet = workbook.getSheetAt(0);
-            int rowNumber = 0;
-
-            for (Row row : sheet) {
-                // Bỏ qua dòng tiêu đề
-                if (rowNumber == 0) {
-                    rowNumber++;
-                    continue;
-                }
-
-                CreateStudentRequest studentRequest = new CreateStudentRequest();
+    public interface RowConsumer<T> {
+        /**
+         * @param error null when the row was read correctly
+         */
+        void accept(int rowNumber, T value, String error);
+    }
 
+    public static void excelToStudents(MultipartFile file, RowConsumer<CreateStudentRequest> consumer) {
+        ExcelRowReader.read(file, 10, (rowNumber, cells) -> {
+            CreateStudentRequest studentRequest = new CreateStudentRequest();
+            String error;
+            try {
                 // Kiểm tra và xử lý các ô
-                if (row.getCell(0) != null && row.getCell(0).getCellType() == CellType.STRING) {
-                    studentRequest.setUsername(row.getCell(0).getStringCellValue());
-                }
-
-                if (row.getCell(1) != null && row.getCell(1).getCellType() == CellType.STRING) {
-                    studentRequest.setEmail(row.getCell(1).getStringCellValue());
-                }
-
-                if (row.getCell(2) != null && row.getCell(2).getCellType() == CellType.STRING) {
-                    studentRequest.setFullName(row.getCell(2).getStringCellValue());
-                }
-
-                if (row.getCell(3) != null && row.getCell(3).getCellType() == CellType.NUMERIC) {
-                    studentRequest.setBirthDate(row.getCell(3).getDateCellValue().toInstant().atZone(ZoneId.systemDefault()).toLocalDate());
-                }
-
-                if (row.getCell(4) != null && row.getCell(4).getCellType() == CellType.STRING) {
-                    studentRequest.setAddress(row.getCell(4).getStringCellValue());
-                }
-
-                if (row.getCell(5) != null) {
-                    if (row.getCell(5).getCellType() == CellType.NUMERIC) {
-                        // Chuyển đổi số thành chuỗi và bỏ phần thập phân
-                        studentRequest.setPhone(String.valueOf((long) row.getCell(5).getNumericCellValue()));
-                    } else if (row.getCell(5).getCellType() == CellType.STRING) {
-                        studentRequest.setPhone(row.getCell(5).getStringCellValue());
-                    }
-                }
-
-                if (row.getCell(6) != null && row.getCell(6).getCellType() == CellType.STRING) {
-                    studentRequest.setGender(Gender.valueOf(row.getCell(6).getStringCellValue()));
-                }
-
-                if (row.getCell(7) != null && row.getCell(7).getCellType() == CellType.STRING) {
-                    studentRequest.setStudentCode(row.getCell(7).getStringCellValue());
-                }
-
+                studentRequest.setUsername(string(cells[0]));
+                studentRequest.setEmail(string(cells[1]));
+                studentRequest.setFullName(string(cells[2]));
+                if (cells[3] != null && cells[3].isNumeric()) {
+                    studentRequest.setBirthDate(cells[3].getDate());
+                }
+                studentRequest.setAddress(string(cells[4]));
+                studentRequest.setPhone(phone(cells[5]));
+                studentRequest.setGender(gender(cells[6]));
+                studentRequest.setStudentCode(string(cells[7]));
                 // Thêm cột expertise
-                if (row.getCell(8) != null && row.getCell(8).getCellType() == CellType.STRING) {
-                    studentRequest.setExpertise(row.getCell(8).getStringCellValue());
-                }
-
+                studentRequest.setExpertise(string(cells[8]));
                 // Thêm cột className
-                if (row.getCell(9) != null && row.getCell(9).getCellType() == CellType.STRING) {
-                    studentRequest.setClassName(row.getCell(9).getStringCellValue());
-                }
-
-                // Thêm đối tượng CreateStudentRequest vào danh sách
-                studentRequests.add(studentRequest);
+                studentRequest.setClassName(string(cells[9]));
+
+                error = required(
+                        "username", studentRequest.getUsername(),
+                        "email", studentRequest.getEmail(),
+                        "full name", studentRequest.getFullName(),
+                        "student code", studentRequest.getStudentCode(),
+                        "class name", studentRequest.getClassName());
+            } catch (IllegalArgumentException e) {
+                error = e.getMessage();
             }
-
-            return studentRequests;
-        } catch (Exception e) {
-            throw new OurException("Error reading Excel file: " + e.getMessage());
-        }
+            consumer.accept(rowNumber, studentRequest, error);
+        });
     }
 
-    public static List<CreateMentorRequest> excelToMentors(MultipartFile file) {
-        try (
-                InputStream is = file.getInputStream();
-                Workbook workbook = new XSSFWorkbook(is);
-        ) {
-            List<CreateMentorRequest> mentorRequests = new ArrayList<>();
-            Sheet sheet = workbook.getSheetAt(0);
-            int rowNumber = 0;
-
-            for (Row row : sheet) {
-                // Bỏ qua dòng tiêu đề
-                if (rowNumber == 0) {
-                    rowNumber++;
-                    continue;
-                }
-
-                CreateMentorRequest mentorRequest = new CreateMentorRequest();
-
+    public static void excelToMentors(MultipartFile file, RowConsumer<CreateMentorRequest> consumer) {
+        ExcelRowReader.read(file, 9, (rowNumber, cells) -> {
+            CreateMentorRequest mentorRequest = new CreateMentorRequest();
+            String error;
+            try {
                 // Kiểm tra và xử lý các ô
-                if (row.getCell(0) != null && row.getCell(0).getCellType() == CellType.STRING) {
-                    mentorRequest.setUsername(row.getCell(0).getStringCellValue());
-                }
-
-                if (row.getCell(1) != null && row.getCell(1).getCellType() == CellType.STRING) {
-                    mentorRequest.setEmail(row.getCell(1).getStringCellValue());
-                }
-
-                if (row.getCell(2) != null && row.getCell(2).getCellType() == CellType.STRING) {
-                    mentorRequest.setFullName(row.getCell(2).getStringCellValue());
-                }
-
-                if (row.getCell(3) != null && row.getCell(3).getCellType() == CellType.NUMERIC) {
-                    mentorRequest.setBirthDate(row.getCell(3).getDateCellValue().toInstant().atZone(ZoneId.systemDefault()).toLocalDate());
-                }
-
-                if (row.getCell(4) != null && row.getCell(4).getCellType() == CellType.STRING) {
-                    mentorRequest.setAddress(row.getCell(4).getStringCellValue());
-                }
-
-                if (row.getCell(5) != null) {
-                    if (row.getCell(5).getCellType() == CellType.NUMERIC) {
-                        // Chuyển đổi số thành chuỗi và bỏ phần thập phân
-                        mentorRequest.setPhone(String.valueOf((long) row.getCell(5).getNumericCellValue()));
-                    } else if (row.getCell(5).getCellType() == CellType.STRING) {
-                        mentorRequest.setPhone(row.getCell(5).getStringCellValue());
-                    }
-                }
-
-                if (row.getCell(6) != null && row.getCell(6).getCellType() == CellType.STRING) {
-                    mentorRequest.setGender(Gender.valueOf(row.getCell(6).getStringCellValue()));
-                }
-
-                if (row.getCell(7) != null && row.getCell(7).getCellType() == CellType.STRING) {
-                    mentorRequest.setMentorCode(row.getCell(7).getStringCellValue());
-                }
-
+                mentorRequest.setUsername(string(cells[0]));
+                mentorRequest.setEmail(string(cells[1]));
+                mentorRequest.setFullName(string(cells[2]));
+                if (cells[3] != null && cells[3].isNumeric()) {
+                    mentorRequest.setBirthDate(cells[3].getDate());
+                }
+                mentorRequest.setAddress(string(cells[4]));
+                mentorRequest.setPhone(phone(cells[5]));
+                mentorRequest.setGender(gender(cells[6]));
+                mentorRequest.setMentorCode(string(cells[7]));
                 // Thêm cột skills
-                if (row.getCell(8) != null && row.getCell(8).getCellType() == CellType.STRING) {
-                    String skillsString = row.getCell(8).getStringCellValue();
+                String skillsString = string(cells[8]);
+                if (skillsString != null) {
                     List<String> skillsList = Arrays.stream(skillsString.split(","))
                             .map(String::trim)
                             .collect(Collectors.toList());
                     mentorRequest.setSkilllNamesList(skillsList);
                 }
 
-                // Thêm đối tượng CreateMentorRequest vào danh sách
-                mentorRequests.add(mentorRequest);
+                error = required(
+                        "username", mentorRequest.getUsername(),
+                        "email", mentorRequest.getEmail(),
+                        "full name", mentorRequest.getFullName(),
+                        "mentor code", mentorRequest.getMentorCode(),
+                        "skills", skillsString);
+            } catch (IllegalArgumentException e) {
+                error = e.getMessage();
             }
-
-            return mentorRequests;
-        } catch (Exception e) {
-            throw new OurException("Error reading Excel file: " + e.getMessage());
-        }
+            consumer.accept(rowNumber, mentorRequest, error);
+        });
     }
 
-    public static List<TopicDTO> excelToTopics(MultipartFile file){
-        try (InputStream is = file.getInputStream();
-             Workbook workbook = new XSSFWorkbook(is);)
-        {
+    public static void excelToTopics(MultipartFile file, RowConsumer<TopicDTO> consumer) {
+        ExcelRowReader.read(file, 8, (rowNumber, cells) -> {
+            TopicDTO topicRequest = new TopicDTO();
+            topicRequest.setTopicName(string(cells[0]));
+            topicRequest.setContext(string(cells[1]));
+            topicRequest.setProblems(string(cells[2]));
 
-            List<TopicDTO> topicRequests = new ArrayList<>();
-            Sheet sheet = workbook.getSheetAt(0);
-            int rowNumber = 0;
-
-            for (Row row : sheet) {
-                if (rowNumber == 0) {
-                    rowNumber++;
-                    continue; // Bỏ qua dòng tiêu đề
-                }
-
-                TopicDTO topicRequest = new TopicDTO();
-
-                if (row.getCell(0) != null && row.getCell(0).getCellType() == CellType.STRING) {
-                    topicRequest.setTopicName(row.getCell(0).getStringCellValue());
-                }
+            String actorString = string(cells[3]);
+            if (actorString != null) {
+                topicRequest.setActor(Arrays.asList(actorString.split(",")));
+            }
 
-                if (row.getCell(1) != null && row.getCell(1).getCellType() == CellType.STRING) {
-                    topicRequest.setContext(row.getCell(1).getStringCellValue());
-                }
+            String requirementString = string(cells[4]);
+            if (requirementString != null) {
+                topicRequest.setRequirement(Arrays.asList(requirementString.split("\\.")));
+            }
 
-                if (row.getCell(2) != null && row.getCell(2).getCellType() == CellType.STRING) {
-                    topicRequest.setProblems(row.getCell(2).getStringCellValue());
-                }
+            String nonFuncRequirementString = string(cells[5]);
+            if (nonFuncRequirementString != null) {
+                topicRequest.setNonFunctionRequirement(Arrays.asList(nonFuncRequirementString.split("\\.")));
+            }
 
-                if (row.getCell(3) != null && row.getCell(3).getCellType() == CellType.STRING) {
-                    String actorString = row.getCell(3).getStringCellValue();
-                    List<String> actorList = Arrays.asList(actorString.split(","));
-                    topicRequest.setActor(actorList);
-                }
+            topicRequest.setMentorName(string(cells[6]));
+            topicRequest.setSubMentorName(string(cells[7]));
 
-                if (row.getCell(4) != null && row.getCell(4).getCellType() == CellType.STRING) {
-                    String requirementString = row.getCell(4).getStringCellValue();
-                    List<String> requirementList = Arrays.asList(requirementString.split("\\."));
-                    topicRequest.setRequirement(requirementList);
-                }
+            consumer.accept(rowNumber, topicRequest, required("topic name", topicRequest.getTopicName()));
+        });
+    }
 
-                if (row.getCell(5) != null && row.getCell(5).getCellType() == CellType.STRING) {
-                    String nonFuncRequirementString = row.getCell(5).getStringCellValue();
-                    List<String> nonFuncReqList = Arrays.asList(nonFuncRequirementString.split("\\."));
-                    topicRequest.setNonFunctionRequirement(nonFuncReqList);
-                }
+    private static String string(Cell cell) {
+        return cell != null && cell.isString() ? cell.getString() : null;
+    }
 
-                if (row.getCell(6) != null && row.getCell(6).getCellType() == CellType.STRING) {
-                    topicRequest.setMentorName(row.getCell(6).getStringCellValue());
-                }
+    private static String phone(Cell cell) {
+        if (cell == null) {
+            return null;
+        }
+        // Chuyển đổi số thành chuỗi và bỏ phần thập phân
+        return cell.isNumeric() ? String.valueOf((long) cell.getNumber()) : string(cell);
+    }
 
-                if (row.getCell(7) != null && row.getCell(7).getCellType() == CellType.STRING) {
-                    topicRequest.setSubMentorName(row.getCell(7).getStringCellValue());
-                }
+    private static Gender gender(Cell cell) {
+        String value = string(cell);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Gender.valueOf(value.trim());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid gender: " + value);
+        }
+    }
 
-                topicRequests.add(topicRequest);
+    //Pairs of column name and value, the error of the first blank one
+    private static String required(String... columnsAndValues) {
+        for (int i = 0; i < columnsAndValues.length; i += 2) {
+            String value = columnsAndValues[i + 1];
+            if (value == null || value.isBlank()) {
+                return "Missing " + columnsAndValues[i];
             }
-
-            return topicRequests;
-        } catch (Exception e) {
-            throw new OurException("Error reading Excel file: " + e.getMessage());
         }
+        return null;
     }
-
 }
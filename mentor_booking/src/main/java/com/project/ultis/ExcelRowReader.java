@@ -0,0 +1,197 @@
+package com.project.ultis;
+
+import com.project.exception.OurException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.springframework.web.multipart.MultipartFile;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.Iterator;
+
+/**
+ * Streaming reader of the first sheet of an .xlsx upload.
+ *
+ * The upload is copied to a temporary file and the sheet XML is parsed with
+ * SAX, so only the shared strings and the current row are in memory instead
+ * of the whole workbook. Each row after the header is handed to the handler
+ * with its Excel row number as soon as it is parsed; blank rows are skipped.
+ */
+public class ExcelRowReader {
+
+    public interface RowHandler {
+        void handle(int rowNumber, Cell[] cells);
+    }
+
+    /**
+     * Value of one cell, STRING (shared, inline or formula string), NUMERIC
+     * (numbers and dates) or BOOLEAN
+     */
+    public static class Cell {
+
+        public enum Type { STRING, NUMERIC, BOOLEAN }
+
+        private final Type type;
+        private final String text;
+
+        private Cell(Type type, String text) {
+            this.type = type;
+            this.text = text;
+        }
+
+        public boolean isString() {
+            return type == Type.STRING;
+        }
+
+        public boolean isNumeric() {
+            return type == Type.NUMERIC;
+        }
+
+        public String getString() {
+            return text;
+        }
+
+        public double getNumber() {
+            return Double.parseDouble(text);
+        }
+
+        //Excel stores dates as days since 1900
+        public LocalDate getDate() {
+            return DateUtil.getLocalDateTime(getNumber()).toLocalDate();
+        }
+    }
+
+    public static void read(MultipartFile file, int columnCount, RowHandler handler) {
+        Path temp = null;
+        try {
+            temp = Files.createTempFile("excel-import-", ".xlsx");
+            try (InputStream is = file.getInputStream()) {
+                Files.copy(is, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            try (OPCPackage pkg = OPCPackage.open(temp.toFile(), PackageAccess.READ)) {
+                XSSFReader reader = new XSSFReader(pkg);
+                ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+                Iterator<InputStream> sheets = reader.getSheetsData();
+                if (!sheets.hasNext()) {
+                    throw new OurException("Excel file has no sheet");
+                }
+                try (InputStream sheet = sheets.next()) {
+                    XMLReader parser = XMLHelper.newXMLReader();
+                    parser.setContentHandler(new SheetHandler(strings, columnCount, handler));
+                    parser.parse(new InputSource(sheet));
+                }
+            }
+        } catch (OurException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new OurException("Error reading Excel file: " + e.getMessage());
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (Exception e) {
+                    System.out.println("Could not delete temporary Excel file: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static class SheetHandler extends DefaultHandler {
+
+        private final ReadOnlySharedStringsTable strings;
+        private final int columnCount;
+        private final RowHandler handler;
+
+        private final StringBuilder value = new StringBuilder();
+        private Cell[] cells;
+        private boolean header = true;
+        private boolean hasValue;
+        private int rowNumber;
+        private int column;
+        private String cellType;
+        private boolean collecting;
+
+        private SheetHandler(ReadOnlySharedStringsTable strings, int columnCount, RowHandler handler) {
+            this.strings = strings;
+            this.columnCount = columnCount;
+            this.handler = handler;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            switch (localName) {
+                case "row" -> {
+                    String r = attributes.getValue("r");
+                    rowNumber = r != null ? Integer.parseInt(r) : rowNumber + 1;
+                    cells = new Cell[columnCount];
+                    hasValue = false;
+                    column = -1;
+                }
+                case "c" -> {
+                    String ref = attributes.getValue("r");
+                    column = ref != null ? new CellReference(ref).getCol() : column + 1;
+                    cellType = attributes.getValue("t");
+                    value.setLength(0);
+                }
+                case "v", "t" -> collecting = true;
+                default -> {
+                }
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            switch (localName) {
+                case "v", "t" -> collecting = false;
+                case "c" -> {
+                    if (column < columnCount) {
+                        Cell cell = toCell();
+                        cells[column] = cell;
+                        hasValue |= cell != null;
+                    }
+                }
+                case "row" -> {
+                    if (header) {
+                        header = false;
+                    } else if (hasValue) {
+                        handler.handle(rowNumber, cells);
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (collecting) {
+                value.append(ch, start, length);
+            }
+        }
+
+        private Cell toCell() {
+            String text = value.toString();
+            if (cellType == null || cellType.equals("n")) {
+                return text.isEmpty() ? null : new Cell(Cell.Type.NUMERIC, text);
+            }
+            return switch (cellType) {
+                case "s" -> new Cell(Cell.Type.STRING, strings.getItemAt(Integer.parseInt(text)).getString());
+                case "inlineStr", "str" -> new Cell(Cell.Type.STRING, text);
+                case "b" -> new Cell(Cell.Type.BOOLEAN, text);
+                default -> null;
+            };
+        }
+    }
+}
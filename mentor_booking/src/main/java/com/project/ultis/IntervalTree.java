@@ -0,0 +1,87 @@
+package com.project.ultis;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Static interval tree over closed intervals [start, end].
+ *
+ * The intervals are sorted by start and laid out as an implicit balanced
+ * tree: the middle of a range is the node, the halves are its children. Each
+ * node also keeps the largest end of its subtree, so a query skips every
+ * subtree ending before the query starts and every right subtree starting
+ * after it ends. A query is O(log n + k) for k overlapping intervals.
+ *
+ * Immutable once built, build a new tree when the intervals change.
+ *
+ * @param <T> the value attached to an interval
+ */
+public class IntervalTree<T> {
+
+    private final long[] starts;
+    private final long[] ends;
+    private final long[] maxEnds;
+    private final List<T> values;
+
+    public IntervalTree(List<T> items, ToLongFunction<T> start, ToLongFunction<T> end) {
+        List<T> sorted = new ArrayList<>(items);
+        sorted.sort(Comparator.comparingLong(start));
+        int n = sorted.size();
+        this.values = sorted;
+        this.starts = new long[n];
+        this.ends = new long[n];
+        this.maxEnds = new long[n];
+        for (int i = 0; i < n; i++) {
+            starts[i] = start.applyAsLong(sorted.get(i));
+            ends[i] = end.applyAsLong(sorted.get(i));
+        }
+        computeMaxEnd(0, n);
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+    /**
+     * Values whose interval shares at least one point with [from, to]
+     */
+    public List<T> findOverlapping(long from, long to) {
+        List<T> result = new ArrayList<>();
+        collect(0, values.size(), from, to, result);
+        return result;
+    }
+
+    public boolean overlaps(long from, long to) {
+        return !findOverlapping(from, to).isEmpty();
+    }
+
+    private long computeMaxEnd(int low, int high) {
+        if (low >= high) {
+            return Long.MIN_VALUE;
+        }
+        int mid = (low + high) >>> 1;
+        long max = Math.max(ends[mid], Math.max(computeMaxEnd(low, mid), computeMaxEnd(mid + 1, high)));
+        maxEnds[mid] = max;
+        return max;
+    }
+
+    private void collect(int low, int high, long from, long to, List<T> result) {
+        if (low >= high) {
+            return;
+        }
+        int mid = (low + high) >>> 1;
+        if (maxEnds[mid] < from) {
+            return;
+        }
+        collect(low, mid, from, to, result);
+        if (starts[mid] > to) {
+            return;
+        }
+        if (ends[mid] >= from) {
+            result.add(values.get(mid));
+        }
+        collect(mid + 1, high, from, to, result);
+    }
+}
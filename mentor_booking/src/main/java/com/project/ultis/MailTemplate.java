@@ -0,0 +1,111 @@
+package com.project.ultis;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Mail template compiled once into literal parts and variables.
+ *
+ * {{name}} is replaced by the value HTML-escaped, {{{name}}} by the value as
+ * it is. A variable without a value renders as nothing. Rendering appends to
+ * a buffer kept per thread, so a mail only allocates its resulting String.
+ */
+public final class MailTemplate {
+
+    //Buffers grown past this are dropped after use instead of kept
+    private static final int MAX_KEPT_BUFFER = 64 * 1024;
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(2048));
+
+    //literals[i] comes before variable i, the last literal ends the template
+    private final String[] literals;
+    private final String[] names;
+    private final boolean[] raw;
+    private final int literalLength;
+
+    private MailTemplate(List<String> literals, List<String> names, List<Boolean> raw) {
+        this.literals = literals.toArray(new String[0]);
+        this.names = names.toArray(new String[0]);
+        this.raw = new boolean[raw.size()];
+        for (int i = 0; i < this.raw.length; i++) {
+            this.raw[i] = raw.get(i);
+        }
+        int length = 0;
+        for (String literal : this.literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    public static MailTemplate compile(String source) {
+        List<String> literals = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        List<Boolean> raw = new ArrayList<>();
+        int position = 0;
+        while (true) {
+            int open = source.indexOf("{{", position);
+            if (open < 0) {
+                literals.add(source.substring(position));
+                return new MailTemplate(literals, names, raw);
+            }
+            boolean isRaw = source.startsWith("{{{", open);
+            String closeToken = isRaw ? "}}}" : "}}";
+            int nameStart = open + (isRaw ? 3 : 2);
+            int close = source.indexOf(closeToken, nameStart);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed variable at position " + open);
+            }
+            String name = source.substring(nameStart, close).trim();
+            if (name.isEmpty()) {
+                throw new IllegalArgumentException("Empty variable at position " + open);
+            }
+            literals.add(source.substring(position, open));
+            names.add(name);
+            raw.add(isRaw);
+            position = close + closeToken.length();
+        }
+    }
+
+    public String render(Map<String, String> values) {
+        StringBuilder buffer = BUFFER.get();
+        buffer.setLength(0);
+        renderTo(buffer, values);
+        String result = buffer.toString();
+        if (buffer.capacity() > MAX_KEPT_BUFFER) {
+            BUFFER.remove();
+        }
+        return result;
+    }
+
+    public void renderTo(StringBuilder out, Map<String, String> values) {
+        out.ensureCapacity(out.length() + literalLength + 64);
+        for (int i = 0; i < names.length; i++) {
+            out.append(literals[i]);
+            String value = values.get(names[i]);
+            if (value == null) {
+                continue;
+            }
+            if (raw[i]) {
+                out.append(value);
+            } else {
+                escapeHtml(out, value);
+            }
+        }
+        out.append(literals[names.length]);
+    }
+
+    private static void escapeHtml(StringBuilder out, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '&' -> out.append("&amp;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+}
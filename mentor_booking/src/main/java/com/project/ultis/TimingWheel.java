@@ -0,0 +1,124 @@
+package com.project.ultis;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel.
+ *
+ * The lowest wheel has {@code wheelSize} buckets of {@code tickMs} each, every
+ * upper wheel is created on demand and its tick is the whole span of the wheel
+ * below it. Adding an item and advancing one tick are O(1), items far in the
+ * future are cascaded down when their upper bucket comes around.
+ *
+ * An item is returned by {@link #advance(long)} once the clock has passed its
+ * deadline, at most one tick late.
+ *
+ * @param <T> the scheduled item
+ */
+public class TimingWheel<T> {
+
+    private final long tickMs;
+    private final int wheelSize;
+    private final long interval;
+    private final List<ArrayDeque<Entry<T>>> buckets;
+    private long currentTime;
+    private TimingWheel<T> overflowWheel;
+
+    public TimingWheel(long tickMs, int wheelSize, long startMs) {
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.interval = tickMs * wheelSize;
+        this.buckets = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            buckets.add(new ArrayDeque<>());
+        }
+        this.currentTime = startMs - (startMs % tickMs);
+    }
+
+    /**
+     * Schedule an item
+     *
+     * @param deadlineMs epoch millis the item is due at
+     * @param item the item
+     * @return false if the deadline has already passed, the item is not kept
+     * and the caller should handle it right away
+     */
+    public synchronized boolean add(long deadlineMs, T item) {
+        return place(new Entry<>(deadlineMs, item));
+    }
+
+    /**
+     * Move the clock forward and collect every item that is now due
+     *
+     * @param nowMs current epoch millis
+     * @return the due items, in deadline order per tick
+     */
+    public synchronized List<T> advance(long nowMs) {
+        List<T> due = new ArrayList<>();
+        long target = nowMs - (nowMs % tickMs);
+        while (currentTime < target) {
+            //The bucket of the tick that just ended only holds deadlines before the new clock
+            ArrayDeque<Entry<T>> bucket = bucketOf(currentTime);
+            currentTime += tickMs;
+            while (!bucket.isEmpty()) {
+                due.add(bucket.poll().item);
+            }
+            if (overflowWheel != null) {
+                overflowWheel.cascade(currentTime, this, due);
+            }
+        }
+        return due;
+    }
+
+    private boolean place(Entry<T> entry) {
+        if (entry.deadlineMs < currentTime) {
+            return false;
+        }
+        if (entry.deadlineMs < currentTime + interval) {
+            bucketOf(entry.deadlineMs).add(entry);
+            return true;
+        }
+        if (overflowWheel == null) {
+            overflowWheel = new TimingWheel<>(interval, wheelSize, currentTime);
+        }
+        return overflowWheel.place(entry);
+    }
+
+    /**
+     * Called by the wheel below each time its clock moves. When this wheel's
+     * bucket starts, its items are put back into the lowest wheel.
+     */
+    private void cascade(long timeMs, TimingWheel<T> root, List<T> due) {
+        if (timeMs < currentTime + tickMs) {
+            return;
+        }
+        currentTime = timeMs - (timeMs % tickMs);
+        ArrayDeque<Entry<T>> bucket = bucketOf(currentTime);
+        while (!bucket.isEmpty()) {
+            Entry<T> entry = bucket.poll();
+            if (!root.place(entry)) {
+                due.add(entry.item);
+            }
+        }
+        if (overflowWheel != null) {
+            overflowWheel.cascade(timeMs, root, due);
+        }
+    }
+
+    private ArrayDeque<Entry<T>> bucketOf(long timeMs) {
+        return buckets.get((int) ((timeMs / tickMs) % wheelSize));
+    }
+
+    private static final class Entry<T> {
+
+        private final long deadlineMs;
+        private final T item;
+
+        private Entry(long deadlineMs, T item) {
+            this.deadlineMs = deadlineMs;
+            this.item = item;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.project.ultis;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Run code when the current transaction ends, used by the in-memory indexes
+ * and queues so they never see data that is rolled back.
+ */
+public class TransactionHooks {
+
+    private TransactionHooks() {
+    }
+
+    /**
+     * Run the task once the current transaction commits, right away if
+     * there is no transaction. Nothing runs on rollback.
+     *
+     * @param task the task
+     */
+    public static void afterCommit(Runnable task) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    task.run();
+                }
+            });
+        } else {
+            task.run();
+        }
+    }
+
+    /**
+     * Run the task once the current transaction ends, committed or rolled
+     * back. Nothing runs if there is no transaction.
+     *
+     * @param task the task
+     */
+    public static void afterCompletion(Runnable task) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    task.run();
+                }
+            });
+        }
+    }
+}
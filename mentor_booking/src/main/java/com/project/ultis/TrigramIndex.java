@@ -0,0 +1,170 @@
+package com.project.ultis;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory substring index of short texts (names) by id.
+ *
+ * Texts are folded before indexing: accents are removed ("Nguyễn Đức" becomes
+ * "nguyen duc"), letters are lower case and spaces are collapsed. Every
+ * trigram of a folded text points to the ids containing it. A query of three
+ * characters or more intersects the posting lists of its trigrams, smallest
+ * first, and checks the few candidates left; a shorter query scans the texts.
+ *
+ * Safe for concurrent use, queries share a read lock.
+ */
+public class TrigramIndex {
+
+    private static final int GRAM = 3;
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    private final Map<Long, String> texts = new HashMap<>();
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Add or replace the text of an id, a null text removes it
+     */
+    public void put(Long id, String text) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            if (text != null) {
+                String folded = fold(text);
+                texts.put(id, folded);
+                for (String gram : grams(folded)) {
+                    postings.computeIfAbsent(gram, key -> new HashSet<>()).add(id);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replace the whole content
+     */
+    public void reset(Map<Long, String> textsById) {
+        lock.writeLock().lock();
+        try {
+            texts.clear();
+            postings.clear();
+            for (Map.Entry<Long, String> entry : textsById.entrySet()) {
+                if (entry.getValue() != null) {
+                    String folded = fold(entry.getValue());
+                    texts.put(entry.getKey(), folded);
+                    for (String gram : grams(folded)) {
+                        postings.computeIfAbsent(gram, key -> new HashSet<>()).add(entry.getKey());
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids whose text contains the query, ignoring case and accents
+     *
+     * @return ids in ascending order, all ids for a blank query
+     */
+    public List<Long> search(String query) {
+        String folded = fold(query);
+        List<Long> ids = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            if (folded.length() < GRAM) {
+                for (Map.Entry<Long, String> entry : texts.entrySet()) {
+                    if (entry.getValue().contains(folded)) {
+                        ids.add(entry.getKey());
+                    }
+                }
+            } else {
+                List<Set<Long>> lists = new ArrayList<>();
+                for (String gram : grams(folded)) {
+                    Set<Long> list = postings.get(gram);
+                    if (list == null) {
+                        return ids;
+                    }
+                    lists.add(list);
+                }
+                Set<Long> smallest = Collections.min(lists, (a, b) -> Integer.compare(a.size(), b.size()));
+                for (Long id : smallest) {
+                    if (texts.get(id).contains(folded)) {
+                        ids.add(id);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        Collections.sort(ids);
+        return ids;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return texts.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Lower case without accents and with single spaces, đ is folded to d
+     */
+    public static String fold(String text) {
+        if (text == null) {
+            return "";
+        }
+        String folded = Normalizer.normalize(text, Normalizer.Form.NFD);
+        folded = MARKS.matcher(folded).replaceAll("");
+        folded = folded.replace('đ', 'd').replace('Đ', 'D').toLowerCase(Locale.ROOT);
+        return SPACES.matcher(folded).replaceAll(" ").trim();
+    }
+
+    private void removeLocked(Long id) {
+        String old = texts.remove(id);
+        if (old == null) {
+            return;
+        }
+        for (String gram : grams(old)) {
+            Set<Long> list = postings.get(gram);
+            if (list != null) {
+                list.remove(id);
+                if (list.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    private static Set<String> grams(String folded) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= folded.length(); i++) {
+            grams.add(folded.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+}
@@ -0,0 +1,84 @@
+package com.project.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class NameSearchIndexTests {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final NameSearchIndex index = new NameSearchIndex();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ReflectionTestUtils.setField(index, "jdbcTemplate", jdbcTemplate);
+        rows("SELECT id, full_name FROM users",
+                new Object[]{1L, "Nguyễn Văn An"},
+                new Object[]{2L, "Trần An"},
+                new Object[]{3L, "Lê Thị An"},
+                new Object[]{4L, "Phạm An"});
+        //user id, mentor status, student status, class id
+        rows("SELECT u.id",
+                new Object[]{1L, null, "ACTIVE", 5L},
+                new Object[]{2L, null, "ACTIVE", null},
+                new Object[]{3L, null, "INACTIVE", 5L},
+                new Object[]{4L, "ACTIVE", null, null});
+        rows("SELECT id, topic_name");
+        rows("SELECT id, group_name");
+        index.rebuild();
+    }
+
+    @Test
+    void studentWithoutClassIsNotInAnyClass() {
+        assertEquals(Map.of(5L, List.of(1L, 3L)), index.findStudentUserIdsByClass("an", List.of(0L, 5L), false));
+        assertEquals(List.of(), index.findStudentUserIds("tran", 0L, false));
+    }
+
+    @Test
+    void activeOnlyAndMentorsAreNarrowedByStatus() {
+        assertEquals(List.of(1L), index.findStudentUserIds("an", 5L, true));
+        assertEquals(List.of(4L), index.findMentorUserIds("an"));
+    }
+
+    //Feed the rows to the row handler of every query starting with the sql
+    private void rows(String sql, Object[]... rows) throws Exception {
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (Object[] row : rows) {
+                handler.processRow(resultSet(row));
+            }
+            return null;
+        }).when(jdbcTemplate).query(startsWith(sql), any(RowCallbackHandler.class));
+    }
+
+    //Only the getters the index uses, wasNull reports the last column read like JDBC does
+    private static ResultSet resultSet(Object[] row) {
+        boolean[] lastNull = new boolean[1];
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("wasNull")) {
+                        return lastNull[0];
+                    }
+                    Object value = row[(Integer) args[0] - 1];
+                    lastNull[0] = value == null;
+                    return switch (method.getName()) {
+                        case "getLong" -> value == null ? 0L : value;
+                        case "getString" -> value;
+                        case "getObject" -> value;
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    };
+                });
+    }
+}
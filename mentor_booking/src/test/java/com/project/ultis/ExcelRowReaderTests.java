@@ -0,0 +1,109 @@
+package com.project.ultis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.project.exception.OurException;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+
+class ExcelRowReaderTests {
+
+    private record ReadRow(int number, ExcelRowReader.Cell[] cells) {
+    }
+
+    private static List<ReadRow> read(Workbook workbook, int columnCount) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        workbook.write(out);
+        workbook.close();
+        List<ReadRow> rows = new ArrayList<>();
+        ExcelRowReader.read(new MockMultipartFile("file", "import.xlsx", null, out.toByteArray()), columnCount,
+                (rowNumber, cells) -> rows.add(new ReadRow(rowNumber, cells)));
+        return rows;
+    }
+
+    //Header row, then a full row, a blank row and a sparse row
+    private static void fill(Workbook workbook) {
+        Sheet sheet = workbook.createSheet();
+        Row header = sheet.createRow(0);
+        header.createCell(0).setCellValue("Name");
+        header.createCell(1).setCellValue("Point");
+        header.createCell(2).setCellValue("Birth date");
+
+        CellStyle dateStyle = workbook.createCellStyle();
+        dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd"));
+        Row full = sheet.createRow(1);
+        full.createCell(0).setCellValue("Nguyễn Văn A");
+        full.createCell(1).setCellValue(12.5);
+        full.createCell(2).setCellValue(LocalDate.of(2003, 4, 5));
+        full.getCell(2).setCellStyle(dateStyle);
+
+        sheet.createRow(2);
+
+        Row sparse = sheet.createRow(4);
+        sparse.createCell(2).setCellValue(true);
+        sparse.createCell(7).setCellValue("outside the columns");
+    }
+
+    private static void assertRows(List<ReadRow> rows) {
+        assertEquals(2, rows.size());
+
+        ReadRow full = rows.get(0);
+        assertEquals(2, full.number());
+        assertTrue(full.cells()[0].isString());
+        assertEquals("Nguyễn Văn A", full.cells()[0].getString());
+        assertTrue(full.cells()[1].isNumeric());
+        assertEquals(12.5, full.cells()[1].getNumber());
+        assertEquals(LocalDate.of(2003, 4, 5), full.cells()[2].getDate());
+
+        ReadRow sparse = rows.get(1);
+        assertEquals(5, sparse.number());
+        assertEquals(3, sparse.cells().length);
+        assertNull(sparse.cells()[0]);
+        assertNull(sparse.cells()[1]);
+        //Booleans are kept as Excel writes them
+        assertFalse(sparse.cells()[2].isString() || sparse.cells()[2].isNumeric());
+        assertEquals("1", sparse.cells()[2].getString());
+    }
+
+    @Test
+    void sharedStringsAndSparseCells() throws IOException {
+        XSSFWorkbook workbook = new XSSFWorkbook();
+        fill(workbook);
+
+        assertRows(read(workbook, 3));
+    }
+
+    @Test
+    void inlineStringsAndSparseCells() throws IOException {
+        //The streaming workbook writes strings inline instead of in the shared table
+        SXSSFWorkbook workbook = new SXSSFWorkbook();
+        fill(workbook);
+
+        List<ReadRow> rows = read(workbook, 3);
+        workbook.dispose();
+        assertRows(rows);
+    }
+
+    @Test
+    void notAnExcelFileIsRejected() {
+        MockMultipartFile file = new MockMultipartFile("file", "import.xlsx", null, "not a workbook".getBytes());
+
+        assertThrows(OurException.class, () -> ExcelRowReader.read(file, 3, (rowNumber, cells) -> {
+        }));
+    }
+}
@@ -0,0 +1,69 @@
+package com.project.ultis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class IntervalTreeTests {
+
+    private static IntervalTree<long[]> tree(long[]... intervals) {
+        return new IntervalTree<>(List.of(intervals), interval -> interval[0], interval -> interval[1]);
+    }
+
+    @Test
+    void intervalsAreClosedAtBothEnds() {
+        IntervalTree<long[]> tree = tree(new long[]{10, 20});
+
+        assertTrue(tree.overlaps(20, 30));
+        assertTrue(tree.overlaps(0, 10));
+        assertTrue(tree.overlaps(15, 15));
+        assertFalse(tree.overlaps(21, 30));
+        assertFalse(tree.overlaps(0, 9));
+    }
+
+    @Test
+    void queryInsideAndAroundIntervals() {
+        long[] a = {0, 5};
+        long[] b = {3, 8};
+        long[] c = {10, 12};
+        long[] d = {1, 100};
+        IntervalTree<long[]> tree = tree(c, a, d, b);
+
+        assertEquals(List.of(a, d, b), tree.findOverlapping(4, 4));
+        assertEquals(List.of(d, c), tree.findOverlapping(9, 10));
+        assertEquals(List.of(d), tree.findOverlapping(13, 200));
+        assertEquals(List.of(), tree.findOverlapping(101, 200));
+        assertEquals(4, tree.size());
+    }
+
+    @Test
+    void emptyTreeHasNoOverlap() {
+        IntervalTree<long[]> tree = tree();
+
+        assertEquals(0, tree.size());
+        assertFalse(tree.overlaps(Long.MIN_VALUE, Long.MAX_VALUE));
+    }
+
+    @Test
+    void sameResultsAsLinearScan() {
+        Random random = new Random(42);
+        List<long[]> intervals = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            long start = random.nextInt(10000);
+            intervals.add(new long[]{start, start + random.nextInt(200)});
+        }
+        IntervalTree<long[]> tree = new IntervalTree<>(intervals, interval -> interval[0], interval -> interval[1]);
+
+        for (int i = 0; i < 200; i++) {
+            long from = random.nextInt(10000);
+            long to = from + random.nextInt(300);
+            long expected = intervals.stream().filter(interval -> interval[0] <= to && interval[1] >= from).count();
+            assertEquals(expected, tree.findOverlapping(from, to).size());
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.project.ultis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class MailTemplateTests {
+
+    @Test
+    void doubleBracesEscapeAndTripleBracesDoNot() {
+        MailTemplate template = MailTemplate.compile("<p>{{name}}</p>{{{body}}}");
+
+        assertEquals("<p>Tom &amp; &quot;Jerry&quot; &lt;3 &#39;x&#39;</p><b>hi</b>",
+                template.render(Map.of("name", "Tom & \"Jerry\" <3 'x'", "body", "<b>hi</b>")));
+    }
+
+    @Test
+    void namesAreTrimmedAndMissingValuesRenderAsNothing() {
+        MailTemplate template = MailTemplate.compile("Hi {{ name }}, code {{{ code }}}.");
+
+        assertEquals("Hi Lan, code .", template.render(Map.of("name", "Lan")));
+    }
+
+    @Test
+    void tripleBraceVariableNextToLiteralBraces() {
+        //"{{{a}}}}" is the raw variable a followed by a literal brace
+        MailTemplate template = MailTemplate.compile("{{{a}}}}{{b}}}");
+
+        assertEquals("<1>}&lt;2&gt;}", template.render(Map.of("a", "<1>", "b", "<2>")));
+    }
+
+    @Test
+    void templateWithoutVariablesIsCopied() {
+        assertEquals("plain } text {", MailTemplate.compile("plain } text {").render(Map.of()));
+    }
+
+    @Test
+    void renderToAppends() {
+        StringBuilder out = new StringBuilder("> ");
+        MailTemplate.compile("{{a}}-{{a}}").renderTo(out, Map.of("a", "x"));
+
+        assertEquals("> x-x", out.toString());
+    }
+
+    @Test
+    void unclosedOrEmptyVariableIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> MailTemplate.compile("Hi {{name"));
+        assertThrows(IllegalArgumentException.class, () -> MailTemplate.compile("Hi {{{name}}"));
+        assertThrows(IllegalArgumentException.class, () -> MailTemplate.compile("Hi {{ }}"));
+    }
+}
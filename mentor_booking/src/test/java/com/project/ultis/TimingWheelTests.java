@@ -0,0 +1,73 @@
+package com.project.ultis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class TimingWheelTests {
+
+    @Test
+    void itemIsDueOnceItsTickHasPassed() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 4, 0);
+        assertTrue(wheel.add(25, "a"));
+
+        assertEquals(List.of(), wheel.advance(29));
+        assertEquals(List.of("a"), wheel.advance(30));
+        assertEquals(List.of(), wheel.advance(100));
+    }
+
+    @Test
+    void pastDeadlineIsNotKept() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 4, 0);
+        wheel.advance(50);
+
+        assertFalse(wheel.add(49, "late"));
+        assertTrue(wheel.add(50, "now"));
+        assertEquals(List.of("now"), wheel.advance(60));
+    }
+
+    @Test
+    void itemsOfOneTickKeepTheirOrder() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 4, 0);
+        wheel.add(12, "a");
+        wheel.add(15, "b");
+        wheel.add(11, "c");
+
+        assertEquals(List.of("a", "b", "c"), wheel.advance(20));
+    }
+
+    @Test
+    void farDeadlinesCascadeThroughOverflowWheels() {
+        //Lowest wheel spans 40 ms, the overflow wheels 160 ms and 640 ms
+        TimingWheel<String> wheel = new TimingWheel<>(10, 4, 0);
+        wheel.add(35, "near");
+        wheel.add(95, "overflow");
+        wheel.add(1000, "far");
+
+        assertEquals(List.of("near"), wheel.advance(90));
+        assertEquals(List.of("overflow"), wheel.advance(100));
+        assertEquals(List.of(), wheel.advance(1000));
+        assertEquals(List.of("far"), wheel.advance(1010));
+    }
+
+    @Test
+    void everyItemIsDueWithinOneTickWhenAdvancedStepByStep() {
+        TimingWheel<Long> wheel = new TimingWheel<>(10, 4, 0);
+        for (long deadline = 0; deadline < 3000; deadline += 7) {
+            wheel.add(deadline, deadline);
+        }
+
+        List<Long> due = new ArrayList<>();
+        for (long now = 0; now <= 3010; now += 10) {
+            for (Long deadline : wheel.advance(now)) {
+                assertTrue(deadline < now && deadline >= now - 20, "deadline " + deadline + " fired at " + now);
+                due.add(deadline);
+            }
+        }
+        assertEquals(429, due.size());
+    }
+}
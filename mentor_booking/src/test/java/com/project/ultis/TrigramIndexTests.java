@@ -0,0 +1,67 @@
+package com.project.ultis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class TrigramIndexTests {
+
+    @Test
+    void foldRemovesAccentsCaseAndExtraSpaces() {
+        assertEquals("nguyen duc thinh", TrigramIndex.fold("  Nguyễn   Đức\tThịnh "));
+        assertEquals("dat", TrigramIndex.fold("Đạt"));
+        assertEquals("", TrigramIndex.fold(null));
+    }
+
+    @Test
+    void searchIgnoresAccentsOnBothSides() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(1L, "Nguyễn Đức Thịnh");
+        index.put(2L, "Trần Văn Đạt");
+        index.put(3L, "Nguyen Van A");
+
+        assertEquals(List.of(1L, 3L), index.search("nguyen"));
+        assertEquals(List.of(1L, 3L), index.search("NGUYỄN"));
+        assertEquals(List.of(1L), index.search("duc thinh"));
+        assertEquals(List.of(2L, 3L), index.search("văn"));
+        assertEquals(List.of(), index.search("thinh nguyen"));
+    }
+
+    @Test
+    void shortAndBlankQueriesScanTheTexts() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(1L, "An");
+        index.put(2L, "Bình");
+
+        assertEquals(List.of(1L), index.search("a"));
+        assertEquals(List.of(2L), index.search("bi"));
+        assertEquals(List.of(1L, 2L), index.search("  "));
+    }
+
+    @Test
+    void putReplacesAndRemoveForgets() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(1L, "Lê Minh");
+        index.put(1L, "Phạm Hùng");
+
+        assertEquals(List.of(), index.search("minh"));
+        assertEquals(List.of(1L), index.search("hung"));
+
+        index.remove(1L);
+        assertEquals(List.of(), index.search("hung"));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void resetReplacesEverything() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(1L, "Lê Minh");
+        index.reset(Map.of(2L, "Võ Minh Khoa", 3L, "Đỗ Khoa"));
+
+        assertEquals(List.of(2L), index.search("minh"));
+        assertEquals(List.of(2L, 3L), index.search("khoa"));
+        assertEquals(2, index.size());
+    }
+}